@@ -48,6 +48,41 @@ public interface LanguageManager {
      */
     String getText(String language, String code, Object... args);
 
+    /**
+     * Get a handle to a message code, which can be used to get that message repeatedly without looking up its code
+     * every time.
+     *
+     * @param code The code of the message.
+     * @return A {@link TranslationKey TranslationKey} for the code. The message doesn't need to exist.
+     * @since 3.6.0
+     */
+    TranslationKey getTranslationKey(String code);
+
+    /**
+     * Get a message from its {@link TranslationKey key} in a player's language.
+     *
+     * @param player The {@link LanguagePlayer LanguagePlayer} to get the language from. Use the
+     *               {@link com.rexcantor64.triton.api.players.PlayerManager PlayerManager} to get it.
+     * @param key    The key of the message to get, from {@link #getTranslationKey(String)}.
+     * @param args   (optional) The variables to replace in the message.
+     * @return The message in the player's language. If no message is found with the provided key, a standard 404
+     * message will be returned.
+     * @since 3.6.0
+     */
+    String getText(LanguagePlayer player, TranslationKey key, Object... args);
+
+    /**
+     * Get a message from its {@link TranslationKey key} in a language.
+     *
+     * @param language The name of the {@link Language Language} to get the message from.
+     * @param key      The key of the message to get, from {@link #getTranslationKey(String)}.
+     * @param args     (optional) The variables to replace in the message.
+     * @return The message in the given language. If no message is found with the provided key, a standard 404
+     * message will be returned.
+     * @since 3.6.0
+     */
+    String getText(String language, TranslationKey key, Object... args);
+
     /**
      * Get a message from its code in the main language.
      *
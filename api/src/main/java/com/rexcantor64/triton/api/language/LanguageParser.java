@@ -3,6 +3,8 @@ package com.rexcantor64.triton.api.language;
 import com.rexcantor64.triton.api.config.FeatureSyntax;
 import net.md_5.bungee.api.chat.BaseComponent;
 
+import java.util.Map;
+
 /**
  * The class responsible by translating messages with placeholders
  */
@@ -30,4 +32,18 @@ public interface LanguageParser {
      */
     BaseComponent[] parseComponent(String language, FeatureSyntax syntax, BaseComponent... input);
 
+    /**
+     * Parses Triton's placeholders in a {@link BaseComponent} array once for each language spoken by the online
+     * players. Useful for messages sent to everyone, since they only have to be translated as many times
+     * as there are languages in use, instead of once per player.
+     *
+     * @param syntax The {@link FeatureSyntax} that'll be used for Triton's placeholders syntax.
+     * @param input  The input {@link BaseComponent}.
+     * @return A map from each language spoken by at least one online player to the input with Triton's
+     * placeholders replaced by the message in that language. A value might be null if the message
+     * should not be sent to players of that language.
+     * @since 3.6.0
+     */
+    Map<Language, BaseComponent[]> parseComponentForOnlineLanguages(FeatureSyntax syntax, BaseComponent... input);
+
 }
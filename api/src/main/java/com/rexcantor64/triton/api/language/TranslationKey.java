@@ -0,0 +1,17 @@
+package com.rexcantor64.triton.api.language;
+
+/**
+ * A handle to a translation key, which can be kept and reused to get messages faster than by their code.
+ * It stays valid after translations are reloaded.
+ *
+ * @since 3.6.0
+ */
+public interface TranslationKey {
+
+    /**
+     * @return The code of the message.
+     * @since 3.6.0
+     */
+    String getKey();
+
+}
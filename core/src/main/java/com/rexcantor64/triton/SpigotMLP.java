@@ -80,6 +80,9 @@ public class SpigotMLP extends Triton {
         // Setup listeners
         Bukkit.getPluginManager().registerEvents(guiManager = new GuiManager(), getLoader());
         Bukkit.getPluginManager().registerEvents(new BukkitListener(), getLoader());
+        // Players that are already online (e.g. after /reload) didn't go through the login events
+        for (val player : Bukkit.getOnlinePlayers())
+            getPlayerManager().registerPlayer(SpigotLanguagePlayer.loadAsync(player.getUniqueId(), 0));
         // Use ProtocolLib if available
         if (Bukkit.getPluginManager().isPluginEnabled("ProtocolLib")) {
             val asyncManager = ProtocolLibrary.getProtocolManager().getAsynchronousManager();
@@ -120,8 +123,10 @@ public class SpigotMLP extends Triton {
     protected void startConfigRefreshTask() {
         if (refreshTaskId != -1) Bukkit.getScheduler().cancelTask(refreshTaskId);
         if (getConf().getConfigAutoRefresh() <= 0) return;
+        // Reloading reads files and might download translations from the database, so keep it off the main thread
         refreshTaskId = Bukkit.getScheduler()
-                .scheduleSyncDelayedTask(getLoader(), this::reload, getConf().getConfigAutoRefresh() * 20L);
+                .runTaskLaterAsynchronously(getLoader(), this::reload, getConf().getConfigAutoRefresh() * 20L)
+                .getTaskId();
     }
 
     public ProtocolLibListener getProtocolLibListener() {
@@ -16,6 +16,7 @@ import com.rexcantor64.triton.plugin.PluginLoader;
 import com.rexcantor64.triton.storage.LocalStorage;
 import com.rexcantor64.triton.storage.MysqlStorage;
 import com.rexcantor64.triton.storage.Storage;
+import com.rexcantor64.triton.storage.TranslationsWatcher;
 import com.rexcantor64.triton.utils.FileUtils;
 import com.rexcantor64.triton.web.TwinManager;
 import lombok.Getter;
@@ -23,6 +24,7 @@ import lombok.val;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -46,6 +48,7 @@ public abstract class Triton implements com.rexcantor64.triton.api.Triton {
     private TwinManager twinManager;
     private PlayerManager playerManager;
     private Storage storage;
+    private TranslationsWatcher translationsWatcher;
     private TritonLogger logger;
 
     public static boolean isBungee() {
@@ -90,14 +93,73 @@ public abstract class Triton implements com.rexcantor64.triton.api.Triton {
         twinManager = new TwinManager(this);
     }
 
-    public void reload() {
+    /**
+     * Reloads the config, the messages, the storage and the translations, in that order.
+     * None of these need to run on the main thread: the new translations are only visible to other threads
+     * once they're completely loaded, so this should be called asynchronously when possible.
+     * Reloads never run at the same time, so if another one is running, this waits for it to finish.
+     */
+    public synchronized void reload() {
+        val start = System.currentTimeMillis();
         configYAML = loadYAML("config", isBungee() ? "bungee_config" : "config");
         config.setup();
         logger.setLogLevel(config.getLogLevel());
         messagesConfig.setup();
+        val configEnd = System.currentTimeMillis();
+
+        // The storage is replaced, so the watcher would otherwise load changes into the old one
+        stopTranslationsWatcher();
         setupStorage();
+        val storageEnd = System.currentTimeMillis();
+
         languageManager.setup();
+        val end = System.currentTimeMillis();
+
+        logger.logInfo(1, "Reloaded in %1ms (config: %2ms, storage: %3ms, translations: %4ms)", end - start,
+                configEnd - start, storageEnd - configEnd, end - storageEnd);
         startConfigRefreshTask();
+        startTranslationsWatcher();
+    }
+
+    public void onDisable() {
+        stopTranslationsWatcher();
+        if (storage != null)
+            storage.close();
+    }
+
+    private void startTranslationsWatcher() {
+        // On Spigot with bungeecord enabled, translations come from BungeeCord instead of the translations folder
+        if (!config.isWatchTranslationsFolder() || !(storage instanceof LocalStorage)
+                || (config.isBungeecord() && this instanceof SpigotMLP))
+            return;
+
+        try {
+            translationsWatcher = TranslationsWatcher.start((LocalStorage) storage, translationsFolder);
+            logger.logInfo(2, "Watching the translations folder for changes");
+        } catch (IOException e) {
+            logger.logError("Failed to watch the translations folder for changes: %1", e.getMessage());
+        }
+    }
+
+    private void stopTranslationsWatcher() {
+        if (translationsWatcher == null) return;
+        translationsWatcher.stop();
+        translationsWatcher = null;
+    }
+
+    /**
+     * Rebuilds the translations from the collections in the storage, sends them to the servers if this is
+     * a proxy, and refreshes the players.
+     */
+    public void refreshTranslations() {
+        languageManager.setup();
+
+        if (isBungee())
+            asBungee().getBridgeManager().sendConfigToEveryone();
+        if (isVelocity())
+            asVelocity().getBridgeManager().sendConfigToEveryone();
+
+        refreshPlayers();
     }
 
     public void refreshPlayers() {
@@ -131,6 +193,19 @@ public abstract class Triton implements com.rexcantor64.triton.api.Triton {
     public abstract File getDataFolder();
 
     private void setupStorage() {
+        // Save the languages of players that are still waiting to be saved by the old storage
+        val oldStorage = storage;
+        if (oldStorage != null)
+            oldStorage.close();
+
+        createStorage();
+
+        // Languages set while the storage was being replaced are saved by the new one
+        if (oldStorage != null && storage != oldStorage)
+            oldStorage.transferPendingLanguages(storage);
+    }
+
+    private void createStorage() {
         if (config.getStorageType().equalsIgnoreCase("mysql")) {
             try {
                 val mysqlStorage = new MysqlStorage(config.getDatabaseHost(), config.getDatabasePort(), config
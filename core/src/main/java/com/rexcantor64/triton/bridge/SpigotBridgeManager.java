@@ -144,6 +144,7 @@ public class SpigotBridgeManager implements PluginMessageListener {
                         collections = Triton.get().getStorage().getCollections();
                         val col = collections.containsKey("cache") ? collections.get("cache") : new Collection();
                         col.getItems().addAll(languageItems);
+                        col.setRevision(null);
                     }
                     Triton.get().getStorage().setCollections(collections);
                     Triton.get().getStorage().uploadToStorage(collections);
@@ -152,7 +153,7 @@ public class SpigotBridgeManager implements PluginMessageListener {
                             System.currentTimeMillis() - start);
                 } finally {
                     Triton.get().getLanguageManager().setup();
-                    Bukkit.getScheduler().runTaskLater(Triton.asSpigot().getLoader(), () -> Triton.get()
+                    Bukkit.getScheduler().runTaskLaterAsynchronously(Triton.asSpigot().getLoader(), () -> Triton.get()
                             .refreshPlayers(), 10L);
                 }
             } else if (action == 1) {
@@ -179,7 +180,7 @@ public class SpigotBridgeManager implements PluginMessageListener {
                     storage.setCollections(col);
 
                     Triton.get().getLanguageManager().setup();
-                    Bukkit.getScheduler().runTaskLater(Triton.asSpigot().getLoader(), () -> Triton.get()
+                    Bukkit.getScheduler().runTaskLaterAsynchronously(Triton.asSpigot().getLoader(), () -> Triton.get()
                             .refreshPlayers(), 10L);
                 });
             } else if (action == 4) {
@@ -42,10 +42,14 @@ public class DatabaseCommand implements Command {
             case "u":
                 sender.sendMessageFormatted("other.database-loading");
                 Triton.get().runAsync(() -> {
+                    val start = System.currentTimeMillis();
                     val localStorage = new LocalStorage();
                     val collections = localStorage.downloadFromStorage();
 
-                    Triton.get().getStorage().uploadToStorage(collections);
+                    if (!Triton.get().getStorage().uploadToStorage(collections)) {
+                        sender.sendMessageFormatted("error.database-failed");
+                        return;
+                    }
                     Triton.get().getStorage().setCollections(collections);
 
                     Triton.get().getLanguageManager().setup();
@@ -55,17 +59,21 @@ public class DatabaseCommand implements Command {
                         Triton.asVelocity().getBridgeManager().sendConfigToEveryone();
                     Triton.get().refreshPlayers();
 
-                    sender.sendMessageFormatted("success.database");
+                    sender.sendMessageFormatted("success.database", System.currentTimeMillis() - start);
                 });
                 break;
             case "download":
             case "d":
                 sender.sendMessageFormatted("other.database-loading");
                 Triton.get().runAsync(() -> {
+                    val start = System.currentTimeMillis();
                     val localStorage = new LocalStorage();
-                    localStorage.uploadToStorage(Triton.get().getStorage().getCollections());
+                    if (!localStorage.uploadToStorage(Triton.get().getStorage().getCollections())) {
+                        sender.sendMessageFormatted("error.database-failed");
+                        return;
+                    }
 
-                    sender.sendMessageFormatted("success.database");
+                    sender.sendMessageFormatted("success.database", System.currentTimeMillis() - start);
                 });
                 break;
             default:
@@ -19,7 +19,9 @@ public class InfoCommand implements Command {
                         Triton.get().getVersion(),
                         "Rexcantor64 (Diogo Correia)",
                         Triton.get().getStorage().toString(),
-                        event.getEnvironment().isProxy() || Triton.get().getConfig().isBungeecord()
+                        event.getEnvironment().isProxy() || Triton.get().getConfig().isBungeecord(),
+                        Triton.get().getStorage().getPendingLanguageCount(),
+                        Triton.get().getStorage().getLastLanguageSaveDuration()
                 )));
 
         return true;
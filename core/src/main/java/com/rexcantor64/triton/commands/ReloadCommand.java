@@ -40,8 +40,10 @@ public class ReloadCommand implements Command {
             }
         }
 
-        Triton.get().reload();
-        sender.sendMessageFormatted(isBungee ? "success.bungee-reload" : "success.reload");
+        Triton.get().runAsync(() -> {
+            Triton.get().reload();
+            sender.sendMessageFormatted(isBungee ? "success.bungee-reload" : "success.reload");
+        });
         return true;
     }
 
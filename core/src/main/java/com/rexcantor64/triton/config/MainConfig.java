@@ -42,6 +42,7 @@ public class MainConfig implements TritonConfig {
     private int logLevel;
     private boolean bungeecord;
     private int configAutoRefresh;
+    private boolean watchTranslationsFolder;
     private String twinToken;
     private List<String> commandAliases;
     private String disabledLine;
@@ -76,15 +77,22 @@ public class MainConfig implements TritonConfig {
     private boolean terminalAnsi;
     private boolean preventPlaceholdersInChat;
     private int maxPlaceholdersInMessage;
+    private int translationCacheSize;
+    private boolean linearPatternEngine;
+    private int patternTimeBudget;
 
     private String storageType = "local";
     private String serverName;
+    private long playerDataSaveInterval;
+    private boolean playerDataFsync;
+    private int playerDataBatchSize;
     private String databaseHost;
     private int databasePort;
     private String databaseName;
     private String databaseUser;
     private String databasePassword;
     private String databaseTablePrefix;
+    private int databaseBatchSize;
     private int databaseMysqlPoolMaxSize;
     private int databaseMysqlPoolMinIdle;
     private long databaseMysqlPoolMaxLifetime;
@@ -121,12 +129,16 @@ public class MainConfig implements TritonConfig {
         Configuration database = section.getSection("storage");
         storageType = database.getString("type", "local");
         serverName = database.getString("server-name", "lobby");
+        playerDataSaveInterval = Math.max(0, database.getLong("player-data-save-interval", 2000));
+        playerDataFsync = database.getBoolean("player-data-fsync", true);
+        playerDataBatchSize = Math.max(1, database.getInt("player-data-batch-size", 1000));
         databaseHost = database.getString("host", "localhost");
         databasePort = database.getInt("port", 3306);
         databaseName = database.getString("database", "triton");
         databaseUser = database.getString("username", "root");
         databasePassword = database.getString("password", "");
         databaseTablePrefix = database.getString("table-prefix", "triton_");
+        databaseBatchSize = Math.max(1, database.getInt("batch-size", 1000));
 
         val databaseMysqlPool = database.getSection("mysql-pool-advanced");
         databaseMysqlPoolMaxSize = databaseMysqlPool.getInt("maximum-pool-size", 10);
@@ -141,6 +153,8 @@ public class MainConfig implements TritonConfig {
         databaseMysqlPoolProperties.putIfAbsent("cachePrepStmts", "true");
         databaseMysqlPoolProperties.putIfAbsent("prepStmtCacheSize", "250");
         databaseMysqlPoolProperties.putIfAbsent("prepStmtCacheSqlLimit", "2048");
+        // Otherwise, batched statements are still sent to the database one by one
+        databaseMysqlPoolProperties.putIfAbsent("rewriteBatchedStatements", "true");
 
         if (section.contains("command-aliases"))
             commandAliases = section.getStringList("command-aliases");
@@ -151,6 +165,7 @@ public class MainConfig implements TritonConfig {
         this.alwaysCheckClientLocale = section.getBoolean("force-client-locale-on-join", false);
         this.logLevel = section.getInt("log-level", 0);
         this.configAutoRefresh = section.getInt("config-auto-refresh-interval", -1);
+        this.watchTranslationsFolder = section.getBoolean("watch-translations-folder", false);
         Configuration languageCreation = section.getSection("language-creation");
         setupLanguageCreation(languageCreation);
     }
@@ -201,6 +216,9 @@ public class MainConfig implements TritonConfig {
         terminalAnsi = section.getBoolean("terminalAnsi", true);
         preventPlaceholdersInChat = section.getBoolean("prevent-placeholders-in-chat", true);
         maxPlaceholdersInMessage = section.getInt("max-placeholders-in-message", 10);
+        translationCacheSize = section.getInt("translation-cache-size", 4096);
+        linearPatternEngine = "linear".equalsIgnoreCase(section.getString("pattern-engine", "java"));
+        patternTimeBudget = section.getInt("pattern-time-budget", 0);
 
         Configuration chat = section.getSection("chat");
         this.chat = chat.getBoolean("enabled", true);
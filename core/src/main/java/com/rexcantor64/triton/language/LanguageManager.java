@@ -4,51 +4,43 @@ import com.rexcantor64.triton.SpigotMLP;
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.api.language.SignLocation;
 import com.rexcantor64.triton.api.players.LanguagePlayer;
+import com.rexcantor64.triton.language.item.Collection;
 import com.rexcantor64.triton.language.item.LanguageSign;
 import com.rexcantor64.triton.language.item.LanguageText;
+import com.rexcantor64.triton.language.pattern.PatternIndex;
 import com.rexcantor64.triton.storage.LocalStorage;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.val;
 import lombok.var;
 import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
 
 import java.util.*;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class LanguageManager implements com.rexcantor64.triton.api.language.LanguageManager {
 
-    private List<Language> languages = new ArrayList<>();
-    private Language mainLanguage;
-    private HashMap<String, HashMap<String, String>> textItems = new HashMap<>();
-    private HashMap<String, HashMap<SignLocation, String[]>> signItems = new HashMap<>();
+    /**
+     * All the loaded state, replaced as a whole on reload.
+     * Read it once and use that reference if the state must be consistent across multiple lookups.
+     */
     @Getter
-    private List<String> signKeys = new ArrayList<>();
-    private Map<Pattern, LanguageText> matches = new HashMap<>();
-    @Getter
-    private int itemCount = 0;
+    private volatile LanguageSnapshot snapshot = LanguageSnapshot.EMPTY;
+    /**
+     * The compiled text items of the last setup, by collection name.
+     */
+    private Map<String, CompiledCollection> compiledCollections = new HashMap<>();
+    private String compileSettings;
 
     public String matchPattern(String input, LanguagePlayer p) {
         return matchPattern(input, p.getLang().getName());
     }
 
     public String matchPattern(String input, String language) {
-        for (Map.Entry<Pattern, LanguageText> entry : matches.entrySet()) {
-            String replacement = entry.getValue().getMessageRegex(language);
-            if (replacement == null) replacement = entry.getValue().getMessageRegex(mainLanguage.getName());
-            if (replacement == null) continue;
-            try {
-                Matcher matcher = entry.getKey().matcher(input);
-                input = matcher.replaceAll(ChatColor.translateAlternateColorCodes('&', replacement));
-            } catch (IndexOutOfBoundsException e) {
-                Triton.get().getLogger().logError(
-                        "Failed to translate using patterns: translation has more placeholders than regex groups. Translation key: %1",
-                        entry.getValue().getKey());
-            }
-        }
-        return input;
+        return snapshot.matchPattern(input, language);
     }
 
     public String getText(@NonNull LanguagePlayer p, String code, Object... args) {
@@ -56,34 +48,41 @@ public class LanguageManager implements com.rexcantor64.triton.api.language.Lang
     }
 
     public String getText(@NonNull String language, @NonNull String code, @NonNull Object... args) {
-        val langItems = this.textItems.get(language);
-        if (langItems == null) return getTextFromMain(code, args);
-
-        val msg = langItems.get(code);
-        if (msg == null) return getTextFromMain(code, args);
+        return snapshot.getText(language, code, args);
+    }
 
-        return formatMessage(msg, args);
+    public TranslationKey getTranslationKey(@NonNull String code) {
+        return new TranslationKey(code);
     }
 
-    public String getTextFromMain(@NonNull String code, @NonNull Object... args) {
-        val langItems = this.textItems.get(this.getMainLanguage().getName());
-        if (langItems == null)
-            return ChatColor.translateAlternateColorCodes('&',
-                    Triton.get().getMessagesConfig().getMessage("error.message-not-found", code, Arrays.toString(args)));
+    public String getText(@NonNull LanguagePlayer p, @NonNull com.rexcantor64.triton.api.language.TranslationKey key,
+                          Object... args) {
+        return getText(p.getLang().getName(), key, args);
+    }
 
-        val msg = langItems.get(code);
-        if (msg == null)
-            return ChatColor.translateAlternateColorCodes('&',
-                    Triton.get().getMessagesConfig().getMessage("error.message-not-found", code, Arrays.toString(args)));
+    public String getText(@NonNull String language, @NonNull com.rexcantor64.triton.api.language.TranslationKey key,
+                          @NonNull Object... args) {
+        if (!(key instanceof TranslationKey)) return getText(language, key.getKey(), args);
+        return snapshot.getText(language, (TranslationKey) key, args);
+    }
 
-        return formatMessage(msg, args);
+    /**
+     * Same as {@link #getText(String, String, Object...)}, but parses the translation into components.
+     * <code>[triton_json]</code> and <code>[minimsg]</code> translations are parsed when loaded,
+     * so this is cheaper than parsing the result of {@link #getText(String, String, Object...)}.
+     *
+     * @param language The name of the language to translate to.
+     * @param code     The key of the translation.
+     * @param args     The arguments to replace in the translation.
+     * @return The translation as components.
+     */
+    public BaseComponent[] getTextComponents(@NonNull String language, @NonNull String code,
+                                             @NonNull Object... args) {
+        return snapshot.getTextComponents(language, code, args);
     }
 
-    private String formatMessage(@NonNull String msg, @NonNull Object... args) {
-        // Loop backwards in order to replace %10 before %1 (for example)
-        for (int i = args.length - 1; i >= 0; --i)
-            msg = msg.replace("%" + (i + 1), String.valueOf(args[i]));
-        return ChatColor.translateAlternateColorCodes('&', msg);
+    public String getTextFromMain(@NonNull String code, @NonNull Object... args) {
+        return snapshot.getTextFromMain(code, args);
     }
 
     public String[] getSign(LanguagePlayer player, SignLocation location) {
@@ -100,23 +99,26 @@ public class LanguageManager implements com.rexcantor64.triton.api.language.Lang
 
     public String[] getSign(@NonNull String language, @NonNull SignLocation location,
                             @NonNull Supplier<String[]> defaultLines) {
-        val langItems = this.signItems.get(language);
-        if (langItems == null) return getSignFromMain(location, defaultLines);
+        val snapshot = this.snapshot;
+        val langItems = snapshot.getSignItems().get(language);
+        if (langItems == null) return getSignFromMain(snapshot, location, defaultLines);
 
         var lines = langItems.get(location);
-        if (lines == null) return getSignFromMain(location, defaultLines);
+        if (lines == null) return getSignFromMain(snapshot, location, defaultLines);
 
         return formatLines(language, lines, defaultLines);
     }
 
-    private String[] getSignFromMain(@NonNull SignLocation location, @NonNull Supplier<String[]> defaultLines) {
-        val langItems = this.signItems.get(this.mainLanguage.getName());
+    private String[] getSignFromMain(LanguageSnapshot snapshot, @NonNull SignLocation location,
+                                     @NonNull Supplier<String[]> defaultLines) {
+        val mainLanguage = snapshot.getMainLanguage().getName();
+        val langItems = snapshot.getSignItems().get(mainLanguage);
         if (langItems == null) return null;
 
         var lines = langItems.get(location);
         if (lines == null) return null;
 
-        return formatLines(this.mainLanguage.getName(), lines, defaultLines);
+        return formatLines(mainLanguage, lines, defaultLines);
     }
 
     public String[] formatLines(@NonNull String language, @NonNull String[] lines,
@@ -153,105 +155,175 @@ public class LanguageManager implements com.rexcantor64.triton.api.language.Lang
     }
 
     public Language getLanguageByName(String name, boolean fallback) {
+        val snapshot = this.snapshot;
         if (name != null)
-            for (Language lang : languages)
+            for (Language lang : snapshot.getLanguages())
                 if (lang.getName().equals(name))
                     return lang;
-        if (fallback) return mainLanguage;
+        if (fallback) return snapshot.getMainLanguage();
         return null;
     }
 
     public Language getLanguageByLocale(String name, boolean fallback) {
+        val snapshot = this.snapshot;
         if (name != null)
-            for (Language lang : languages)
+            for (Language lang : snapshot.getLanguages())
                 for (String s : lang.getMinecraftCodes())
                     if (s.equalsIgnoreCase(name))
                         return lang;
-        if (fallback) return mainLanguage;
+        if (fallback) return snapshot.getMainLanguage();
         return null;
     }
 
     public List<com.rexcantor64.triton.api.language.Language> getAllLanguages() {
-        return new ArrayList<>(languages);
+        return new ArrayList<>(snapshot.getLanguages());
     }
 
     public Language getMainLanguage() {
-        return mainLanguage;
+        return snapshot.getMainLanguage();
     }
 
-    public void setup() {
+    public List<String> getSignKeys() {
+        return snapshot.getSignKeys();
+    }
+
+    public int getItemCount() {
+        return snapshot.getItemCount();
+    }
+
+    public synchronized void setup() {
         Triton.get().getLogger().logInfo(1, "Setting up language manager...");
 
         val languages = Triton.get().getConf().getLanguages();
         val mainLang = Triton.get().getConf().getMainLanguage();
 
+        Language mainLanguage = null;
         for (val lang : languages)
             if (lang.getName().equals(mainLang))
-                this.mainLanguage = lang;
-        if (this.mainLanguage == null) this.mainLanguage = languages.get(0);
-
-        this.languages = languages;
+                mainLanguage = lang;
+        if (mainLanguage == null) mainLanguage = languages.get(0);
 
-        // Map<Language Name, Map<Translation Key, Text>>
-        val textItems = new HashMap<String, HashMap<String, String>>();
+        val translations = new TranslationStore.Builder(
+                languages.stream().map(Language::getName).collect(Collectors.toList()), mainLanguage.getName());
         // Map<Language Name, Map<Sign Location, Lines>>
-        val signItems = new HashMap<String, HashMap<SignLocation, String[]>>();
+        val signItems = new HashMap<String, Map<SignLocation, String[]>>();
         val signKeys = new ArrayList<String>();
 
-        Map<Pattern, LanguageText> matches = new HashMap<>();
+        val linearPatternEngine = Triton.get().getConfig().isLinearPatternEngine();
+        val patterns = new PatternIndex.Builder(mainLanguage.getName(), linearPatternEngine,
+                Triton.get().getConfig().getPatternTimeBudget());
 
         val filterItems = Triton.get() instanceof SpigotMLP && Triton.get().getConfig().isBungeecord() && !(Triton.get()
                 .getStorage() instanceof LocalStorage);
         val serverName = Triton.get().getConfig().getServerName();
 
+        // Compiled collections can only be reused if they would be compiled the same way
+        val compileSettings = filterItems + ":" + serverName + ":" + linearPatternEngine;
+        if (!compileSettings.equals(this.compileSettings)) this.compiledCollections.clear();
+        this.compileSettings = compileSettings;
+        val compiledCollections = new HashMap<String, CompiledCollection>();
+
         var itemCount = 0;
-        for (val collection : Triton.get().getStorage().getCollections().values()) {
+        var compiledCount = 0;
+        // Sort collections by name, so pattern translations are always applied in the same order
+        val collections = Triton.get().getStorage().getCollections().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .collect(Collectors.toList());
+        for (val entry : collections) {
+            val collection = entry.getValue();
+
+            var compiled = this.compiledCollections.get(entry.getKey());
+            if (compiled == null || collection.getRevision() == null
+                    || !collection.getRevision().equals(compiled.revision)) {
+                compiled = compileCollection(collection, translations, patterns, filterItems, serverName);
+                compiledCount++;
+            }
+            compiledCollections.put(entry.getKey(), compiled);
 
+            for (val translation : compiled.translations)
+                translations.add(translation);
+            patterns.add(compiled.patterns);
+            itemCount += compiled.itemCount;
+
+            // Signs are cheap to load and their locations are changed in place, so they're always loaded again
             for (val item : collection.getItems()) {
+                if (!(item instanceof LanguageSign)) continue;
                 if (item.getTwinData() != null && item.getTwinData().isArchived()) continue;
 
-                if (item instanceof LanguageText) {
-                    val itemText = (LanguageText) item;
-                    if (filterItems && !itemText.belongsToServer(collection.getMetadata(), serverName)) continue;
-
-                    if (itemText.getPatterns() != null) {
-                        itemText.getPatterns().forEach((pattern) -> matches.put(Pattern.compile(pattern), itemText));
-                        itemText.generateRegexStrings();
-                    }
-
-                    if (itemText.getLanguages() != null)
-                        itemText.getLanguages().forEach((key, value) -> {
-                            if (!textItems.containsKey(key)) textItems.put(key, new HashMap<>());
-                            textItems.get(key).put(itemText.getKey(), value);
-                        });
-                }
-                if (item instanceof LanguageSign) {
-                    val itemSign = (LanguageSign) item;
-                    signKeys.add(itemSign.getKey());
-                    if (itemSign.getLines() != null && itemSign.getLocations() != null)
-                        itemSign.getLines().forEach((key, value) -> {
-                            if (!signItems.containsKey(key)) signItems.put(key, new HashMap<>());
-
-                            val signLang = signItems.get(key);
-                            itemSign.getLocations().stream()
-                                    .filter((loc) -> !filterItems || loc.getServer() == null || serverName
-                                            .equals(loc.getServer()))
-                                    .forEach((loc) -> signLang.put(loc, value));
-                        });
-                }
+                val itemSign = (LanguageSign) item;
+                signKeys.add(itemSign.getKey());
+                if (itemSign.getLines() != null && itemSign.getLocations() != null)
+                    itemSign.getLines().forEach((key, value) -> {
+                        if (!signItems.containsKey(key)) signItems.put(key, new HashMap<>());
+
+                        val signLang = signItems.get(key);
+                        itemSign.getLocations().stream()
+                                .filter((loc) -> !filterItems || loc.getServer() == null || serverName
+                                        .equals(loc.getServer()))
+                                .forEach((loc) -> signLang.put(loc, value));
+                    });
                 itemCount++;
             }
         }
+        this.compiledCollections = compiledCollections;
 
-        this.textItems = textItems;
-        this.signItems = signItems;
-        this.signKeys = signKeys;
-        this.matches = matches;
-        this.itemCount = itemCount;
+        // Readers either see the old snapshot or the new one, never a mix of both
+        this.snapshot = new LanguageSnapshot(Collections.unmodifiableList(new ArrayList<>(languages)), mainLanguage,
+                translations.build(), signItems, Collections.unmodifiableList(signKeys), patterns.build(), itemCount);
 
+        // The parser is only created after the first setup
+        val parser = Triton.get().getLanguageParser();
+        if (parser != null) parser.invalidateCache();
+
+        Triton.get().getLogger()
+                .logInfo(2, "Compiled %1 changed collections and reused %2 unchanged ones", compiledCount,
+                        collections.size() - compiledCount);
         Triton.get().getLogger()
                 .logInfo(1, "Successfully setup the language manager! %1 languages and %2 language items loaded!",
-                        this.languages.size(), itemCount);
+                        languages.size(), itemCount);
+    }
+
+    /**
+     * Compiles the text items of a collection: their translations and patterns.
+     */
+    private CompiledCollection compileCollection(Collection collection, TranslationStore.Builder translations,
+                                                 PatternIndex.Builder patterns, boolean filterItems,
+                                                 String serverName) {
+        val compiledTranslations = new ArrayList<TranslationStore.Translation>();
+        val compiledPatterns = PatternIndex.CompiledPatterns.empty();
+        var itemCount = 0;
+
+        for (val item : collection.getItems()) {
+            if (!(item instanceof LanguageText)) continue;
+            if (item.getTwinData() != null && item.getTwinData().isArchived()) continue;
+
+            val itemText = (LanguageText) item;
+            if (filterItems && !itemText.belongsToServer(collection.getMetadata(), serverName)) continue;
+
+            if (itemText.getPatterns() != null) {
+                itemText.generateRegexStrings();
+                compiledPatterns.addAll(patterns.compile(itemText));
+            }
+
+            if (itemText.getLanguages() != null)
+                itemText.getLanguages().forEach((key, value) -> {
+                    if (value != null) compiledTranslations.add(translations.compile(key, itemText.getKey(), value));
+                });
+            itemCount++;
+        }
+
+        return new CompiledCollection(collection.getRevision(), compiledTranslations, compiledPatterns, itemCount);
+    }
+
+    /**
+     * The text items of a collection, compiled, so they can be reused if the collection doesn't change.
+     */
+    @RequiredArgsConstructor
+    private static class CompiledCollection {
+        private final String revision;
+        private final List<TranslationStore.Translation> translations;
+        private final PatternIndex.CompiledPatterns patterns;
+        private final int itemCount;
     }
 
 }
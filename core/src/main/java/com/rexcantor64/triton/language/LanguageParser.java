@@ -1,17 +1,21 @@
 package com.rexcantor64.triton.language;
 
-import com.google.gson.JsonParseException;
-import com.rexcantor64.triton.SpigotMLP;
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.api.config.FeatureSyntax;
 import com.rexcantor64.triton.language.parser.AdvancedComponent;
+import com.rexcantor64.triton.language.parser.AdventureComponentConverter;
+import com.rexcantor64.triton.language.parser.PlaceholderTokenizer;
+import com.rexcantor64.triton.language.parser.PlaceholderTokenizer.Argument;
+import com.rexcantor64.triton.language.parser.PlaceholderTokenizer.Placeholder;
+import com.rexcantor64.triton.language.pattern.LiteralPrefilter;
 import com.rexcantor64.triton.player.LanguagePlayer;
+import com.rexcantor64.triton.utils.BoundedCache;
 import com.rexcantor64.triton.utils.ComponentUtils;
+import com.rexcantor64.triton.wrappers.AdventureComponentWrapper;
 import com.rexcantor64.triton.wrappers.legacy.HoverComponentWrapper;
+import lombok.Data;
 import lombok.val;
 import lombok.var;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.ClickEvent;
@@ -20,38 +24,18 @@ import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.chat.ComponentSerializer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 public class LanguageParser implements com.rexcantor64.triton.api.language.LanguageParser {
 
-    private static Integer[] getPatternIndex(String input, String pattern) {
-        int start = -1;
-        int contentLength = 0;
-        int openedAmount = 0;
-
-        for (int i = 0; i < input.length(); i++) {
-            char currentChar = input.charAt(i);
-            if (currentChar == '[' && input.length() > i + pattern.length() + 1 && input.substring(i + 1,
-                    i + 2 + pattern.length()).equals(pattern + "]")) {
-                if (start == -1) start = i;
-                openedAmount++;
-                i += 1 + pattern.length();
-            } else if (currentChar == '[' && input.length() > i + pattern.length() + 2 && input.substring(i + 1,
-                    i + 3 + pattern.length()).equals("/" + pattern + "]")) {
-                openedAmount--;
-                if (openedAmount == 0) {
-                    if (contentLength == 0) {
-                        start = -1;
-                        continue;
-                    }
-                    return new Integer[]{start, i + 3 + pattern.length(), start + pattern.length() + 2, i};
-                }
-            } else if (start != -1)
-                contentLength++;
-        }
-        return null;
-    }
+    private volatile BoundedCache<CacheKey, CachedComponent> cache = createCache();
+    private final RecentTranslations recentTranslations = new RecentTranslations();
+    private final LongAdder componentCount = new LongAdder();
+    private final LongAdder fastPathCount = new LongAdder();
 
     public static List<Integer[]> getPatternIndexArray(String input, String pattern) {
         List<Integer[]> result = new ArrayList<>();
@@ -87,48 +71,77 @@ public class LanguageParser implements com.rexcantor64.triton.api.language.Langu
     }
 
     public String replaceLanguages(String input, String language, FeatureSyntax syntax) {
+        return replaceLanguages(input, language, syntax, Triton.get().getLanguageManager().getSnapshot());
+    }
+
+    private String replaceLanguages(String input, String language, FeatureSyntax syntax,
+                                    LanguageSnapshot snapshot) {
         if (input == null) return null;
-        Integer[] i;
-        int safeCounter = 0;
-        while ((i = getPatternIndex(input, syntax.getLang())) != null) {
-            safeCounter++;
-            if (safeCounter > Triton.get().getConfig().getMaxPlaceholdersInMessage()) {
-                Triton.get()
-                        .getLogger()
-                        .logError("The maximum attempts to translate a message have been exceeded. To prevent the " +
-                                "server from crashing, the message might not have been translated. If using " +
-                                "BungeeCord, restarting your proxy might fix the problem.");
-                break;
-            }
-            StringBuilder builder = new StringBuilder();
-            builder.append(input, 0, i[0]);
-            String placeholder = input.substring(i[2], i[3]);
-            if (!Triton.get().getConf().getDisabledLine().isEmpty() && ChatColor.stripColor(placeholder)
-                    .equals(Triton.get().getConf().getDisabledLine()))
-                return null;
-            Integer[] argsIndex = getPatternIndex(placeholder, syntax.getArgs());
-            if (argsIndex == null) {
-                builder.append(SpigotMLP.get().getLanguageManager()
-                        .getText(language, ChatColor.stripColor(placeholder)));
-                builder.append(input.substring(i[1]));
-                input = builder.toString();
-                continue;
-            }
-            String code = ChatColor.stripColor(placeholder.substring(0, argsIndex[0]));
-            String args = placeholder.substring(argsIndex[2], argsIndex[3]);
-            List<Integer[]> argIndexList = getPatternIndexArray(args, syntax.getArg());
-            Object[] argList = new Object[argIndexList.size()];
-            for (int k = 0; k < argIndexList.size(); k++) {
-                Integer[] argIndex = argIndexList.get(k);
-                argList[k] = replaceLanguages(args.substring(argIndex[2], argIndex[3]), language, syntax);
+        val placeholders = PlaceholderTokenizer.tokenize(input, syntax);
+        if (placeholders.isEmpty()) return input;
+
+        val builder = new StringBuilder(input.length());
+        if (!appendLanguages(builder, input, 0, input.length(), placeholders, language, syntax, snapshot,
+                new PlaceholderBudget()))
+            return null;
+        return builder.toString();
+    }
+
+    private String replaceLanguages(String input, Argument argument, String language, FeatureSyntax syntax,
+                                    LanguageSnapshot snapshot) {
+        if (argument.getPlaceholders().isEmpty())
+            return input.substring(argument.getStart(), argument.getEnd());
+
+        val builder = new StringBuilder(argument.getEnd() - argument.getStart());
+        if (!appendLanguages(builder, input, argument.getStart(), argument.getEnd(), argument.getPlaceholders(),
+                language, syntax, snapshot, new PlaceholderBudget()))
+            return null;
+        return builder.toString();
+    }
+
+    /**
+     * Appends the range [from, to) of the input to the builder, replacing the (already tokenized) placeholders
+     * with their translations. Placeholders inside translations are replaced as well, sharing the same budget.
+     *
+     * @return False if a disabled line was found, true otherwise.
+     */
+    private boolean appendLanguages(StringBuilder builder, String input, int from, int to,
+                                    List<Placeholder> placeholders, String language, FeatureSyntax syntax,
+                                    LanguageSnapshot snapshot, PlaceholderBudget budget) {
+        var position = from;
+        for (val placeholder : placeholders) {
+            if (!budget.consume()) break;
+            builder.append(input, position, placeholder.getStart());
+            position = placeholder.getEnd();
+
+            val code = ChatColor.stripColor(input.substring(placeholder.getKeyStart(), placeholder.getKeyEnd()));
+            if (isDisabledLine(code)) return false;
+
+            val arguments = placeholder.getArguments();
+            val argList = new Object[arguments.size()];
+            for (int k = 0; k < argList.length; k++) {
+                argList[k] = replaceLanguages(input, arguments.get(k), language, syntax, snapshot);
                 if (argList[k] == null)
-                    return null;
+                    return false;
             }
-            builder.append(SpigotMLP.get().getLanguageManager().getText(language, code, argList));
-            builder.append(input.substring(i[1]));
-            input = builder.toString();
+
+            val translation = snapshot.getText(language, code, argList);
+            val nestedPlaceholders = PlaceholderTokenizer.tokenize(translation, syntax);
+            if (nestedPlaceholders.isEmpty())
+                builder.append(translation);
+            else if (!appendLanguages(builder, translation, 0, translation.length(), nestedPlaceholders, language,
+                    syntax, snapshot, budget))
+                return false;
+
+            if (budget.isExceeded()) break;
         }
-        return input;
+        builder.append(input, position, to);
+        return true;
+    }
+
+    private boolean isDisabledLine(String code) {
+        val disabledLine = Triton.get().getConf().getDisabledLine();
+        return !disabledLine.isEmpty() && code.equals(disabledLine);
     }
 
     private List<BaseComponent> removeTritonLinks(BaseComponent... baseComponents) {
@@ -163,70 +176,230 @@ public class LanguageParser implements com.rexcantor64.triton.api.language.Langu
     }
 
     public BaseComponent[] parseComponent(String language, FeatureSyntax syntax, BaseComponent... text) {
-        text = ComponentSerializer.parse(ComponentSerializer.toString(text));
+        // Keep a reference to the cache, so results of a translation that started before a reload
+        // don't end up in the new cache. It must be read before the snapshot, since reloading replaces the
+        // snapshot first and the cache second.
+        val cache = this.cache;
+        // All lookups for this message are done on the same snapshot, even if the translations are reloaded meanwhile
+        val snapshot = Triton.get().getLanguageManager().getSnapshot();
+        return parseComponent(language, syntax, snapshot, cache, text);
+    }
+
+    /**
+     * Same as {@link #parseComponent(LanguagePlayer, FeatureSyntax, BaseComponent...)}, but using the translations
+     * of a snapshot that was already used to check the message with
+     * {@link #mightNeedTranslation(FeatureSyntax, LanguageSnapshot, Object)}.
+     *
+     * @param p        The player to translate the message to.
+     * @param syntax   The syntax to look for.
+     * @param snapshot The translations to use.
+     * @param text     The message.
+     * @return The translated message, or null if it should not be sent.
+     */
+    public BaseComponent[] parseComponent(LanguagePlayer p, FeatureSyntax syntax, LanguageSnapshot snapshot,
+                                          BaseComponent... text) {
+        var cache = this.cache;
+        // If the translations were reloaded since the snapshot was taken, the cache might already be the new one
+        if (Triton.get().getLanguageManager().getSnapshot() != snapshot) cache = null;
+        return parseComponent(p.getLang().getName(), syntax, snapshot, cache, text);
+    }
+
+    /**
+     * Translates a component that was converted to an {@link AdvancedComponent} without going through
+     * BungeeCord components, such as an Adventure component (see {@link AdventureComponentConverter}).
+     *
+     * @param p                 The player to translate the component to.
+     * @param syntax            The syntax to look for.
+     * @param snapshot          The translations to use.
+     * @param advancedComponent The component to translate. It might be changed.
+     * @return The translated component, or null if it should not be sent.
+     */
+    public AdvancedComponent parseAdvancedComponent(LanguagePlayer p, FeatureSyntax syntax, LanguageSnapshot snapshot,
+                                                    AdvancedComponent advancedComponent) {
+        componentCount.increment();
+        return parseAdvancedComponent(p.getLang().getName(), syntax, snapshot, advancedComponent);
+    }
+
+    private BaseComponent[] parseComponent(String language, FeatureSyntax syntax, LanguageSnapshot snapshot,
+                                           BoundedCache<CacheKey, CachedComponent> cache, BaseComponent... text) {
+        componentCount.increment();
+        val json = ComponentSerializer.toString(text);
+        if (!mightNeedTranslation(syntax, json, snapshot, text)) {
+            fastPathCount.increment();
+            return text;
+        }
+
+        val cacheKey = cache == null ? null : new CacheKey(language, syntax.getLang(), syntax.getArgs(),
+                syntax.getArg(), json);
+        if (cacheKey != null) {
+            val cached = cache.get(cacheKey);
+            if (cached != null) return cached.copy();
+        }
+
+        text = ComponentSerializer.parse(json);
         text = removeTritonLinks(text).toArray(new BaseComponent[0]);
-        val advancedComponent = parseAdvancedComponent(language, syntax, AdvancedComponent.fromBaseComponent(text));
+        val advancedComponent = parseAdvancedComponent(language, syntax, snapshot,
+                AdvancedComponent.fromBaseComponent(text));
+        val result = advancedComponent == null ? null : advancedComponent.toBaseComponent();
+
+        if (cacheKey != null) {
+            val cached = new CachedComponent(result, json.length());
+            cache.put(cacheKey, cached);
+            return cached.copy();
+        }
+        return result;
+    }
+
+    @Override
+    public Map<com.rexcantor64.triton.api.language.Language, BaseComponent[]> parseComponentForOnlineLanguages(
+            FeatureSyntax syntax, BaseComponent... input) {
+        // Every language is translated with the same snapshot, even if the translations are reloaded meanwhile
+        val cache = this.cache;
+        val snapshot = Triton.get().getLanguageManager().getSnapshot();
+        val result = new HashMap<com.rexcantor64.triton.api.language.Language, BaseComponent[]>();
+        for (val player : Triton.get().getPlayerManager().getAll()) {
+            val language = player.getLang();
+            if (result.containsKey(language)) continue;
+            result.put(language, parseComponent(language.getName(), syntax, snapshot, cache, input));
+        }
+        return result;
+    }
+
+    public String parseComponentJson(LanguagePlayer p, FeatureSyntax syntax, String json) {
+        return parseComponentJson(p.getLang().getName(), syntax, json);
+    }
+
+    /**
+     * Same as {@link #parseComponent(String, FeatureSyntax, BaseComponent...)}, but for serialized components.
+     * Meant for packets: a broadcast message is intercepted once for every player that receives it,
+     * so its recent translations are reused without parsing the packet again.
+     *
+     * @param language The name of the language to translate to.
+     * @param syntax   The syntax of the placeholders.
+     * @param json     The serialized component.
+     * @return The translated component, serialized, or null if the message should not be sent.
+     */
+    public String parseComponentJson(String language, FeatureSyntax syntax, String json) {
+        // Same order as parseComponent(String, FeatureSyntax, BaseComponent...)
+        val cache = this.cache;
+        val snapshot = Triton.get().getLanguageManager().getSnapshot();
+        val recent = recentTranslations.get(snapshot, language, syntax, json);
+        if (recent != null) return recent == RecentTranslations.DISABLED ? null : recent;
+
+        val input = ComponentSerializer.parse(json);
+        val result = parseComponent(language, syntax, snapshot, cache, input);
+        // Untouched components are returned as they are, so there's no need to serialize them again
+        val resultJson = result == null ? null : result == input ? json : ComponentSerializer.toString(result);
+        recentTranslations.put(snapshot, language, syntax, json, resultJson);
+        return resultJson;
+    }
+
+    /**
+     * Cheaply checks if a component might have something to translate, so most messages
+     * can be sent as they are, without cloning and parsing them.
+     *
+     * @param syntax The syntax to look for.
+     * @param json     The component, serialized.
+     * @param snapshot The translations to check against.
+     * @param text     The component.
+     * @return False if the component can be sent without changes.
+     */
+    private boolean mightNeedTranslation(FeatureSyntax syntax, String json, LanguageSnapshot snapshot,
+                                         BaseComponent... text) {
+        // Links added by Triton have to be removed
+        if (json.contains("\"open_url\"")) return true;
+
+        val openingTag = "[" + syntax.getLang() + "]";
+        if (json.contains(LiteralPrefilter.escapeJson(openingTag))) return true;
+
+        // Text might be split into multiple components, which are merged before translating
+        val plainText = TextComponent.toPlainText(text);
+        if (plainText.contains(openingTag)) return true;
+
+        val patternPrefilter = snapshot.getPatternPrefilter();
+        return patternPrefilter.mightMatch(plainText) || patternPrefilter.mightMatchJson(json);
+    }
+
+    /**
+     * Same as the check done by {@link #parseComponent(String, FeatureSyntax, BaseComponent...)}, but on an
+     * Adventure component. This is done without converting the component, so components with nothing to translate
+     * can be sent untouched.
+     *
+     * @param syntax             The syntax to look for.
+     * @param snapshot           The translations that will be used to translate the component, if needed.
+     * @param adventureComponent The Adventure component.
+     * @return False if the component can be sent without changes.
+     */
+    public boolean mightNeedTranslation(FeatureSyntax syntax, LanguageSnapshot snapshot, Object adventureComponent) {
+        val plainText = new StringBuilder();
+        val strings = new ArrayList<String>();
+        if (!AdventureComponentWrapper.collectText(adventureComponent, plainText, strings)) return true;
+        strings.add(plainText.toString());
+
+        val openingTag = "[" + syntax.getLang() + "]";
+        val patternPrefilter = snapshot.getPatternPrefilter();
+        for (val string : strings)
+            if (string.contains(openingTag) || patternPrefilter.mightMatch(string)) return true;
+
+        componentCount.increment();
+        fastPathCount.increment();
+        return false;
+    }
+
+    /**
+     * @return How many components have been given to {@link #parseComponent(String, FeatureSyntax, BaseComponent...)}
+     * or {@link #mightNeedTranslation(FeatureSyntax, LanguageSnapshot, Object)}.
+     */
+    public long getComponentCount() {
+        return componentCount.sum();
+    }
+
+    /**
+     * @return How many components have been returned untouched because they had nothing to translate.
+     */
+    public long getFastPathCount() {
+        return fastPathCount.sum();
+    }
+
+    /**
+     * Drops all the cached translated components and creates a new cache with the size from the config.
+     * Must be called whenever the translations change.
+     */
+    public void invalidateCache() {
+        val oldCache = this.cache;
+        if (oldCache != null)
+            Triton.get().getLogger().logInfo(2, "Discarding translation cache: %1", oldCache);
+        Triton.get().getLogger().logInfo(2, "%1 out of %2 components had nothing to translate", getFastPathCount(),
+                getComponentCount());
+        this.cache = createCache();
+        recentTranslations.clear();
+    }
 
-        if (advancedComponent == null) return null;
-        return advancedComponent.toBaseComponent();
+    private static BoundedCache<CacheKey, CachedComponent> createCache() {
+        val size = Triton.get().getConfig().getTranslationCacheSize();
+        if (size <= 0) return null;
+        return new BoundedCache<>(size * 1024L, (key, value) -> key.weight() + value.weight());
     }
 
-    private AdvancedComponent parseAdvancedComponent(String language, FeatureSyntax syntax,
+    private AdvancedComponent parseAdvancedComponent(String language, FeatureSyntax syntax, LanguageSnapshot snapshot,
                                                      AdvancedComponent advancedComponent) {
         var input = advancedComponent.getTextClean();
-        input = Triton.get().getLanguageManager().matchPattern(input, language);
-        Integer[] i;
-        var safeCounter = 0;
-        while ((i = getPatternIndex(input, syntax.getLang())) != null) {
-            safeCounter++;
-            if (safeCounter > Triton.get().getConfig().getMaxPlaceholdersInMessage()) {
-                Triton.get()
-                        .getLogger()
-                        .logError("The maximum attempts to translate a message have been exceeded. To prevent the " +
-                                "server from crashing, the message might not have been translated. If using " +
-                                "BungeeCord, restarting your proxy might fix the problem.");
-                break;
-            }
-            val builder = new StringBuilder();
-            builder.append(input, 0, i[0]);
-            val placeholder = input.substring(i[2], i[3]);
-            val argsIndex = getPatternIndex(placeholder, syntax.getArgs());
-            if (argsIndex == null) {
-                val code = AdvancedComponent.stripFormatting(placeholder);
-                if (!Triton.get().getConf().getDisabledLine().isEmpty() &&
-                        code.equals(Triton.get().getConf().getDisabledLine()))
-                    return null;
-                val result = parseTritonTranslation(Triton.get().getLanguageManager().getText(language, code));
-                advancedComponent.getComponents().putAll(result.getComponents());
-                advancedComponent.getHovers().putAll(result.getHovers());
-                advancedComponent.getAllTranslatableArguments().putAll(result.getAllTranslatableArguments());
-                builder.append(result.getTextClean());
-                builder.append(input.substring(i[1]));
-                input = builder.toString();
-                continue;
-            }
-            val code = AdvancedComponent.stripFormatting(placeholder.substring(0, argsIndex[0]));
-            if (!Triton.get().getConf().getDisabledLine().isEmpty() && code
-                    .equals(Triton.get().getConf().getDisabledLine()))
+        val patternResult = snapshot.matchPattern(input, language);
+        if (!patternResult.equals(input)) {
+            advancedComponent.setText(patternResult);
+            input = advancedComponent.getTextClean();
+        }
+        val placeholders = PlaceholderTokenizer.tokenize(input, syntax);
+        if (!placeholders.isEmpty()) {
+            val segments = new ArrayList<AdvancedComponent.Segment>();
+            if (!appendAdvancedComponent(segments, advancedComponent, advancedComponent, input, placeholders,
+                    language, syntax, snapshot, new PlaceholderBudget()))
                 return null;
-            val args = placeholder.substring(argsIndex[2], argsIndex[3]);
-            val argIndexList = getPatternIndexArray(args, syntax.getArg());
-            val argList = new Object[argIndexList.size()];
-            for (int k = 0; k < argIndexList.size(); k++) {
-                Integer[] argIndex = argIndexList.get(k);
-                argList[k] = replaceLanguages(args.substring(argIndex[2], argIndex[3]), language, syntax);
-            }
-            val result = parseTritonTranslation(SpigotMLP.get().getLanguageManager().getText(language, code, argList));
-            advancedComponent.getComponents().putAll(result.getComponents());
-            advancedComponent.getHovers().putAll(result.getHovers());
-            advancedComponent.getAllTranslatableArguments().putAll(result.getAllTranslatableArguments());
-            builder.append(result.getTextClean());
-            builder.append(input.substring(i[1]));
-            input = builder.toString();
+            advancedComponent.setSegments(segments);
         }
-        advancedComponent.setText(input);
         for (val entry : advancedComponent.getComponents().entrySet())
-            advancedComponent.setComponent(entry.getKey(), replaceLanguages(entry.getValue(), language, syntax));
+            advancedComponent.setComponent(entry.getKey(),
+                    replaceLanguages(entry.getValue(), language, syntax, snapshot));
 
         try {
             for (val entry : advancedComponent.getHovers().entrySet())
@@ -236,8 +409,7 @@ public class LanguageParser implements com.rexcantor64.triton.api.language.Langu
             for (val entry : advancedComponent.getHovers().entrySet()) {
                 val comps = HoverComponentWrapper.getValue(entry.getValue());
                 val string = TextComponent.toLegacyText(comps);
-                val replaced = replaceLanguages(Triton.get().getLanguageManager()
-                        .matchPattern(string, language), language, syntax);
+                val replaced = replaceLanguages(snapshot.matchPattern(string, language), language, syntax, snapshot);
                 if (replaced == null) {
                     if (entry.getValue().getAction() != HoverEvent.Action.SHOW_ITEM)
                         entry.setValue(null);
@@ -250,40 +422,131 @@ public class LanguageParser implements com.rexcantor64.triton.api.language.Langu
 
         for (val entry : advancedComponent.getAllTranslatableArguments().entrySet())
             advancedComponent.getAllTranslatableArguments().put(entry.getKey(), entry.getValue().stream()
-                    .map(comp -> parseAdvancedComponent(language, syntax, comp)).collect(Collectors.toList()));
+                    .map(comp -> parseAdvancedComponent(language, syntax, snapshot, comp))
+                    .collect(Collectors.toList()));
         return advancedComponent;
     }
 
-    private AdvancedComponent parseTritonTranslation(String translatedResult) {
-        BaseComponent[] componentResult;
-        if (translatedResult.startsWith("[triton_json]")) {
-            val jsonInput = translatedResult.substring(13);
-            try {
-                componentResult = ComponentSerializer.parse(jsonInput);
-            } catch (JsonParseException e) {
-                Triton.get().getLogger()
-                        .logError("Failed to parse JSON translation: %1", jsonInput);
-                componentResult = TextComponent.fromLegacyText(jsonInput);
-                e.printStackTrace();
-            }
-        } else if (translatedResult.startsWith("[minimsg]")) {
-            val mmInput = translatedResult.substring(9);
-            try {
-                val textComponent = MiniMessage.get().parse(mmInput);
-                val jsonSerialized = GsonComponentSerializer.gson().serialize(textComponent);
-                componentResult = ComponentSerializer.parse(jsonSerialized);
-            } catch (JsonParseException | NullPointerException e) {
-                Triton.get().getLogger()
-                        .logError("Failed to parse Mini Message translation: %1", mmInput);
-                componentResult = TextComponent.fromLegacyText(mmInput);
-                e.printStackTrace();
-            } catch (NoClassDefFoundError e) {
-                Triton.get().getLogger().logError("Failed to parse Mini Message translation because Mini Message is only available on PaperMC (or forks).");
-                componentResult = TextComponent.fromLegacyText(mmInput);
-            }
-        } else {
-            componentResult = TextComponent.fromLegacyText(translatedResult);
+    /**
+     * Same as
+     * {@link #appendLanguages(StringBuilder, String, int, int, List, String, FeatureSyntax, LanguageSnapshot, PlaceholderBudget)},
+     * but works on the segments of the components instead. Translations are parsed as components and
+     * their click/hover events are merged into the given {@link AdvancedComponent}.
+     *
+     * @param segments          The list to append the segments to.
+     * @param advancedComponent The component the result belongs to.
+     * @param source            The component being translated, either the former or a translation inside it.
+     * @param input             The clean text of the source component.
+     * @return False if a disabled line was found, true otherwise.
+     */
+    private boolean appendAdvancedComponent(List<AdvancedComponent.Segment> segments,
+                                            AdvancedComponent advancedComponent, AdvancedComponent source,
+                                            String input, List<Placeholder> placeholders, String language,
+                                            FeatureSyntax syntax, LanguageSnapshot snapshot,
+                                            PlaceholderBudget budget) {
+        var position = 0;
+        for (val placeholder : placeholders) {
+            if (!budget.consume()) break;
+            source.appendCleanSegments(segments, position, placeholder.getStart());
+            position = placeholder.getEnd();
+
+            val code = AdvancedComponent
+                    .stripFormatting(input.substring(placeholder.getKeyStart(), placeholder.getKeyEnd()));
+            if (isDisabledLine(code)) return false;
+
+            val arguments = placeholder.getArguments();
+            val argList = new Object[arguments.size()];
+            for (int k = 0; k < argList.length; k++)
+                argList[k] = replaceLanguages(input, arguments.get(k), language, syntax, snapshot);
+
+            val result = AdvancedComponent.fromBaseComponent(snapshot.getTextComponents(language, code, argList));
+            advancedComponent.getComponents().putAll(result.getComponents());
+            advancedComponent.getHovers().putAll(result.getHovers());
+            advancedComponent.getAllTranslatableArguments().putAll(result.getAllTranslatableArguments());
+
+            val text = result.getTextClean();
+            val nestedPlaceholders = PlaceholderTokenizer.tokenize(text, syntax);
+            if (nestedPlaceholders.isEmpty())
+                result.appendCleanSegments(segments, 0, text.length());
+            else if (!appendAdvancedComponent(segments, advancedComponent, result, text, nestedPlaceholders,
+                    language, syntax, snapshot, budget))
+                return false;
+
+            if (budget.isExceeded()) break;
+        }
+        source.appendCleanSegments(segments, position, input.length());
+        return true;
+    }
+
+    /**
+     * Limits how many placeholders are translated in a single message,
+     * preventing infinite loops where a translation contains itself (e.g. the 404 message).
+     */
+    private static class PlaceholderBudget {
+        private int remaining = Triton.get().getConfig().getMaxPlaceholdersInMessage();
+        private boolean exceeded = false;
+
+        private boolean consume() {
+            if (remaining-- > 0) return true;
+            if (!exceeded)
+                Triton.get()
+                        .getLogger()
+                        .logError("The maximum attempts to translate a message have been exceeded. To prevent the " +
+                                "server from crashing, the message might not have been translated. If using " +
+                                "BungeeCord, restarting your proxy might fix the problem.");
+            exceeded = true;
+            return false;
+        }
+
+        private boolean isExceeded() {
+            return exceeded;
+        }
+    }
+
+    /**
+     * Identifies a translated component in the cache.
+     * The syntax is stored by its tags, since the same syntax might be represented by different objects.
+     */
+    @Data
+    private static class CacheKey {
+        private final String language;
+        private final String lang;
+        private final String args;
+        private final String arg;
+        private final String json;
+
+        private int weight() {
+            // Rough estimate of the memory used, in bytes
+            return 64 + 2 * (language.length() + lang.length() + args.length() + arg.length() + json.length());
+        }
+    }
+
+    /**
+     * A translated component in the cache. Components are mutable, so only copies of it are handed out.
+     */
+    private static class CachedComponent {
+        private final BaseComponent[] components;
+        private final int weight;
+
+        /**
+         * @param components The translated components, or null if the message should not be sent.
+         * @param sizeHint   The length of the original JSON, used to estimate the size of the components.
+         */
+        private CachedComponent(BaseComponent[] components, int sizeHint) {
+            this.components = components;
+            this.weight = components == null ? 16 : 16 + 2 * sizeHint;
+        }
+
+        private BaseComponent[] copy() {
+            if (components == null) return null;
+            val result = new BaseComponent[components.length];
+            for (int i = 0; i < components.length; i++)
+                result[i] = components[i].duplicate();
+            return result;
+        }
+
+        private int weight() {
+            return weight;
         }
-        return AdvancedComponent.fromBaseComponent(componentResult);
     }
 }
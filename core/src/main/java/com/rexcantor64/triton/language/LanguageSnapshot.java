@@ -0,0 +1,102 @@
+package com.rexcantor64.triton.language;
+
+import com.rexcantor64.triton.Triton;
+import com.rexcantor64.triton.api.language.SignLocation;
+import com.rexcantor64.triton.language.pattern.LiteralPrefilter;
+import com.rexcantor64.triton.language.pattern.PatternIndex;
+import com.rexcantor64.triton.language.template.ComponentTemplate;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that is loaded by {@link LanguageManager#setup()}: languages, translations, signs and patterns.
+ * <p>
+ * Snapshots are immutable and replaced as a whole on reload, so a message translated with a single
+ * snapshot never sees a mix of old and new translations, and reading it doesn't need any locking.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class LanguageSnapshot {
+
+    static final LanguageSnapshot EMPTY = new LanguageSnapshot(Collections.emptyList(), null,
+            TranslationStore.EMPTY, Collections.emptyMap(), Collections.emptyList(), PatternIndex.empty(), 0);
+
+    private final List<Language> languages;
+    private final Language mainLanguage;
+    private final TranslationStore translations;
+    /**
+     * Map&lt;Language Name, Map&lt;Sign Location, Lines&gt;&gt;
+     */
+    private final Map<String, Map<SignLocation, String[]>> signItems;
+    private final List<String> signKeys;
+    private final PatternIndex patternIndex;
+    private final int itemCount;
+
+    public String matchPattern(String input, String language) {
+        return patternIndex.apply(input, language);
+    }
+
+    public LiteralPrefilter getPatternPrefilter() {
+        return patternIndex.getPrefilter();
+    }
+
+    /**
+     * @see LanguageManager#getText(String, String, Object...)
+     */
+    public String getText(String language, String code, Object... args) {
+        val msg = translations.getText(translations.getLanguageIndex(language), translations.getKeyId(code));
+        if (msg == null) return getNotFoundMessage(code, args);
+
+        return msg.render(args);
+    }
+
+    /**
+     * @see LanguageManager#getText(String, com.rexcantor64.triton.api.language.TranslationKey, Object...)
+     */
+    public String getText(String language, TranslationKey key, Object... args) {
+        val msg = translations.getText(translations.getLanguageIndex(language), key.getId(translations));
+        if (msg == null) return getNotFoundMessage(key.getKey(), args);
+
+        return msg.render(args);
+    }
+
+    /**
+     * @see LanguageManager#getTextComponents(String, String, Object...)
+     */
+    public BaseComponent[] getTextComponents(String language, String code, Object... args) {
+        val languageIndex = translations.getLanguageIndex(language);
+        val keyId = translations.getKeyId(code);
+        val msg = translations.getText(languageIndex, keyId);
+        if (msg == null) return TextComponent.fromLegacyText(getNotFoundMessage(code, args));
+
+        val template = translations.getComponent(languageIndex, keyId);
+        if (template != null) return template.render(args);
+
+        return ComponentTemplate.parse(msg.render(args));
+    }
+
+    /**
+     * @see LanguageManager#getTextFromMain(String, Object...)
+     */
+    public String getTextFromMain(String code, Object... args) {
+        val msg = translations.getText(translations.getMainLanguageIndex(), translations.getKeyId(code));
+        if (msg == null) return getNotFoundMessage(code, args);
+
+        return msg.render(args);
+    }
+
+    private static String getNotFoundMessage(String code, Object[] args) {
+        return ChatColor.translateAlternateColorCodes('&',
+                Triton.get().getMessagesConfig().getMessage("error.message-not-found", code, Arrays.toString(args)));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.rexcantor64.triton.language;
+
+import com.rexcantor64.triton.api.config.FeatureSyntax;
+import lombok.val;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Remembers the serialized results of the latest translations for a short time.
+ * <p>
+ * When a message is broadcast, the same packet is intercepted once for each player who receives it,
+ * so this lets every player after the first one that speaks the same language reuse the translation
+ * without parsing or serializing the message again.
+ * <p>
+ * Each translation goes into a slot given by its hash, replacing whatever was there, so this never grows
+ * and doesn't need any locking. Translations remember the {@link LanguageSnapshot} they were made with,
+ * so a translation that finishes after a reload is never returned for the new translations.
+ */
+class RecentTranslations {
+
+    private static final int SLOTS = 256;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    /**
+     * Marks a translation that resulted in the message not being sent.
+     * Compared by reference, so it can't be confused with an actual message.
+     */
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    static final String DISABLED = new String("");
+
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(SLOTS);
+
+    /**
+     * @param snapshot The translations the message is being translated with.
+     * @return The translation, or null if it isn't known for the given snapshot. If the message should not be
+     * sent, {@link #DISABLED} is returned.
+     */
+    String get(LanguageSnapshot snapshot, String language, FeatureSyntax syntax, String json) {
+        val hash = hash(language, syntax, json);
+        val entry = entries.get(hash & (SLOTS - 1));
+        if (entry == null || entry.hash != hash || entry.snapshot != snapshot ||
+                System.nanoTime() - entry.createdAt > WINDOW_NANOS) return null;
+        if (!entry.matches(language, syntax, json)) return null;
+        return entry.result;
+    }
+
+    /**
+     * @param snapshot The translations the message was translated with.
+     * @param result   The serialized translation, or null if the message should not be sent.
+     */
+    void put(LanguageSnapshot snapshot, String language, FeatureSyntax syntax, String json, String result) {
+        val hash = hash(language, syntax, json);
+        entries.set(hash & (SLOTS - 1), new Entry(hash, snapshot, language, syntax.getLang(), syntax.getArgs(),
+                syntax.getArg(), json, result == null ? DISABLED : result, System.nanoTime()));
+    }
+
+    void clear() {
+        for (int i = 0; i < SLOTS; i++)
+            entries.set(i, null);
+    }
+
+    private static int hash(String language, FeatureSyntax syntax, String json) {
+        val hash = 31 * (31 * language.hashCode() + syntax.getLang().hashCode()) + json.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Entry {
+        private final int hash;
+        private final LanguageSnapshot snapshot;
+        private final String language;
+        private final String lang;
+        private final String args;
+        private final String arg;
+        private final String json;
+        private final String result;
+        private final long createdAt;
+
+        private Entry(int hash, LanguageSnapshot snapshot, String language, String lang, String args, String arg,
+                      String json, String result, long createdAt) {
+            this.hash = hash;
+            this.snapshot = snapshot;
+            this.language = language;
+            this.lang = lang;
+            this.args = args;
+            this.arg = arg;
+            this.json = json;
+            this.result = result;
+            this.createdAt = createdAt;
+        }
+
+        private boolean matches(String language, FeatureSyntax syntax, String json) {
+            return this.language.equals(language) && lang.equals(syntax.getLang()) && args.equals(syntax.getArgs())
+                    && arg.equals(syntax.getArg()) && this.json.equals(json);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.rexcantor64.triton.language;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * A translation key that remembers its ID in the {@link TranslationStore}, so it's only looked up again
+ * after the translations are reloaded.
+ */
+@RequiredArgsConstructor
+public class TranslationKey implements com.rexcantor64.triton.api.language.TranslationKey {
+
+    @Getter
+    @NonNull
+    private final String key;
+    private volatile Resolved resolved;
+
+    /**
+     * @param store The current translation store.
+     * @return The ID of this key in the given store, or -1 if it doesn't have this key.
+     */
+    public int getId(TranslationStore store) {
+        val resolved = this.resolved;
+        if (resolved != null && resolved.store == store) return resolved.id;
+
+        val id = store.getKeyId(key);
+        this.resolved = new Resolved(store, id);
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @RequiredArgsConstructor
+    private static class Resolved {
+        private final TranslationStore store;
+        private final int id;
+    }
+
+}
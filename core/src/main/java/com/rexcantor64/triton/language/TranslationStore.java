@@ -0,0 +1,229 @@
+package com.rexcantor64.triton.language;
+
+import com.rexcantor64.triton.language.template.ComponentTemplate;
+import com.rexcantor64.triton.language.template.TextTemplate;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.var;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable table of all the text translations.
+ * <p>
+ * Each language gets an index and each translation key gets an ID when the table is built, so a translation
+ * is found with two array accesses. Translations missing from a language are filled in with the ones
+ * from the main language, so there's no need to look them up again.
+ */
+public final class TranslationStore {
+
+    static final TranslationStore EMPTY = new Builder(new ArrayList<>(), null).build();
+
+    private final Map<String, Integer> languageIndexes;
+    private final Map<String, Integer> keyIds;
+    private final int mainLanguageIndex;
+    /**
+     * Translations by language index and key ID.
+     */
+    private final TextTemplate[][] texts;
+    /**
+     * The parsed <code>[triton_json]</code> and <code>[minimsg]</code> translations, by language index and key ID.
+     */
+    private final ComponentTemplate[][] components;
+
+    private TranslationStore(Map<String, Integer> languageIndexes, Map<String, Integer> keyIds, int mainLanguageIndex,
+                             TextTemplate[][] texts, ComponentTemplate[][] components) {
+        this.languageIndexes = languageIndexes;
+        this.keyIds = keyIds;
+        this.mainLanguageIndex = mainLanguageIndex;
+        this.texts = texts;
+        this.components = components;
+    }
+
+    /**
+     * @param language The name of the language.
+     * @return The index of the language, or the index of the main language if there's no language with that name.
+     */
+    public int getLanguageIndex(String language) {
+        val index = languageIndexes.get(language);
+        return index == null ? mainLanguageIndex : index;
+    }
+
+    public int getMainLanguageIndex() {
+        return mainLanguageIndex;
+    }
+
+    /**
+     * @param key The translation key.
+     * @return The ID of the key, or -1 if there's no translation with that key.
+     */
+    public int getKeyId(String key) {
+        val id = keyIds.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param language The index of the language, from {@link #getLanguageIndex(String)}.
+     * @param key      The ID of the key, from {@link #getKeyId(String)}.
+     * @return The translation in the given language (or in the main language if the given language doesn't
+     * have it), or null if it doesn't exist.
+     */
+    public TextTemplate getText(int language, int key) {
+        if (key < 0 || language < 0) return null;
+        return texts[language][key];
+    }
+
+    /**
+     * @param language The index of the language, from {@link #getLanguageIndex(String)}.
+     * @param key      The ID of the key, from {@link #getKeyId(String)}.
+     * @return The parsed translation that matches {@link #getText(int, int)}, or null if it isn't a
+     * <code>[triton_json]</code> or <code>[minimsg]</code> translation that could be parsed beforehand.
+     */
+    public ComponentTemplate getComponent(int language, int key) {
+        if (key < 0 || language < 0) return null;
+        // Languages without any component translations don't have a row
+        val languageComponents = components[language];
+        return languageComponents == null ? null : languageComponents[key];
+    }
+
+    public int getKeyCount() {
+        return keyIds.size();
+    }
+
+    /**
+     * A translation compiled by {@link Builder#compile(String, String, String)}.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Translation {
+        private final String language;
+        private final String key;
+        private final TextTemplate text;
+        private final ComponentTemplate component;
+    }
+
+    public static class Builder {
+        private final Map<String, Integer> languageIndexes = new HashMap<>();
+        private final Map<String, Integer> keyIds = new HashMap<>();
+        private final List<TextTemplate[]> texts = new ArrayList<>();
+        private final List<ComponentTemplate[]> components = new ArrayList<>();
+        private final Map<String, TextTemplate> compiledTexts = new HashMap<>();
+        private final String mainLanguage;
+
+        /**
+         * @param languages    The names of the languages in the config, which get the first indexes.
+         * @param mainLanguage The name of the main language.
+         */
+        public Builder(List<String> languages, String mainLanguage) {
+            this.mainLanguage = mainLanguage;
+            for (val language : languages)
+                getOrAddLanguage(language);
+        }
+
+        /**
+         * Compiles a translation and adds it to the table.
+         *
+         * @param language The name of the language.
+         * @param key      The translation key.
+         * @param value    The raw translation.
+         */
+        public void add(String language, String key, String value) {
+            add(compile(language, key, value));
+        }
+
+        /**
+         * Adds a translation that was compiled before, possibly by the builder of a previous table.
+         * If there's already a translation with the same language and key, it's replaced.
+         *
+         * @param translation The compiled translation.
+         */
+        public void add(Translation translation) {
+            val languageIndex = getOrAddLanguage(translation.language);
+            var keyId = keyIds.get(translation.key);
+            if (keyId == null) {
+                keyId = keyIds.size();
+                keyIds.put(translation.key, keyId);
+            }
+
+            setText(languageIndex, keyId, translation.text);
+            setComponent(languageIndex, keyId, translation.component);
+        }
+
+        /**
+         * Compiles a translation, without adding it to the table.
+         *
+         * @param language The name of the language.
+         * @param key      The translation key.
+         * @param value    The raw translation.
+         * @return The compiled translation.
+         */
+        public Translation compile(String language, String key, String value) {
+            // The same text is often used in multiple languages (e.g. names), so it's only compiled once
+            val template = compiledTexts.computeIfAbsent(value, TextTemplate::compile);
+            return new Translation(language, key, template,
+                    ComponentTemplate.isComponentTranslation(value) ? ComponentTemplate.compile(key, template) : null);
+        }
+
+        private int getOrAddLanguage(String language) {
+            val index = languageIndexes.get(language);
+            if (index != null) return index;
+            languageIndexes.put(language, texts.size());
+            texts.add(new TextTemplate[16]);
+            components.add(new ComponentTemplate[0]);
+            return texts.size() - 1;
+        }
+
+        private void setText(int language, int key, TextTemplate template) {
+            var languageTexts = texts.get(language);
+            if (key >= languageTexts.length) {
+                languageTexts = Arrays.copyOf(languageTexts, Math.max(key + 1, languageTexts.length * 2));
+                texts.set(language, languageTexts);
+            }
+            languageTexts[key] = template;
+        }
+
+        private void setComponent(int language, int key, ComponentTemplate template) {
+            var languageComponents = components.get(language);
+            if (key >= languageComponents.length) {
+                // Most translations aren't components, so this is only allocated when needed
+                if (template == null) return;
+                languageComponents = Arrays
+                        .copyOf(languageComponents, Math.max(key + 1, languageComponents.length * 2));
+                components.set(language, languageComponents);
+            }
+            languageComponents[key] = template;
+        }
+
+        public TranslationStore build() {
+            val keyCount = keyIds.size();
+            val mainIndex = mainLanguage == null ? -1 : languageIndexes.getOrDefault(mainLanguage, -1);
+            val mainHasComponents = mainIndex != -1 && components.get(mainIndex).length > 0;
+
+            val textTable = new TextTemplate[texts.size()][];
+            val componentTable = new ComponentTemplate[texts.size()][];
+            for (int i = 0; i < textTable.length; i++) {
+                textTable[i] = Arrays.copyOf(texts.get(i), keyCount);
+                if (components.get(i).length > 0 || mainHasComponents)
+                    componentTable[i] = Arrays.copyOf(components.get(i), keyCount);
+            }
+
+            if (mainIndex != -1) {
+                for (int i = 0; i < textTable.length; i++) {
+                    if (i == mainIndex) continue;
+                    for (int key = 0; key < keyCount; key++) {
+                        if (textTable[i][key] != null) continue;
+                        textTable[i][key] = textTable[mainIndex][key];
+                        if (mainHasComponents) componentTable[i][key] = componentTable[mainIndex][key];
+                    }
+                }
+            }
+
+            return new TranslationStore(languageIndexes, keyIds, mainIndex, textTable, componentTable);
+        }
+    }
+
+}
@@ -9,6 +9,11 @@ import java.util.List;
 public class Collection {
     private CollectionMetadata metadata = new CollectionMetadata();
     private List<LanguageItem> items = new ArrayList<>();
+    /**
+     * Identifies the content of this collection as it was loaded from storage, so unchanged collections
+     * don't have to be processed again on reload. Null if unknown, or if the collection has been changed since.
+     */
+    private transient String revision;
 
     @Data
     public static class CollectionMetadata {
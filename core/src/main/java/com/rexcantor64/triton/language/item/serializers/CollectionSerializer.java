@@ -1,55 +1,229 @@
 package com.rexcantor64.triton.language.item.serializers;
 
 import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.rexcantor64.triton.language.item.Collection;
 import com.rexcantor64.triton.language.item.LanguageItem;
 import com.rexcantor64.triton.language.item.LanguageSign;
 import com.rexcantor64.triton.language.item.LanguageText;
+import com.rexcantor64.triton.language.item.SignLocation;
+import com.rexcantor64.triton.language.item.TWINData;
 import lombok.val;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
-public class CollectionSerializer implements JsonDeserializer<Collection> {
+/**
+ * Reads and writes collection files.
+ * <p>
+ * Collections are read with a streaming parser that builds the items as it goes, instead of building a
+ * tree of the whole file first, since collection files can hold hundreds of thousands of translations.
+ * The result is the same as deserializing the items with {@link LanguageTextSerializer} and
+ * {@link LanguageSignSerializer}.
+ */
+public class CollectionSerializer {
 
     private static final Gson gson = new GsonBuilder()
             .setPrettyPrinting()
-            .registerTypeAdapter(Collection.class, new CollectionSerializer())
             .registerTypeAdapter(LanguageItem.class, new LanguageItemSerializer())
             .registerTypeAdapter(LanguageText.class, new LanguageTextSerializer())
             .registerTypeAdapter(LanguageSign.class, new LanguageSignSerializer())
             .create();
+    private static final Type LOCATIONS_TYPE = new TypeToken<List<SignLocation>>() {
+    }.getType();
 
     public static Collection parse(Reader json) {
-        return gson.fromJson(json, Collection.class);
+        val reader = new JsonReader(json);
+        // Gson is lenient by default, so this keeps accepting the same files
+        reader.setLenient(true);
+        try {
+            val collection = readCollection(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonParseException("JSON document was not fully consumed.");
+            return collection;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
     }
 
     public static void toJson(Collection collection, Appendable reader) {
         gson.toJson(collection, reader);
     }
 
-    @Override
-    public Collection deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+    private static Collection readCollection(JsonReader reader) throws IOException {
         val collection = new Collection();
 
-        JsonArray items;
-        if (json.isJsonArray()) {
-            items = json.getAsJsonArray();
-        } else if (json.isJsonObject()) {
-            items = json.getAsJsonObject().getAsJsonArray("items");
-            collection.setMetadata(context
-                    .deserialize(json.getAsJsonObject().get("metadata"), Collection.CollectionMetadata.class));
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            collection.setItems(readItems(reader));
+        } else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "items":
+                        collection.setItems(readItems(reader));
+                        break;
+                    case "metadata":
+                        collection.setMetadata(gson.fromJson(reader, Collection.CollectionMetadata.class));
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
         } else {
             throw new JsonParseException("Invalid JSON while deserializing Collection");
         }
 
-        collection.setItems(Arrays.stream((LanguageItem[]) context.deserialize(items, LanguageItem[].class))
-                .filter(Objects::nonNull).collect(Collectors.toList()));
-
         return collection;
     }
 
+    private static List<LanguageItem> readItems(JsonReader reader) throws IOException {
+        val items = new ArrayList<LanguageItem>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            items.add(readItem(reader));
+        }
+        reader.endArray();
+        return items;
+    }
+
+    private static LanguageItem readItem(JsonReader reader) throws IOException {
+        // The type can come after the other fields, so all of them are read before creating the item
+        String type = null;
+        String key = null;
+        TWINData twinData = null;
+        HashMap<String, String> languages = null;
+        List<String> patterns = null;
+        Boolean blacklist = null;
+        List<String> servers = null;
+        HashMap<String, String[]> lines = null;
+        List<SignLocation> locations = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            val name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "type":
+                    type = reader.nextString();
+                    break;
+                case "key":
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT || reader.peek() == JsonToken.BEGIN_ARRAY)
+                        throw new JsonParseException("Translation requires a key");
+                    key = reader.nextString();
+                    break;
+                case "_twin":
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT)
+                        twinData = gson.fromJson(reader, TWINData.class);
+                    else
+                        reader.skipValue();
+                    break;
+                case "languages":
+                    languages = readStringMap(reader);
+                    break;
+                case "patterns":
+                    patterns = readStringList(reader);
+                    break;
+                case "blacklist":
+                    blacklist = reader.peek() == JsonToken.STRING ? Boolean.parseBoolean(reader.nextString()) :
+                            reader.nextBoolean();
+                    break;
+                case "servers":
+                    servers = readStringList(reader);
+                    break;
+                case "lines":
+                    lines = readLinesMap(reader);
+                    break;
+                case "locations":
+                    locations = gson.fromJson(reader, LOCATIONS_TYPE);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (key == null) throw new JsonParseException("Translation requires a key");
+
+        if ("text".equalsIgnoreCase(type)) {
+            val item = new LanguageText();
+            item.setKey(key);
+            item.setTwinData(twinData);
+            item.setLanguages(languages);
+            item.setPatterns(patterns);
+            item.setBlacklist(blacklist);
+            item.setServers(servers);
+            item.generateRegexStrings();
+            return item;
+        }
+        if ("sign".equalsIgnoreCase(type)) {
+            val item = new LanguageSign();
+            item.setKey(key);
+            item.setTwinData(twinData);
+            item.setLines(lines);
+            item.setLocations(locations);
+            return item;
+        }
+
+        throw new JsonParseException("Invalid translation type: " + type);
+    }
+
+    private static HashMap<String, String> readStringMap(JsonReader reader) throws IOException {
+        val map = new HashMap<String, String>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            val name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            map.put(name, reader.nextString());
+        }
+        reader.endObject();
+        return map;
+    }
+
+    private static HashMap<String, String[]> readLinesMap(JsonReader reader) throws IOException {
+        val map = new HashMap<String, String[]>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            val name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            map.put(name, readStringList(reader).toArray(new String[0]));
+        }
+        reader.endObject();
+        return map;
+    }
+
+    private static List<String> readStringList(JsonReader reader) throws IOException {
+        val list = new ArrayList<String>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                list.add(null);
+                continue;
+            }
+            list.add(reader.nextString());
+        }
+        reader.endArray();
+        return list;
+    }
+
 }
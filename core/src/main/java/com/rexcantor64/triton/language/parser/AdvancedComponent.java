@@ -2,22 +2,47 @@ package com.rexcantor64.triton.language.parser;
 
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.utils.ComponentUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.val;
 import lombok.var;
 import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.*;
 
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
-import java.util.regex.Pattern;
 
+/**
+ * A component tree flattened into a list of {@link Segment segments}: text, formatting codes,
+ * the start and end of click and hover events, and translatable components.
+ * <p>
+ * The segments can also be seen as legacy text, where click events, hover events and translatable components
+ * are represented with private use characters (see {@link #getText()}). That text is only built when needed,
+ * and converting the segments back to components doesn't go through it.
+ * <p>
+ * Besides BungeeCord components, Adventure components can be converted to and from segments directly,
+ * with {@link AdventureComponentConverter}.
+ */
 public class AdvancedComponent {
 
-    private static Pattern FORMATTING_STRIP_PATTERN = Pattern.compile("\\uE400\\d[\\w-]{36}|\\uE500[\\w-]{36}|\\uE401|\\uE501");
-    @Getter
+    /**
+     * The length of the IDs of click events, hover events and translatable components.
+     */
+    private static final int ID_LENGTH = 16;
+    private static final char[] ID_DIGITS = "0123456789abcdef".toCharArray();
+    /**
+     * IDs end up in the same text as the messages sent by players, so they must not be guessable.
+     * Otherwise, a player could write the ID of a click event of another part of the message.
+     * Each thread has its own generator, so they don't wait for each other.
+     */
+    private static final ThreadLocal<SecureRandom> ID_RANDOM = ThreadLocal.withInitial(AdvancedComponent::createRandom);
+    private List<Segment> segments = new ArrayList<>();
+    /**
+     * The segments as legacy text, or null if it hasn't been built yet.
+     */
     private String text;
     @Getter
     private HashMap<String, String> components = new HashMap<>();
@@ -27,7 +52,49 @@ public class AdvancedComponent {
 
     public static String stripFormatting(String str) {
         str = ChatColor.stripColor(str);
-        return FORMATTING_STRIP_PATTERN.matcher(str).replaceAll("");
+        val builder = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '\uE400' && isId(str, i + 2) && str.charAt(i + 1) >= '0' && str.charAt(i + 1) <= '9') {
+                i += 1 + ID_LENGTH;
+            } else if (c == '\uE500' && isId(str, i + 1)) {
+                i += ID_LENGTH;
+            } else if (c != '\uE401' && c != '\uE501') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isId(String str, int start) {
+        if (start + ID_LENGTH > str.length()) return false;
+        for (int i = start; i < start + ID_LENGTH; i++) {
+            char c = str.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return A new ID, made of {@link #ID_LENGTH} hexadecimal digits.
+     */
+    private static String nextId() {
+        var id = ID_RANDOM.get().nextLong();
+        val chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ID_DIGITS[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static SecureRandom createRandom() {
+        try {
+            // Unlike the default one, this generator doesn't share its state with the other instances
+            return SecureRandom.getInstance("SHA1PRNG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
     }
 
     public static AdvancedComponent fromBaseComponent(BaseComponent... components) {
@@ -36,204 +103,263 @@ public class AdvancedComponent {
 
     public static AdvancedComponent fromBaseComponent(boolean onlyText, BaseComponent... components) {
         AdvancedComponent advancedComponent = new AdvancedComponent();
-        StringBuilder builder = new StringBuilder();
+        advancedComponent.appendBaseComponents(onlyText, components);
+        return advancedComponent;
+    }
+
+    private void appendBaseComponents(boolean onlyText, BaseComponent... components) {
         for (BaseComponent comp : components) {
             boolean hasClick = false;
             boolean hasHover = false;
-            builder.append(ComponentUtils.getColorFromBaseComponent(comp).toString());
+            segments.add(Segment.format(ComponentUtils.getColorFromBaseComponent(comp)));
             if (comp.hasFormatting()) {
                 if (comp.isBold())
-                    builder.append(ChatColor.BOLD.toString());
+                    segments.add(Segment.format(ChatColor.BOLD));
                 if (comp.isItalic())
-                    builder.append(ChatColor.ITALIC.toString());
+                    segments.add(Segment.format(ChatColor.ITALIC));
                 if (comp.isUnderlined())
-                    builder.append(ChatColor.UNDERLINE.toString());
+                    segments.add(Segment.format(ChatColor.UNDERLINE));
                 if (comp.isStrikethrough())
-                    builder.append(ChatColor.STRIKETHROUGH.toString());
+                    segments.add(Segment.format(ChatColor.STRIKETHROUGH));
                 if (comp.isObfuscated())
-                    builder.append(ChatColor.MAGIC.toString());
+                    segments.add(Segment.format(ChatColor.MAGIC));
                 if (!onlyText) {
-                    if (comp.getClickEvent() != null && !comp.getClickEvent().getValue()
-                            .endsWith("[/" + Triton.get().getConf().getChatSyntax().getLang() + "]")) {
-                        builder.append("\uE400");
-                        builder.append(ComponentUtils.encodeClickAction(comp.getClickEvent().getAction()));
-                        UUID uuid = UUID.randomUUID();
-                        advancedComponent.setComponent(uuid, comp.getClickEvent().getValue());
-                        builder.append(uuid.toString());
+                    if (comp.getClickEvent() != null && !isTranslationLink(comp.getClickEvent().getValue())) {
+                        startClickEvent(comp.getClickEvent().getAction(), comp.getClickEvent().getValue());
                         hasClick = true;
                     }
                     if (comp.getHoverEvent() != null) {
-                        builder.append("\uE500");
-                        UUID uuid = UUID.randomUUID();
-                        advancedComponent
-                                .setHover(uuid, comp.getHoverEvent());
-                        builder.append(uuid.toString());
+                        startHoverEvent(comp.getHoverEvent());
                         hasHover = true;
                     }
                 }
             }
             if (comp instanceof TextComponent)
-                builder.append(((TextComponent) comp).getText());
+                appendText(((TextComponent) comp).getText(), segments);
 
             if (!onlyText && comp instanceof TranslatableComponent) {
                 TranslatableComponent tc = (TranslatableComponent) comp;
-                UUID uuid = UUID.randomUUID();
-                builder.append("\uE600")
-                        .append(tc.getTranslate())
-                        .append("\uE600")
-                        .append(uuid)
-                        .append("\uE600");
                 List<AdvancedComponent> args = new ArrayList<>();
                 if (tc.getWith() != null)
                     for (BaseComponent arg : tc.getWith())
                         args.add(fromBaseComponent(false, arg));
-                advancedComponent.setTranslatableArguments(uuid.toString(), args);
-            }
-            if (comp.getExtra() != null) {
-                AdvancedComponent component = fromBaseComponent(onlyText, comp.getExtra()
-                        .toArray(new BaseComponent[0]));
-                builder.append(component.getText());
-                advancedComponent.getComponents().putAll(component.getComponents());
-                advancedComponent.getHovers().putAll(component.getHovers());
-                advancedComponent.getAllTranslatableArguments().putAll(component.getAllTranslatableArguments());
+                appendTranslatable(tc.getTranslate(), args);
             }
+            if (comp.getExtra() != null)
+                appendBaseComponents(onlyText, comp.getExtra().toArray(new BaseComponent[0]));
             if (hasHover)
-                builder.append("\uE501");
+                endHoverEvent();
             if (hasClick)
-                builder.append("\uE401");
+                endClickEvent();
+        }
+    }
+
+    /**
+     * @param value The value of a click event.
+     * @return Whether the click event was added by Triton to a translation, and therefore must not be kept.
+     */
+    static boolean isTranslationLink(String value) {
+        return value.endsWith("[/" + Triton.get().getConf().getChatSyntax().getLang() + "]");
+    }
+
+    void appendFormat(ChatColor format) {
+        segments.add(Segment.format(format));
+    }
+
+    void appendText(String text) {
+        appendText(text, segments);
+    }
+
+    /**
+     * Starts a click event, which lasts until {@link #endClickEvent()} is called.
+     */
+    void startClickEvent(ClickEvent.Action action, String value) {
+        String id = nextId();
+        setComponent(id, value);
+        segments.add(Segment.clickStart(ComponentUtils.encodeClickAction(action), id));
+    }
+
+    void endClickEvent() {
+        segments.add(Segment.CLICK_END);
+    }
+
+    /**
+     * Starts a hover event, which lasts until {@link #endHoverEvent()} is called.
+     */
+    void startHoverEvent(HoverEvent hover) {
+        String id = nextId();
+        setHover(id, hover);
+        segments.add(Segment.hoverStart(id));
+    }
+
+    void endHoverEvent() {
+        segments.add(Segment.HOVER_END);
+    }
+
+    void appendTranslatable(String key, List<AdvancedComponent> args) {
+        String id = nextId();
+        segments.add(Segment.translatable(key, id));
+        setTranslatableArguments(id, args);
+    }
 
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Appends the given text as segments. Plain text becomes a single segment, while text with formatting
+     * codes or private use characters (e.g. coming from translation arguments) is split into segments.
+     *
+     * @param text     The legacy text to append.
+     * @param segments The list to append the segments to.
+     */
+    private static void appendText(String text, List<Segment> segments) {
+        if (text.isEmpty()) return;
+        for (int i = 0; i < text.length(); i++) {
+            if (isSpecialChar(text.charAt(i))) {
+                parse(text, segments);
+                return;
+            }
         }
-        advancedComponent.setText(builder.toString());
-        return advancedComponent;
+        segments.add(Segment.text(text));
     }
 
-    public BaseComponent[] toBaseComponent() {
-        return new BaseComponent[]{new TextComponent(toBaseComponent(this.text).toArray(new BaseComponent[0]))};
+    private static boolean isSpecialChar(char c) {
+        return c == '\u00A7' || c == '\uE400' || c == '\uE401' || c == '\uE500' || c == '\uE501' || c == '\uE600';
     }
 
-    private List<BaseComponent> toBaseComponent(String text) {
-        List<BaseComponent> list = new ArrayList<>();
+    /**
+     * Splits legacy text into segments.
+     * The segments encode back to exactly the same text, so malformed codes are kept as text.
+     */
+    private static void parse(String text, List<Segment> segments) {
         StringBuilder builder = new StringBuilder();
-        TextComponent component = new TextComponent("");
         for (int i = 0; i < text.length(); i++) {
             char c = text.charAt(i);
-            if (c == '\u00A7') {
-                i++;
-                if (i >= text.length()) {
-                    builder.append(c);
-                    continue;
-                }
-                val lowercaseChar = Character.toLowerCase(text.charAt(i));
-
+            Segment segment = null;
+            if (c == '\u00A7' && i + 1 < text.length()) {
+                val lowercaseChar = Character.toLowerCase(text.charAt(i + 1));
+                var end = i + 2;
                 ChatColor format;
-                if (lowercaseChar == 'x' && i + 12 < text.length()) {
-                    val color = text.substring(i + 1, i + 13);
-                    format = ChatColor.of("#" + color.replace("\u00A7", ""));
-                    i += 12;
+                if (lowercaseChar == 'x' && i + 13 < text.length()) {
+                    end = i + 14;
+                    try {
+                        format = ChatColor.of("#" + text.substring(i + 2, end).replace("\u00A7", ""));
+                    } catch (IllegalArgumentException e) {
+                        format = null;
+                    }
                 } else {
                     format = ChatColor.getByChar(lowercaseChar);
                 }
-                if (format == null) {
-                    builder.append(c);
-                    i--;
-                    continue;
-                }
-                if (builder.length() != 0) {
-                    component.setText(builder.toString());
-                    builder = new StringBuilder();
-                    ChatColor previousColor = ComponentUtils.getColorFromBaseComponent(component);
-                    list.add(component);
-                    component = new TextComponent("");
-                    component.setColor(previousColor);
-                }
-                if (ChatColor.BOLD.equals(format)) {
-                    component.setBold(true);
-                } else if (ChatColor.ITALIC.equals(format)) {
-                    component.setItalic(true);
-                } else if (ChatColor.UNDERLINE.equals(format)) {
-                    component.setUnderlined(true);
-                } else if (ChatColor.STRIKETHROUGH.equals(format)) {
-                    component.setStrikethrough(true);
-                } else if (ChatColor.MAGIC.equals(format)) {
-                    component.setObfuscated(true);
-                } else if (ChatColor.RESET.equals(format)) {
-                    component.setBold(null);
-                    component.setItalic(null);
-                    component.setUnderlined(null);
-                    component.setStrikethrough(null);
-                    component.setObfuscated(null);
-                    component.setColor(null);
-                } else {
-                    component.setColor(format);
-                }
-            } else if (c == '\uE400' || c == '\uE500') {
-                if (builder.length() != 0) {
-                    component.setText(builder.toString());
-                    builder = new StringBuilder();
-                    BaseComponent previousComponent = component;
-                    list.add(component);
-                    component = new TextComponent("");
-                    ComponentUtils.copyFormatting(previousComponent, component);
-                }
-                if (c == '\uE400') {
-                    String uuid = text.substring(i + 2, i + 2 + 36);
-                    int actionCode = Integer.parseInt(Character.toString(text.charAt(i + 1)));
-                    ClickEvent.Action action = ComponentUtils.decodeClickAction(actionCode);
-                    component.setClickEvent(new ClickEvent(action, this.getComponent(uuid)));
-                    i += 2 + 36;
-                } else { // c == '\uE500'
-                    String uuid = text.substring(i + 1, i + 1 + 36);
-                    component.setHoverEvent(this.hovers.get(uuid));
-                    i += 1 + 36;
-                }
-                int deep = 0;
-                StringBuilder content = new StringBuilder();
-                while (text.charAt(i) != c + 1 || deep != 0) {
-                    char c1 = text.charAt(i);
-                    if (c1 == c) deep++; // c == \uE400 || c == \uE500
-                    if (c1 == c + 1) deep--; // c + 1 == \uE401 || c + 1 == \uE501
-                    content.append(c1);
-                    i++;
-                }
-                List<BaseComponent> extra = toBaseComponent(content.toString());
-                if (extra.size() > 0)
-                    component.setExtra(extra);
-                BaseComponent previousComponent = component;
-                list.add(component);
-                component = new TextComponent("");
-                ComponentUtils.copyFormatting(previousComponent, component);
+                if (format != null)
+                    segment = new Segment(Kind.FORMAT, text.substring(i, end), null, format, null, 0);
+            } else if (c == '\uE400' && i + 2 + ID_LENGTH <= text.length()) {
+                segment = Segment.clickStart(text.charAt(i + 1) - '0', text.substring(i + 2, i + 2 + ID_LENGTH));
+            } else if (c == '\uE500' && i + 1 + ID_LENGTH <= text.length()) {
+                segment = Segment.hoverStart(text.substring(i + 1, i + 1 + ID_LENGTH));
+            } else if (c == '\uE401') {
+                segment = Segment.CLICK_END;
+            } else if (c == '\uE501') {
+                segment = Segment.HOVER_END;
             } else if (c == '\uE600') {
-                i++;
-                StringBuilder key = new StringBuilder();
-                while (text.charAt(i) != '\uE600') {
-                    key.append(text.charAt(i));
-                    i++;
-                }
-                i++;
-                StringBuilder uuid = new StringBuilder();
-                while (text.charAt(i) != '\uE600') {
-                    uuid.append(text.charAt(i));
-                    i++;
-                }
-                if (builder.length() != 0) {
-                    component.setText(builder.toString());
-                    builder = new StringBuilder();
+                val keyEnd = text.indexOf('\uE600', i + 1);
+                val idEnd = keyEnd == -1 ? -1 : text.indexOf('\uE600', keyEnd + 1);
+                if (idEnd != -1)
+                    segment = Segment.translatable(text.substring(i + 1, keyEnd), text.substring(keyEnd + 1, idEnd));
+            }
+
+            if (segment == null) {
+                builder.append(c);
+                continue;
+            }
+            if (builder.length() != 0) {
+                segments.add(Segment.text(builder.toString()));
+                builder = new StringBuilder();
+            }
+            segments.add(segment);
+            i += segment.raw.length() - 1;
+        }
+        if (builder.length() != 0)
+            segments.add(Segment.text(builder.toString()));
+    }
+
+    public BaseComponent[] toBaseComponent() {
+        return new BaseComponent[]{new TextComponent(toBaseComponent(0, segments.size())
+                .toArray(new BaseComponent[0]))};
+    }
+
+    private List<BaseComponent> toBaseComponent(int from, int to) {
+        List<BaseComponent> list = new ArrayList<>();
+        StringBuilder builder = new StringBuilder();
+        TextComponent component = new TextComponent("");
+        for (int i = from; i < to; i++) {
+            val segment = segments.get(i);
+            switch (segment.kind) {
+                case TEXT:
+                    builder.append(segment.value);
+                    break;
+                case FORMAT:
+                    if (builder.length() != 0) {
+                        component.setText(builder.toString());
+                        builder = new StringBuilder();
+                        ChatColor previousColor = ComponentUtils.getColorFromBaseComponent(component);
+                        list.add(component);
+                        component = new TextComponent("");
+                        component.setColor(previousColor);
+                    }
+                    applyFormat(component, segment.format);
+                    break;
+                case CLICK_START:
+                case HOVER_START: {
+                    if (builder.length() != 0) {
+                        component.setText(builder.toString());
+                        builder = new StringBuilder();
+                        BaseComponent previousComponent = component;
+                        list.add(component);
+                        component = new TextComponent("");
+                        ComponentUtils.copyFormatting(previousComponent, component);
+                    }
+                    if (segment.kind == Kind.CLICK_START) {
+                        ClickEvent.Action action = ComponentUtils.decodeClickAction(segment.action);
+                        component.setClickEvent(new ClickEvent(action, this.getComponent(segment.id)));
+                    } else {
+                        component.setHoverEvent(this.hovers.get(segment.id));
+                    }
+                    val end = findEnd(i, to);
+                    List<BaseComponent> extra = toBaseComponent(i + 1, end);
+                    if (extra.size() > 0)
+                        component.setExtra(extra);
                     BaseComponent previousComponent = component;
                     list.add(component);
                     component = new TextComponent("");
                     ComponentUtils.copyFormatting(previousComponent, component);
+                    i = end;
+                    break;
                 }
-                TranslatableComponent tc = new TranslatableComponent(key.toString());
-                ComponentUtils.copyFormatting(component, tc);
-                List<AdvancedComponent> argsAdvanced = this.getTranslatableArguments(uuid.toString());
-                if (argsAdvanced != null)
-                    for (AdvancedComponent ac : argsAdvanced) {
-                        BaseComponent[] bc = ac.toBaseComponent();
-                        tc.addWith(bc == null ? new TextComponent("") : bc[0]);
+                case TRANSLATABLE: {
+                    if (builder.length() != 0) {
+                        component.setText(builder.toString());
+                        builder = new StringBuilder();
+                        BaseComponent previousComponent = component;
+                        list.add(component);
+                        component = new TextComponent("");
+                        ComponentUtils.copyFormatting(previousComponent, component);
                     }
-                list.add(tc);
-            } else
-                builder.append(c);
+                    TranslatableComponent tc = new TranslatableComponent(segment.value);
+                    ComponentUtils.copyFormatting(component, tc);
+                    List<AdvancedComponent> argsAdvanced = this.getTranslatableArguments(segment.id);
+                    if (argsAdvanced != null)
+                        for (AdvancedComponent ac : argsAdvanced) {
+                            BaseComponent[] bc = ac.toBaseComponent();
+                            tc.addWith(bc == null ? new TextComponent("") : bc[0]);
+                        }
+                    list.add(tc);
+                    break;
+                }
+                default:
+                    // An end without a start is just text
+                    builder.append(segment.raw);
+            }
         }
         if (builder.length() != 0) {
             component.setText(builder.toString());
@@ -242,39 +368,131 @@ public class AdvancedComponent {
         return list;
     }
 
+    private static void applyFormat(BaseComponent component, ChatColor format) {
+        if (ChatColor.BOLD.equals(format)) {
+            component.setBold(true);
+        } else if (ChatColor.ITALIC.equals(format)) {
+            component.setItalic(true);
+        } else if (ChatColor.UNDERLINE.equals(format)) {
+            component.setUnderlined(true);
+        } else if (ChatColor.STRIKETHROUGH.equals(format)) {
+            component.setStrikethrough(true);
+        } else if (ChatColor.MAGIC.equals(format)) {
+            component.setObfuscated(true);
+        } else if (ChatColor.RESET.equals(format)) {
+            component.setBold(null);
+            component.setItalic(null);
+            component.setUnderlined(null);
+            component.setStrikethrough(null);
+            component.setObfuscated(null);
+            component.setColor(null);
+        } else {
+            component.setColor(format);
+        }
+    }
+
+    /**
+     * @param start The index of a segment that starts a click or hover event.
+     * @param to    The index to stop looking at.
+     * @return The index of the segment that ends the event, or {@code to} if there is none.
+     */
+    int findEnd(int start, int to) {
+        val startKind = segments.get(start).kind;
+        val endKind = startKind == Kind.CLICK_START ? Kind.CLICK_END : Kind.HOVER_END;
+        int deep = 0;
+        for (int i = start + 1; i < to; i++) {
+            val kind = segments.get(i).kind;
+            if (kind == endKind) {
+                if (deep == 0) return i;
+                deep--;
+            } else if (kind == startKind) {
+                deep++;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * @return The segments as legacy text, with click events, hover events and translatable components
+     * represented by private use characters.
+     */
+    public String getText() {
+        if (text == null) {
+            val builder = new StringBuilder();
+            for (val segment : segments)
+                builder.append(segment.raw);
+            text = builder.toString();
+        }
+        return text;
+    }
+
     public String getTextClean() {
-        var result = text;
+        var result = getText();
         while (result.startsWith(ChatColor.RESET.toString()))
             result = result.substring(2);
         return result;
     }
 
     public void setText(String text) {
+        this.segments = new ArrayList<>();
+        parse(text, this.segments);
         this.text = text;
     }
 
-    private void setComponent(UUID uuid, String text) {
-        components.put(uuid.toString(), text);
+    public void setSegments(List<Segment> segments) {
+        this.segments = segments;
+        this.text = null;
     }
 
-    public void setComponent(String uuid, String text) {
-        components.put(uuid, text);
+    /**
+     * Appends the segments that make up the range [from, to) of {@link #getTextClean()} to the given list.
+     * Text segments are split if needed.
+     *
+     * @param result The list to append the segments to.
+     * @param from   The start of the range, inclusive.
+     * @param to     The end of the range, exclusive.
+     */
+    public void appendCleanSegments(List<Segment> result, int from, int to) {
+        if (from >= to) return;
+        val offset = getText().length() - getTextClean().length();
+        from += offset;
+        to += offset;
+
+        var start = 0;
+        for (val segment : segments) {
+            val end = start + segment.raw.length();
+            if (end > from && start < to) {
+                if (from <= start && end <= to)
+                    result.add(segment);
+                else if (segment.kind == Kind.TEXT)
+                    result.add(Segment.text(segment.value.substring(Math.max(from, start) - start,
+                            Math.min(to, end) - start)));
+                else
+                    parse(segment.raw.substring(Math.max(from, start) - start, Math.min(to, end) - start), result);
+            }
+            if (end >= to) break;
+            start = end;
+        }
     }
 
-    private void setHover(UUID uuid, HoverEvent hover) {
-        hovers.put(uuid.toString(), hover);
+    public void setComponent(String id, String text) {
+        components.put(id, text);
     }
 
-    private String getComponent(String uuid) {
-        return components.get(uuid);
+    private void setHover(String id, HoverEvent hover) {
+        hovers.put(id, hover);
     }
 
-    private void setTranslatableArguments(String uuid, List<AdvancedComponent> list) {
-        translatableArguments.put(uuid, list);
+    String getComponent(String id) {
+        return components.get(id);
     }
 
-    private List<AdvancedComponent> getTranslatableArguments(String uuid) {
-        return translatableArguments.get(uuid);
+    private void setTranslatableArguments(String id, List<AdvancedComponent> list) {
+        translatableArguments.put(id, list);
+    }
+
+    List<AdvancedComponent> getTranslatableArguments(String id) {
+        return translatableArguments.get(id);
     }
 
     public HashMap<String, List<AdvancedComponent>> getAllTranslatableArguments() {
@@ -284,9 +502,72 @@ public class AdvancedComponent {
     @Override
     public String toString() {
         return "AdvancedComponent{" +
-                "text='" + text + '\'' +
+                "text='" + getText() + '\'' +
                 ", components=" + components +
                 ", translatableArguments=" + translatableArguments +
                 '}';
     }
-}
\ No newline at end of file
+
+    enum Kind {
+        TEXT, FORMAT, CLICK_START, CLICK_END, HOVER_START, HOVER_END, TRANSLATABLE
+    }
+
+    /**
+     * A piece of an {@link AdvancedComponent}. Segments are immutable, so they can be shared between components.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    public static final class Segment {
+        private static final Segment CLICK_END = new Segment(Kind.CLICK_END, "\uE401", null, null, null, 0);
+        private static final Segment HOVER_END = new Segment(Kind.HOVER_END, "\uE501", null, null, null, 0);
+
+        private final Kind kind;
+        /**
+         * How this segment is represented in legacy text.
+         */
+        private final String raw;
+        /**
+         * The text of a text segment, or the key of a translatable segment.
+         */
+        private final String value;
+        private final ChatColor format;
+        /**
+         * The ID of the click event, hover event or translatable arguments.
+         */
+        private final String id;
+        private final int action;
+
+        private Segment(Kind kind, String raw, String value, ChatColor format, String id, int action) {
+            this.kind = kind;
+            this.raw = raw;
+            this.value = value;
+            this.format = format;
+            this.id = id;
+            this.action = action;
+        }
+
+        private static Segment text(String text) {
+            return new Segment(Kind.TEXT, text, text, null, null, 0);
+        }
+
+        private static Segment format(ChatColor format) {
+            return new Segment(Kind.FORMAT, format.toString(), null, format, null, 0);
+        }
+
+        private static Segment clickStart(int action, String id) {
+            return new Segment(Kind.CLICK_START, "\uE400" + action + id, null, null, id, action);
+        }
+
+        private static Segment hoverStart(String id) {
+            return new Segment(Kind.HOVER_START, "\uE500" + id, null, null, id, 0);
+        }
+
+        private static Segment translatable(String key, String id) {
+            return new Segment(Kind.TRANSLATABLE, "\uE600" + key + "\uE600" + id + "\uE600", key, null, id, 0);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "{" + raw + "}";
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.rexcantor64.triton.language.parser;
+
+import com.rexcantor64.triton.utils.ComponentUtils;
+import com.rexcantor64.triton.wrappers.AdventureComponentWrapper;
+import lombok.val;
+import lombok.var;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.md_5.bungee.api.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts Adventure components to and from {@link AdvancedComponent AdvancedComponents}, so they can be translated
+ * and sent back as Adventure components, without converting them to BungeeCord components or JSON.
+ * <p>
+ * Only hover texts are converted to BungeeCord components, since that's how translations handle them.
+ */
+public class AdventureComponentConverter {
+
+    private static final TextDecoration[] DECORATIONS = {TextDecoration.BOLD, TextDecoration.ITALIC,
+            TextDecoration.UNDERLINED, TextDecoration.STRIKETHROUGH, TextDecoration.OBFUSCATED};
+    private static final ChatColor[] DECORATION_FORMATS = {ChatColor.BOLD, ChatColor.ITALIC, ChatColor.UNDERLINE,
+            ChatColor.STRIKETHROUGH, ChatColor.MAGIC};
+
+    /**
+     * Converts an Adventure component, the same way
+     * {@link AdvancedComponent#fromBaseComponent(net.md_5.bungee.api.chat.BaseComponent...)} converts BungeeCord
+     * components. Click events that open something that isn't a link are removed, since
+     * they were added by Triton.
+     *
+     * @param comp The Adventure component.
+     * @return The converted component, or null if it has content that can only be translated
+     * as a BungeeCord component (e.g. keybinds or items in hover events).
+     */
+    public static AdvancedComponent toAdvancedComponent(Object comp) {
+        val result = new AdvancedComponent();
+        if (!append(result, (Component) comp, Style.empty())) return null;
+        return result;
+    }
+
+    /**
+     * @param target      The component to append to.
+     * @param component   The Adventure component to append.
+     * @param parentStyle The color and decorations inherited by the component.
+     * @return False if the component can't be converted.
+     */
+    private static boolean append(AdvancedComponent target, Component component, Style parentStyle) {
+        val style = inheritStyle(component, parentStyle);
+        target.appendFormat(toChatColor(style.color()));
+        for (int i = 0; i < DECORATIONS.length; i++)
+            if (style.decoration(DECORATIONS[i]) == TextDecoration.State.TRUE)
+                target.appendFormat(DECORATION_FORMATS[i]);
+
+        val clickEvent = component.clickEvent();
+        val hasClick = clickEvent != null && !AdvancedComponent.isTranslationLink(clickEvent.value()) &&
+                (clickEvent.action() != ClickEvent.Action.OPEN_URL || ComponentUtils.isLink(clickEvent.value()));
+        if (hasClick)
+            target.startClickEvent(net.md_5.bungee.api.chat.ClickEvent.Action.valueOf(clickEvent.action().name()),
+                    clickEvent.value());
+        val hoverEvent = component.hoverEvent();
+        if (hoverEvent != null) {
+            val md5HoverEvent = AdventureComponentWrapper.toMd5HoverEvent(hoverEvent);
+            if (md5HoverEvent == null) return false;
+            target.startHoverEvent(md5HoverEvent);
+        }
+
+        if (component instanceof TextComponent) {
+            target.appendText(((TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            val args = new ArrayList<AdvancedComponent>();
+            for (val arg : ((TranslatableComponent) component).args()) {
+                val advancedArg = toAdvancedComponent(arg);
+                if (advancedArg == null) return false;
+                args.add(advancedArg);
+            }
+            target.appendTranslatable(((TranslatableComponent) component).key(), args);
+        } else {
+            return false;
+        }
+
+        Style previousTextStyle = null;
+        for (val child : component.children()) {
+            // Consecutive texts with the same formatting are merged, so patterns can match across them
+            val childStyle = inheritStyle(child, style);
+            if (isPlainText(child) && childStyle.equals(previousTextStyle)) {
+                target.appendText(((TextComponent) child).content());
+                continue;
+            }
+            if (!append(target, child, style)) return false;
+            previousTextStyle = isPlainText(child) ? childStyle : null;
+        }
+
+        if (hoverEvent != null)
+            target.endHoverEvent();
+        if (hasClick)
+            target.endClickEvent();
+        return true;
+    }
+
+    private static boolean isPlainText(Component component) {
+        return component instanceof TextComponent && component.children().isEmpty() &&
+                component.clickEvent() == null && component.hoverEvent() == null && component.insertion() == null;
+    }
+
+    /**
+     * @return The color and decorations of the component, including the ones inherited from its parents.
+     */
+    private static Style inheritStyle(Component component, Style parentStyle) {
+        var style = parentStyle;
+        if (component.color() != null)
+            style = style.color(component.color());
+        for (val decoration : DECORATIONS) {
+            val state = component.decoration(decoration);
+            if (state != TextDecoration.State.NOT_SET)
+                style = style.decoration(decoration, state);
+        }
+        return style;
+    }
+
+    private static ChatColor toChatColor(TextColor color) {
+        if (color == null) return ChatColor.RESET;
+        return ChatColor.of(color instanceof NamedTextColor ? NamedTextColor.NAMES.key((NamedTextColor) color) :
+                color.asHexString());
+    }
+
+    /**
+     * Converts a (translated) component back to an Adventure component, the same way
+     * {@link AdvancedComponent#toBaseComponent()} converts it to BungeeCord components.
+     *
+     * @param component The component to convert.
+     * @return The Adventure component.
+     */
+    public static Object fromAdvancedComponent(AdvancedComponent component) {
+        return Component.text().append(toComponents(component, 0, component.getSegments().size())).build();
+    }
+
+    private static List<Component> toComponents(AdvancedComponent advancedComponent, int from, int to) {
+        val segments = advancedComponent.getSegments();
+        val list = new ArrayList<Component>();
+        var builder = new StringBuilder();
+        var style = Style.empty();
+        for (int i = from; i < to; i++) {
+            val segment = segments.get(i);
+            switch (segment.getKind()) {
+                case TEXT:
+                    builder.append(segment.getValue());
+                    break;
+                case FORMAT:
+                    if (builder.length() != 0) {
+                        list.add(Component.text(builder.toString(), style));
+                        builder = new StringBuilder();
+                        style = Style.empty().color(style.color());
+                    }
+                    style = applyFormat(style, segment.getFormat());
+                    break;
+                case CLICK_START:
+                case HOVER_START: {
+                    if (builder.length() != 0) {
+                        list.add(Component.text(builder.toString(), style));
+                        builder = new StringBuilder();
+                    }
+                    var eventStyle = style;
+                    if (segment.getKind() == AdvancedComponent.Kind.CLICK_START) {
+                        val action = ComponentUtils.decodeClickAction(segment.getAction());
+                        eventStyle = eventStyle.clickEvent(ClickEvent.clickEvent(ClickEvent.Action
+                                .valueOf(action.name()), advancedComponent.getComponent(segment.getId())));
+                    } else {
+                        // The hover event is null if it was removed by a disabled line
+                        val hoverEvent = advancedComponent.getHovers().get(segment.getId());
+                        if (hoverEvent != null)
+                            eventStyle = eventStyle.hoverEvent(AdventureComponentWrapper.fromMd5HoverEvent(hoverEvent));
+                    }
+                    val end = advancedComponent.findEnd(i, to);
+                    list.add(Component.text().style(eventStyle).append(toComponents(advancedComponent, i + 1, end))
+                            .build());
+                    i = end;
+                    break;
+                }
+                case TRANSLATABLE: {
+                    if (builder.length() != 0) {
+                        list.add(Component.text(builder.toString(), style));
+                        builder = new StringBuilder();
+                    }
+                    val args = new ArrayList<Component>();
+                    val argsAdvanced = advancedComponent.getTranslatableArguments(segment.getId());
+                    if (argsAdvanced != null)
+                        for (val arg : argsAdvanced)
+                            args.add((Component) fromAdvancedComponent(arg));
+                    list.add(Component.translatable().key(segment.getValue()).style(style).args(args).build());
+                    break;
+                }
+                default:
+                    // An end without a start is just text
+                    builder.append(segment.getRaw());
+            }
+        }
+        if (builder.length() != 0)
+            list.add(Component.text(builder.toString(), style));
+        return list;
+    }
+
+    private static Style applyFormat(Style style, ChatColor format) {
+        for (int i = 0; i < DECORATION_FORMATS.length; i++)
+            if (DECORATION_FORMATS[i].equals(format))
+                return style.decoration(DECORATIONS[i], TextDecoration.State.TRUE);
+        if (ChatColor.RESET.equals(format))
+            return Style.empty();
+        return style.color(AdventureComponentWrapper.toTextColor(format));
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.rexcantor64.triton.language.parser;
+
+import com.rexcantor64.triton.api.config.FeatureSyntax;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-pass tokenizer for Triton's placeholder syntax (e.g. <code>[lang]key[args][arg]...[/arg][/args][/lang]</code>).
+ * <p>
+ * The input is scanned once and the placeholders are returned as a tree of offsets into the original string,
+ * so no substrings are created while tokenizing. Arguments are tokenized as well, since they might contain
+ * nested placeholders.
+ */
+public class PlaceholderTokenizer {
+
+    private final String input;
+    private final String lang;
+    private final String args;
+    private final String arg;
+
+    private PlaceholderTokenizer(String input, FeatureSyntax syntax) {
+        this.input = input;
+        this.lang = syntax.getLang();
+        this.args = syntax.getArgs();
+        this.arg = syntax.getArg();
+    }
+
+    /**
+     * Finds all the top level placeholders in the given input.
+     *
+     * @param input  The input to tokenize.
+     * @param syntax The syntax of the placeholders.
+     * @return The top level placeholders, ordered by their position in the input.
+     */
+    public static List<Placeholder> tokenize(String input, FeatureSyntax syntax) {
+        if (input == null || input.indexOf('[') == -1) return Collections.emptyList();
+        return new PlaceholderTokenizer(input, syntax).tokenize(0, input.length());
+    }
+
+    private List<Placeholder> tokenize(int from, int to) {
+        List<Placeholder> result = null;
+        int i = from;
+        while (i < to) {
+            int open = indexOfOpeningTag(lang, i, to);
+            if (open == -1) break;
+            int contentStart = open + lang.length() + 2;
+            int close = indexOfClosingTag(lang, contentStart, to);
+            if (close == -1) break;
+            i = close + lang.length() + 3;
+            // Empty placeholders are ignored
+            if (contentStart == close) continue;
+
+            if (result == null) result = new ArrayList<>();
+            result.add(tokenizePlaceholder(open, contentStart, close, i));
+        }
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    private Placeholder tokenizePlaceholder(int start, int contentStart, int contentEnd, int end) {
+        int i = contentStart;
+        while (i < contentEnd) {
+            int open = indexOfOpeningTag(args, i, contentEnd);
+            if (open == -1) break;
+            int argsStart = open + args.length() + 2;
+            int close = indexOfClosingTag(args, argsStart, contentEnd);
+            if (close == -1) break;
+            i = close + args.length() + 3;
+            // Empty argument lists are ignored
+            if (argsStart == close) continue;
+
+            return new Placeholder(start, end, contentStart, open, tokenizeArguments(argsStart, close));
+        }
+        return new Placeholder(start, end, contentStart, contentEnd, Collections.emptyList());
+    }
+
+    private List<Argument> tokenizeArguments(int from, int to) {
+        List<Argument> result = new ArrayList<>();
+        int i = from;
+        while (i < to) {
+            int open = indexOfOpeningTag(arg, i, to);
+            if (open == -1) break;
+            int argStart = open + arg.length() + 2;
+            int close = indexOfClosingTag(arg, argStart, to);
+            if (close == -1) break;
+            i = close + arg.length() + 3;
+
+            result.add(new Argument(argStart, close, tokenize(argStart, close)));
+        }
+        return result;
+    }
+
+    /**
+     * Get the index of the next opening tag (e.g. <code>[lang]</code>) in the range [from, to).
+     */
+    private int indexOfOpeningTag(String tag, int from, int to) {
+        int last = to - tag.length() - 2;
+        for (int i = input.indexOf('[', from); i != -1 && i <= last; i = input.indexOf('[', i + 1))
+            if (isOpeningTag(tag, i)) return i;
+        return -1;
+    }
+
+    /**
+     * Get the index of the closing tag (e.g. <code>[/lang]</code>) that matches an already opened tag,
+     * while taking nested tags into account.
+     */
+    private int indexOfClosingTag(String tag, int from, int to) {
+        int depth = 1;
+        int last = to - tag.length() - 2;
+        for (int i = input.indexOf('[', from); i != -1 && i <= last; i = input.indexOf('[', i + 1)) {
+            if (isOpeningTag(tag, i)) {
+                depth++;
+                i += tag.length() + 1;
+            } else if (i < last && isClosingTag(tag, i)) {
+                if (--depth == 0) return i;
+                i += tag.length() + 2;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isOpeningTag(String tag, int i) {
+        return input.startsWith(tag, i + 1) && input.charAt(i + tag.length() + 1) == ']';
+    }
+
+    private boolean isClosingTag(String tag, int i) {
+        return input.charAt(i + 1) == '/' && input.startsWith(tag, i + 2) && input.charAt(i + tag.length() + 2) == ']';
+    }
+
+    /**
+     * A placeholder found in the input. All the positions refer to the original input.
+     */
+    public static class Placeholder {
+        private final int start;
+        private final int end;
+        private final int keyStart;
+        private final int keyEnd;
+        private final List<Argument> arguments;
+
+        private Placeholder(int start, int end, int keyStart, int keyEnd, List<Argument> arguments) {
+            this.start = start;
+            this.end = end;
+            this.keyStart = keyStart;
+            this.keyEnd = keyEnd;
+            this.arguments = arguments;
+        }
+
+        /**
+         * @return The index of the first character of the opening tag.
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return The index after the last character of the closing tag.
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        public int getKeyStart() {
+            return keyStart;
+        }
+
+        public int getKeyEnd() {
+            return keyEnd;
+        }
+
+        public List<Argument> getArguments() {
+            return arguments;
+        }
+    }
+
+    /**
+     * An argument of a placeholder, which can contain placeholders itself.
+     */
+    public static class Argument {
+        private final int start;
+        private final int end;
+        private final List<Placeholder> placeholders;
+
+        private Argument(int start, int end, List<Placeholder> placeholders) {
+            this.start = start;
+            this.end = end;
+            this.placeholders = placeholders;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public List<Placeholder> getPlaceholders() {
+            return placeholders;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.rexcantor64.triton.language.pattern;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * An Aho-Corasick automaton, which finds which of a set of literals occur in a text
+ * in a single pass over the text.
+ * Each literal is associated with an id, and multiple literals can share the same id.
+ */
+final class AhoCorasick {
+
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * For each state, its outgoing chars (sorted) and the states they lead to.
+     */
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    /**
+     * For each state, the ids of all the literals that end at it, including through failure links.
+     */
+    private final int[][] outputs;
+
+    private AhoCorasick(char[][] keys, int[][] targets, int[] failure, int[][] outputs) {
+        this.keys = keys;
+        this.targets = targets;
+        this.failure = failure;
+        this.outputs = outputs;
+    }
+
+    /**
+     * @param literals The literals to look for. Must not be empty strings.
+     * @param ids      The id of each literal.
+     * @return The automaton.
+     */
+    static AhoCorasick build(List<String> literals, int[] ids) {
+        List<StringBuilder> trieKeys = new ArrayList<>();
+        List<List<Integer>> trieTargets = new ArrayList<>();
+        List<int[]> trieOutputs = new ArrayList<>();
+        trieKeys.add(new StringBuilder());
+        trieTargets.add(new ArrayList<>());
+        trieOutputs.add(NO_IDS);
+
+        for (int i = 0; i < literals.size(); i++) {
+            String literal = literals.get(i);
+            int state = 0;
+            for (int j = 0; j < literal.length(); j++) {
+                char c = literal.charAt(j);
+                int index = trieKeys.get(state).indexOf(String.valueOf(c));
+                if (index == -1) {
+                    trieKeys.get(state).append(c);
+                    trieTargets.get(state).add(trieKeys.size());
+                    trieKeys.add(new StringBuilder());
+                    trieTargets.add(new ArrayList<>());
+                    trieOutputs.add(NO_IDS);
+                    state = trieKeys.size() - 1;
+                } else {
+                    state = trieTargets.get(state).get(index);
+                }
+            }
+            trieOutputs.set(state, append(trieOutputs.get(state), ids[i]));
+        }
+
+        int size = trieKeys.size();
+        char[][] keys = new char[size][];
+        int[][] targets = new int[size][];
+        for (int state = 0; state < size; state++) {
+            String stateKeys = trieKeys.get(state).toString();
+            List<Integer> stateTargets = trieTargets.get(state);
+            Integer[] order = new Integer[stateKeys.length()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Character.compare(stateKeys.charAt(a), stateKeys.charAt(b)));
+
+            keys[state] = new char[order.length];
+            targets[state] = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[state][i] = stateKeys.charAt(order[i]);
+                targets[state][i] = stateTargets.get(order[i]);
+            }
+        }
+
+        // Compute failure links breadth-first, so the failure state of a node is always computed before it
+        int[] failure = new int[size];
+        int[][] outputs = trieOutputs.toArray(new int[0][]);
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int target : targets[0]) queue.add(target);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < keys[state].length; i++) {
+                char c = keys[state][i];
+                int target = targets[state][i];
+                int fallback = failure[state];
+                while (fallback != 0 && transition(keys, targets, fallback, c) == -1)
+                    fallback = failure[fallback];
+                int next = transition(keys, targets, fallback, c);
+                failure[target] = next == -1 || next == target ? 0 : next;
+                for (int id : outputs[failure[target]])
+                    outputs[target] = append(outputs[target], id);
+                queue.add(target);
+            }
+        }
+        return new AhoCorasick(keys, targets, failure, outputs);
+    }
+
+    private static int transition(char[][] keys, int[][] targets, int state, char c) {
+        int index = Arrays.binarySearch(keys[state], c);
+        return index < 0 ? -1 : targets[state][index];
+    }
+
+    private static int[] append(int[] array, int value) {
+        for (int existing : array)
+            if (existing == value) return array;
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int target = transition(keys, targets, state, c);
+            if (target != -1) return target;
+            if (state == 0) return 0;
+            state = failure[state];
+        }
+    }
+
+    /**
+     * Find the ids of all the literals that occur in the given text.
+     *
+     * @param text   The text to search.
+     * @param result Where to set the found ids.
+     */
+    void search(CharSequence text, BitSet result) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int id : outputs[state])
+                result.set(id);
+        }
+    }
+
+    /**
+     * @param text The text to search.
+     * @return Whether any of the literals occurs in the given text.
+     */
+    boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (outputs[state].length != 0) return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.rexcantor64.triton.language.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable set of chars, stored as sorted and non-overlapping inclusive ranges.
+ */
+final class CharSet {
+
+    static final CharSet EMPTY = new CharSet(new char[0]);
+    static final CharSet DIGIT = range('0', '9');
+    static final CharSet WORD = range('a', 'z').union(range('A', 'Z')).union(range('0', '9')).union(of('_'));
+    static final CharSet SPACE = of(' ').union(range('\t', '\r'));
+    static final CharSet LINE_TERMINATOR = of('\n').union(of('\r')).union(of('\u0085'))
+            .union(range('\u2028', '\u2029'));
+    /**
+     * What a dot matches, when {@link java.util.regex.Pattern#DOTALL} is not set.
+     */
+    static final CharSet DOT = LINE_TERMINATOR.complement();
+
+    /**
+     * Pairs of (low, high) inclusive bounds.
+     */
+    private final char[] ranges;
+
+    private CharSet(char[] ranges) {
+        this.ranges = ranges;
+    }
+
+    static CharSet of(char c) {
+        return new CharSet(new char[]{c, c});
+    }
+
+    static CharSet range(char low, char high) {
+        return new CharSet(new char[]{low, high});
+    }
+
+    boolean contains(char c) {
+        // Find the last range that starts at or before c
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ranges[mid * 2] <= c) {
+                if (c <= ranges[mid * 2 + 1]) return true;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    CharSet union(CharSet other) {
+        char[] all = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, all, ranges.length, other.ranges.length);
+
+        Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Character.compare(all[a * 2], all[b * 2]));
+
+        List<Character> merged = new ArrayList<>();
+        for (int i : order) {
+            char low = all[i * 2];
+            char high = all[i * 2 + 1];
+            int last = merged.size() - 1;
+            if (last > 0 && low <= merged.get(last) + 1) {
+                if (high > merged.get(last)) merged.set(last, high);
+            } else {
+                merged.add(low);
+                merged.add(high);
+            }
+        }
+
+        char[] result = new char[merged.size()];
+        for (int i = 0; i < result.length; i++) result[i] = merged.get(i);
+        return new CharSet(result);
+    }
+
+    CharSet complement() {
+        char[] result = new char[ranges.length + 2];
+        int size = 0;
+        int next = Character.MIN_VALUE;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[size++] = (char) next;
+                result[size++] = (char) (ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_VALUE) {
+            result[size++] = (char) next;
+            result[size++] = Character.MAX_VALUE;
+        }
+        return new CharSet(Arrays.copyOf(result, size));
+    }
+
+    /**
+     * @return The only char in this set, or -1 if this set has zero or multiple chars.
+     */
+    int singleChar() {
+        if (ranges.length == 2 && ranges[0] == ranges[1]) return ranges[0];
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CharSet && Arrays.equals(ranges, ((CharSet) o).ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.rexcantor64.triton.language.pattern;
+
+/**
+ * Wraps a string given to {@link java.util.regex.Matcher}, aborting the match once a deadline has passed.
+ * Since a backtracking match keeps reading the input, checking the time on reads is enough to interrupt it.
+ */
+final class DeadlineCharSequence implements CharSequence {
+
+    /**
+     * How many reads to do between checking the deadline.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final String text;
+    private final long deadline;
+    private int reads = 0;
+
+    DeadlineCharSequence(String text, long deadline) {
+        this.text = text;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (++reads % CHECK_INTERVAL == 0)
+            PatternTimeoutException.check(deadline);
+        return text.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.rexcantor64.triton.language.pattern;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Quickly rules out regular expressions that can't match a text.
+ * <p>
+ * For each regex, a set of literals is extracted such that every match of the regex contains at least one of them.
+ * All the literals are then searched for at once, with a single pass over the text.
+ * Regexes for which no literals could be extracted are always considered a possible match.
+ * <p>
+ * Patterns are matched against text with formatting codes (e.g. {@code §e}), but the prefilter is also used on
+ * plain text, where those are missing. So only the parts of the literals without formatting codes are searched for.
+ */
+public class LiteralPrefilter {
+
+    private static final Gson GSON = new Gson();
+    private static final LiteralPrefilter EMPTY = build(Collections.emptyList());
+
+    private final int size;
+    private final BitSet alwaysCandidates;
+    private final AhoCorasick automaton;
+    private final AhoCorasick jsonAutomaton;
+
+    private LiteralPrefilter(int size, BitSet alwaysCandidates, AhoCorasick automaton, AhoCorasick jsonAutomaton) {
+        this.size = size;
+        this.alwaysCandidates = alwaysCandidates;
+        this.automaton = automaton;
+        this.jsonAutomaton = jsonAutomaton;
+    }
+
+    /**
+     * @return A prefilter that never matches anything.
+     */
+    public static LiteralPrefilter empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a prefilter for the given regular expressions.
+     * The index of each regex in the list is used to identify it in {@link #candidates(String)}.
+     *
+     * @param regexes The regexes, as given to {@link java.util.regex.Pattern#compile(String)}.
+     * @return The prefilter.
+     */
+    public static LiteralPrefilter build(List<String> regexes) {
+        BitSet alwaysCandidates = new BitSet();
+        List<String> literals = new ArrayList<>();
+        List<String> jsonLiterals = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < regexes.size(); i++) {
+            List<String> regexLiterals = RequiredLiterals.of(regexes.get(i));
+            if (regexLiterals != null && mightContainFormattingCodes(regexes.get(i)))
+                regexLiterals = withoutFormattingCodes(regexLiterals);
+            if (regexLiterals == null) {
+                alwaysCandidates.set(i);
+                continue;
+            }
+            for (String literal : regexLiterals) {
+                literals.add(literal);
+                jsonLiterals.add(escapeJson(literal));
+                ids.add(i);
+            }
+        }
+
+        int[] idArray = ids.stream().mapToInt(Integer::intValue).toArray();
+        return new LiteralPrefilter(regexes.size(), alwaysCandidates, AhoCorasick.build(literals, idArray),
+                AhoCorasick.build(jsonLiterals, idArray));
+    }
+
+    private static boolean mightContainFormattingCodes(String regex) {
+        String lowerCase = regex.toLowerCase(Locale.ROOT);
+        return regex.indexOf('\u00A7') != -1 || lowerCase.contains("\\u00a7") || lowerCase.contains("\\xa7") ||
+                lowerCase.contains("a7}") || lowerCase.contains("\\0247");
+    }
+
+    /**
+     * Replace each literal with its longest part that doesn't touch a formatting code, which is present
+     * both in the text with formatting codes and in the plain text.
+     *
+     * @param literals The literals required by a regex.
+     * @return The new literals, or null if one of them is made of formatting codes only.
+     */
+    static List<String> withoutFormattingCodes(List<String> literals) {
+        List<String> result = new ArrayList<>(literals.size());
+        for (String literal : literals) {
+            // The first character might be the code of a '§' outside the literal (e.g. in "[§&]e")
+            int start = literal.isEmpty() || literal.charAt(0) == '\u00A7' ? 0 : 1;
+            String longest = "";
+            for (int i = start; i <= literal.length(); i++) {
+                if (i < literal.length() && literal.charAt(i) != '\u00A7') continue;
+                if (i - start > longest.length()) longest = literal.substring(start, i);
+                start = i + 2;
+                i++;
+            }
+            if (longest.isEmpty()) return null;
+            result.add(longest);
+        }
+        return result;
+    }
+
+    /**
+     * @param text The text to check.
+     * @return The indexes of the regexes that might match the text.
+     */
+    public BitSet candidates(String text) {
+        BitSet result = (BitSet) alwaysCandidates.clone();
+        if (result.cardinality() != size)
+            automaton.search(text, result);
+        return result;
+    }
+
+    /**
+     * @param text The text to check.
+     * @return False if none of the regexes can match the text.
+     */
+    public boolean mightMatch(String text) {
+        return !alwaysCandidates.isEmpty() || automaton.containsAny(text);
+    }
+
+    /**
+     * Same as {@link #mightMatch(String)}, but looks for the literals in a JSON document instead,
+     * where they might have been escaped.
+     *
+     * @param json The JSON document to check.
+     * @return False if none of the regexes can match any string in the JSON document.
+     */
+    public boolean mightMatchJson(String json) {
+        return !alwaysCandidates.isEmpty() || jsonAutomaton.containsAny(json);
+    }
+
+    /**
+     * Escape a string the same way Gson (and therefore the chat component serializer) does.
+     *
+     * @param text The string to escape.
+     * @return The escaped string, without the surrounding quotes.
+     */
+    public static String escapeJson(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\' || c == '<' || c == '>' || c == '&' || c == '=' || c == '\'' ||
+                    c == '\u2028' || c == '\u2029') {
+                String json = GSON.toJson(text);
+                return json.substring(1, json.length() - 1);
+            }
+        }
+        return text;
+    }
+
+}
@@ -0,0 +1,312 @@
+package com.rexcantor64.triton.language.pattern;
+
+import com.rexcantor64.triton.Triton;
+import com.rexcantor64.triton.language.item.LanguageText;
+import lombok.val;
+import net.md_5.bungee.api.ChatColor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The pattern translations (i.e. {@link LanguageText#getPatterns()}), ready to be applied to messages.
+ * <p>
+ * Patterns are applied in the order they were added. A {@link LiteralPrefilter} is used to only run
+ * the patterns that might match the message.
+ * <p>
+ * Patterns can be matched by {@link java.util.regex.Pattern} or by {@link PikeVm}, which runs in linear time.
+ * In both cases, each pattern can be given a time budget to match a message, measured as explained in
+ * {@link PatternTimeoutException}. A pattern that exceeds it leaves the message untouched, and is disabled
+ * until the next reload if that happens repeatedly.
+ */
+public class PatternIndex {
+
+    private static final PatternIndex EMPTY = new PatternIndex(Collections.emptyList(), null, 0);
+    /**
+     * How many times a pattern can exceed its time budget within {@link #OVERRUN_WINDOW_NANOS}
+     * before it's disabled.
+     */
+    private static final int MAX_OVERRUNS = 3;
+    private static final long OVERRUN_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Entry> entries;
+    private final LiteralPrefilter prefilter;
+    private final String mainLanguage;
+    private final long timeBudgetNanos;
+
+    private PatternIndex(List<Entry> entries, String mainLanguage, long timeBudgetNanos) {
+        this.entries = entries;
+        this.mainLanguage = mainLanguage;
+        this.timeBudgetNanos = timeBudgetNanos;
+        val regexes = new ArrayList<String>(entries.size());
+        for (val entry : entries)
+            regexes.add(entry.pattern.pattern());
+        this.prefilter = entries.isEmpty() ? LiteralPrefilter.empty() : LiteralPrefilter.build(regexes);
+    }
+
+    /**
+     * @return An index without any patterns.
+     */
+    public static PatternIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Apply the pattern translations, in order, to the given input.
+     * Patterns see the result of the patterns before them.
+     *
+     * @param input    The input to translate.
+     * @param language The name of the language to translate to.
+     * @return The translated input.
+     */
+    public String apply(String input, String language) {
+        if (entries.isEmpty()) return input;
+
+        BitSet candidates = prefilter.candidates(input);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            val entry = entries.get(i);
+            if (entry.disabled) continue;
+            val replacement = entry.getReplacement(language, mainLanguage);
+            if (replacement == null) continue;
+
+            final String result;
+            try {
+                result = entry.replaceAll(input, replacement, PatternTimeoutException.deadline(timeBudgetNanos));
+            } catch (PatternTimeoutException e) {
+                entry.recordOverrun(timeBudgetNanos);
+                continue;
+            } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                Triton.get().getLogger().logError(
+                        "Failed to translate using patterns: translation has more placeholders than regex groups. Translation key: %1",
+                        entry.item.getKey());
+                continue;
+            }
+            if (result.equals(input)) continue;
+            input = result;
+
+            // The input changed, so patterns that were ruled out before might match now
+            val next = prefilter.candidates(input);
+            next.clear(0, i + 1);
+            candidates = next;
+        }
+        return input;
+    }
+
+    /**
+     * @return The prefilter for the patterns in this index.
+     */
+    public LiteralPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Collects pattern translations, compiling and validating them as they are added.
+     */
+    public static class Builder {
+        private final List<Entry> entries = new ArrayList<>();
+        private final String mainLanguage;
+        private final boolean linearEngine;
+        private final long timeBudgetNanos;
+
+        /**
+         * @param mainLanguage     The name of the language to fallback to, if a translation doesn't have a language.
+         * @param linearEngine     Whether to match patterns in linear time, whenever possible.
+         * @param timeBudgetMillis How long each pattern can take to match a message, or 0 for no limit.
+         */
+        public Builder(String mainLanguage, boolean linearEngine, int timeBudgetMillis) {
+            this.mainLanguage = mainLanguage;
+            this.linearEngine = linearEngine;
+            this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeBudgetMillis));
+        }
+
+        /**
+         * Add all the patterns of a text item.
+         * {@link LanguageText#generateRegexStrings()} must have been called on the item.
+         *
+         * @param item The item to add.
+         */
+        public void add(LanguageText item) {
+            add(compile(item));
+        }
+
+        /**
+         * Add patterns that were compiled before, possibly by a builder of a previous index
+         * with the same settings. They start enabled, even if they were disabled in that index.
+         *
+         * @param patterns The compiled patterns to add.
+         */
+        public void add(CompiledPatterns patterns) {
+            for (val entry : patterns.entries)
+                entries.add(new Entry(entry.pattern, entry.vm, entry.item, entry.replacements));
+        }
+
+        /**
+         * Compile and validate all the patterns of a text item, without adding them.
+         * {@link LanguageText#generateRegexStrings()} must have been called on the item.
+         *
+         * @param item The item to compile.
+         * @return The compiled patterns, which can be added to this builder or to another one with the same settings.
+         */
+        public CompiledPatterns compile(LanguageText item) {
+            val entries = new ArrayList<Entry>();
+            if (item.getPatterns() == null) return new CompiledPatterns(entries);
+            for (val regex : item.getPatterns()) {
+                final Pattern pattern;
+                try {
+                    pattern = Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    Triton.get().getLogger()
+                            .logError("Invalid pattern '%1' on translation %2: %3", regex, item.getKey(),
+                                    e.getDescription());
+                    continue;
+                }
+                val groupCount = pattern.matcher("").groupCount();
+
+                PikeVm vm = null;
+                if (linearEngine) {
+                    try {
+                        vm = PikeVm.compile(regex);
+                    } catch (RegexParser.UnsupportedRegexException e) {
+                        Triton.get().getLogger()
+                                .logWarning(1, "Pattern '%1' on translation %2 can't be matched in linear time, " +
+                                        "so it will use the default engine: %3", regex, item.getKey(), e.getMessage());
+                    }
+                }
+
+                val replacements = new HashMap<String, String>();
+                if (item.getLanguages() != null) {
+                    for (val language : item.getLanguages().keySet()) {
+                        val replacement = item.getMessageRegex(language);
+                        if (replacement == null) continue;
+                        if (!isValidReplacement(replacement, groupCount)) {
+                            Triton.get().getLogger().logError(
+                                    "Failed to translate using patterns: translation has more placeholders than regex groups. Translation key: %1",
+                                    item.getKey());
+                            continue;
+                        }
+                        replacements.put(language, ChatColor.translateAlternateColorCodes('&', replacement));
+                    }
+                }
+                entries.add(new Entry(pattern, vm, item, replacements));
+            }
+            return new CompiledPatterns(entries);
+        }
+
+        public PatternIndex build() {
+            if (entries.isEmpty()) return EMPTY;
+            return new PatternIndex(new ArrayList<>(entries), mainLanguage, timeBudgetNanos);
+        }
+
+        /**
+         * Checks if all the group references in a replacement refer to existing groups,
+         * so it can't fail when applied.
+         */
+        private static boolean isValidReplacement(String replacement, int groupCount) {
+            for (int i = 0; i < replacement.length(); i++) {
+                char c = replacement.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '$') {
+                    if (i + 1 >= replacement.length()) return false;
+                    char group = replacement.charAt(i + 1);
+                    if (group < '0' || group > '9' || group - '0' > groupCount) return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The patterns of one or more text items, compiled by {@link Builder#compile(LanguageText)}.
+     */
+    public static class CompiledPatterns {
+        private final List<Entry> entries;
+
+        private CompiledPatterns(List<Entry> entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * Appends the given patterns to these ones.
+         *
+         * @param other The patterns to append.
+         */
+        public void addAll(CompiledPatterns other) {
+            entries.addAll(other.entries);
+        }
+
+        public static CompiledPatterns empty() {
+            return new CompiledPatterns(new ArrayList<>());
+        }
+    }
+
+    private static class Entry {
+        private final Pattern pattern;
+        /**
+         * The linear time version of the pattern, or null if it should be matched with {@link #pattern}.
+         */
+        private final PikeVm vm;
+        private final LanguageText item;
+        /**
+         * The replacements of each language, with colors already translated.
+         */
+        private final Map<String, String> replacements;
+        private volatile boolean disabled = false;
+        private int overruns = 0;
+        private long overrunWindowStart;
+
+        private Entry(Pattern pattern, PikeVm vm, LanguageText item, Map<String, String> replacements) {
+            this.pattern = pattern;
+            this.vm = vm;
+            this.item = item;
+            this.replacements = replacements;
+        }
+
+        private String replaceAll(String input, String replacement, long deadline) {
+            if (vm != null) return vm.replaceAll(input, replacement, deadline);
+            if (deadline == PatternTimeoutException.NO_DEADLINE) return pattern.matcher(input).replaceAll(replacement);
+            return pattern.matcher(new DeadlineCharSequence(input, deadline)).replaceAll(replacement);
+        }
+
+        /**
+         * Called when the pattern exceeded its time budget. Disables the pattern if it happened too often recently.
+         */
+        private synchronized void recordOverrun(long timeBudgetNanos) {
+            if (disabled) return;
+            val now = System.nanoTime();
+            if (overruns == 0 || now - overrunWindowStart > OVERRUN_WINDOW_NANOS) {
+                overruns = 0;
+                overrunWindowStart = now;
+            }
+            if (++overruns < MAX_OVERRUNS) {
+                Triton.get().getLogger().logWarning(1, "Pattern '%1' on translation %2 took more than %3ms to " +
+                                "match a message, so it wasn't applied to it.", pattern.pattern(), item.getKey(),
+                        TimeUnit.NANOSECONDS.toMillis(timeBudgetNanos));
+                return;
+            }
+            disabled = true;
+            Triton.get().getLogger().logError("Pattern '%1' on translation %2 took more than %3ms to match a message " +
+                            "%4 times within a minute and has been disabled until the next reload. " +
+                            "Consider simplifying it.", pattern.pattern(), item.getKey(),
+                    TimeUnit.NANOSECONDS.toMillis(timeBudgetNanos), overruns);
+        }
+
+        private String getReplacement(String language, String mainLanguage) {
+            val replacement = replacements.get(language);
+            if (replacement != null || mainLanguage == null) return replacement;
+            return replacements.get(mainLanguage);
+        }
+    }
+
+}
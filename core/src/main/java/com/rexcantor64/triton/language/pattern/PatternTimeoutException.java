@@ -0,0 +1,68 @@
+package com.rexcantor64.triton.language.pattern;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Thrown when matching a pattern takes longer than allowed.
+ * <p>
+ * Time is measured in CPU time of the current thread, when the JVM supports it, so that GC pauses and
+ * other threads using the CPU don't count against a pattern. Otherwise, wall clock time is used.
+ */
+class PatternTimeoutException extends RuntimeException {
+
+    /**
+     * A deadline that never passes.
+     */
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+    /**
+     * How many times a time budget is multiplied when measuring wall clock time,
+     * since it also includes the time the thread wasn't running.
+     */
+    private static final int WALL_CLOCK_MARGIN = 4;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = isCpuTimeSupported();
+
+    PatternTimeoutException() {
+        // The stack trace is never used, so don't waste time filling it
+        super(null, null, false, false);
+    }
+
+    private static boolean isCpuTimeSupported() {
+        try {
+            if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) return false;
+            if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime() != -1;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The current time, in nanoseconds, on the clock used for deadlines.
+     * Only the difference between two values taken on the same thread is meaningful.
+     */
+    static long now() {
+        return CPU_TIME ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * @param budgetNanos The time budget, in nanoseconds of CPU time, or 0 for no limit.
+     * @return The deadline for a budget starting now, on the current thread, or {@link #NO_DEADLINE}.
+     */
+    static long deadline(long budgetNanos) {
+        if (budgetNanos <= 0) return NO_DEADLINE;
+        return now() + (CPU_TIME ? budgetNanos : budgetNanos * WALL_CLOCK_MARGIN);
+    }
+
+    /**
+     * @param deadline The deadline after which to throw, from {@link #deadline(long)}, or {@link #NO_DEADLINE}.
+     * @throws PatternTimeoutException If the deadline has passed.
+     */
+    static void check(long deadline) {
+        if (deadline != NO_DEADLINE && now() - deadline > 0)
+            throw new PatternTimeoutException();
+    }
+
+}
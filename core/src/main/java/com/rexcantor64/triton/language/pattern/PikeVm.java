@@ -0,0 +1,395 @@
+package com.rexcantor64.triton.language.pattern;
+
+import com.rexcantor64.triton.language.pattern.RegexNode.Alternation;
+import com.rexcantor64.triton.language.pattern.RegexNode.Assertion;
+import com.rexcantor64.triton.language.pattern.RegexNode.Chars;
+import com.rexcantor64.triton.language.pattern.RegexNode.Concat;
+import com.rexcantor64.triton.language.pattern.RegexNode.Group;
+import com.rexcantor64.triton.language.pattern.RegexNode.Repeat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A regex engine that simulates all the possible paths of the regex at once (a Pike VM),
+ * so matching always takes linear time in the length of the input, regardless of the regex.
+ * <p>
+ * Matches are the same as the ones found by {@link java.util.regex.Pattern} (leftmost, with the same
+ * preference between alternatives and quantifiers), except that:
+ * <ul>
+ *     <li>supplementary code points in the input are seen as two chars by dots and character classes;</li>
+ *     <li>repetitions of something that can match an empty string (e.g. <code>(a*)*</code>) don't follow
+ *     the backtracking engine's rules for empty iterations, so the matched groups might differ.</li>
+ * </ul>
+ */
+final class PikeVm {
+
+    /**
+     * Bigger programs (mostly caused by large counted repetitions) are left to {@link java.util.regex.Pattern}.
+     */
+    private static final int MAX_INSTRUCTIONS = 10000;
+    /**
+     * How many positions to advance between checking the deadline.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private static final int CHAR = 0;
+    private static final int SPLIT = 1;
+    private static final int JUMP = 2;
+    private static final int SAVE = 3;
+    private static final int ASSERT = 4;
+    private static final int MATCH = 5;
+
+    private final int[] ops;
+    /**
+     * The target of jumps, the preferred target of splits, or the slot of saves.
+     */
+    private final int[] args;
+    /**
+     * The other target of splits.
+     */
+    private final int[] altArgs;
+    private final CharSet[] sets;
+    private final Assertion.Kind[] assertions;
+    private final int groupCount;
+
+    private PikeVm(Compiler compiler) {
+        int size = compiler.ops.size();
+        this.ops = new int[size];
+        this.args = new int[size];
+        this.altArgs = new int[size];
+        this.sets = compiler.sets.toArray(new CharSet[0]);
+        this.assertions = compiler.assertions.toArray(new Assertion.Kind[0]);
+        for (int i = 0; i < size; i++) {
+            ops[i] = compiler.ops.get(i);
+            args[i] = compiler.args.get(i);
+            altArgs[i] = compiler.altArgs.get(i);
+        }
+        this.groupCount = compiler.groupCount;
+    }
+
+    /**
+     * @param regex The regex to compile.
+     * @return The compiled regex.
+     * @throws RegexParser.UnsupportedRegexException If the regex can't be run by this engine.
+     */
+    static PikeVm compile(String regex) throws RegexParser.UnsupportedRegexException {
+        Compiler compiler = new Compiler();
+        compiler.emit(SAVE, 0, 0, null, null);
+        compiler.compile(RegexParser.parse(regex));
+        compiler.emit(SAVE, 1, 0, null, null);
+        compiler.emit(MATCH, 0, 0, null, null);
+        return new PikeVm(compiler);
+    }
+
+    /**
+     * Replace all the matches in the input, with the same semantics as
+     * {@link java.util.regex.Matcher#replaceAll(String)}.
+     *
+     * @param input       The input.
+     * @param replacement The replacement, which can reference groups with <code>$n</code>.
+     * @param deadline    The {@link PatternTimeoutException#deadline(long) deadline} after which matching is aborted,
+     *                    or {@link PatternTimeoutException#NO_DEADLINE}.
+     * @return The input with the matches replaced, or the input itself if nothing matched.
+     * @throws PatternTimeoutException If the deadline is exceeded.
+     */
+    String replaceAll(String input, String replacement, long deadline) {
+        StringBuilder builder = null;
+        int appendPosition = 0;
+        int from = 0;
+        while (from <= input.length()) {
+            int[] match = find(input, from, deadline);
+            if (match == null) break;
+            if (builder == null) builder = new StringBuilder(input.length() + 16);
+            builder.append(input, appendPosition, match[0]);
+            appendReplacement(builder, replacement, input, match);
+            appendPosition = match[1];
+            // Empty matches can't happen twice at the same position
+            from = match[0] == match[1] ? match[1] + 1 : match[1];
+        }
+        if (builder == null) return input;
+        builder.append(input, appendPosition, input.length());
+        return builder.toString();
+    }
+
+    private void appendReplacement(StringBuilder builder, String replacement, String input, int[] match) {
+        for (int i = 0; i < replacement.length(); i++) {
+            char c = replacement.charAt(i);
+            if (c == '\\' && i + 1 < replacement.length()) {
+                builder.append(replacement.charAt(++i));
+            } else if (c == '$' && i + 1 < replacement.length() && Character.isDigit(replacement.charAt(i + 1))) {
+                // Same as Matcher: keep reading digits while they form an existing group number
+                int group = replacement.charAt(++i) - '0';
+                while (i + 1 < replacement.length() && Character.isDigit(replacement.charAt(i + 1))) {
+                    int next = group * 10 + (replacement.charAt(i + 1) - '0');
+                    if (next > groupCount) break;
+                    group = next;
+                    i++;
+                }
+                if (group > groupCount) throw new IndexOutOfBoundsException("No group " + group);
+                if (match[group * 2] != -1 && match[group * 2 + 1] != -1)
+                    builder.append(input, match[group * 2], match[group * 2 + 1]);
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * Find the leftmost match starting at or after the given position.
+     *
+     * @return The start and end of each group (-1 if the group didn't participate), or null if there is no match.
+     */
+    int[] find(String input, int from, long deadline) {
+        ThreadList current = new ThreadList(ops.length);
+        ThreadList next = new ThreadList(ops.length);
+        int[] matched = null;
+        int slots = (groupCount + 1) * 2;
+
+        for (int position = from; ; position++) {
+            if (matched == null) {
+                // The thread starting at this position has the lowest priority
+                int[] captures = new int[slots];
+                Arrays.fill(captures, -1);
+                addThread(current, 0, position, captures, input);
+            }
+            if (current.size == 0) {
+                if (matched != null || position >= input.length()) break;
+                current.clear();
+                continue;
+            }
+            if ((position - from) % DEADLINE_CHECK_INTERVAL == 0)
+                PatternTimeoutException.check(deadline);
+
+            for (int i = 0; i < current.size; i++) {
+                int pc = current.pcs[i];
+                int[] captures = current.captures[i];
+                if (ops[pc] == MATCH) {
+                    matched = captures;
+                    // Threads after this one have a lower priority
+                    break;
+                }
+                // Only CHAR instructions can be on the list
+                if (position < input.length() && sets[pc].contains(input.charAt(position)))
+                    addThread(next, pc + 1, position + 1, captures, input);
+            }
+
+            ThreadList swap = current;
+            current = next;
+            next = swap;
+            next.clear();
+            if (position >= input.length()) break;
+        }
+        return matched;
+    }
+
+    /**
+     * Follows all the instructions that don't consume input from the given one, adding the resulting
+     * threads to the list in priority order.
+     */
+    private void addThread(ThreadList list, int startPc, int position, int[] startCaptures, String input) {
+        int[] pcStack = new int[8];
+        int[][] capturesStack = new int[8][];
+        int stackSize = 0;
+        pcStack[stackSize] = startPc;
+        capturesStack[stackSize++] = startCaptures;
+
+        while (stackSize > 0) {
+            int pc = pcStack[--stackSize];
+            int[] captures = capturesStack[stackSize];
+            while (true) {
+                if (!list.mark(pc)) break;
+                int op = ops[pc];
+                if (op == JUMP) {
+                    pc = args[pc];
+                } else if (op == SPLIT) {
+                    if (stackSize == pcStack.length) {
+                        pcStack = Arrays.copyOf(pcStack, stackSize * 2);
+                        capturesStack = Arrays.copyOf(capturesStack, stackSize * 2);
+                    }
+                    pcStack[stackSize] = altArgs[pc];
+                    capturesStack[stackSize++] = captures;
+                    pc = args[pc];
+                } else if (op == SAVE) {
+                    captures = captures.clone();
+                    captures[args[pc]] = position;
+                    pc++;
+                } else if (op == ASSERT) {
+                    if (!matchesAssertion(assertions[pc], input, position)) break;
+                    pc++;
+                } else {
+                    list.add(pc, captures);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean matchesAssertion(Assertion.Kind kind, String input, int position) {
+        int length = input.length();
+        switch (kind) {
+            case BEGIN:
+                return position == 0;
+            case END:
+                return position == length;
+            case END_OR_FINAL_TERMINATOR:
+                if (position == length) return true;
+                if (position == length - 2)
+                    return input.charAt(position) == '\r' && input.charAt(position + 1) == '\n';
+                if (position == length - 1) {
+                    char c = input.charAt(position);
+                    if (c == '\n') return position == 0 || input.charAt(position - 1) != '\r';
+                    return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+                }
+                return false;
+            case WORD_BOUNDARY:
+            case NOT_WORD_BOUNDARY:
+                boolean before = position > 0 && isWord(input.charAt(position - 1));
+                boolean after = position < length && isWord(input.charAt(position));
+                return (before != after) == (kind == Assertion.Kind.WORD_BOUNDARY);
+        }
+        return false;
+    }
+
+    private static boolean isWord(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * An ordered set of threads, each one an instruction with its captures.
+     */
+    private static final class ThreadList {
+        private final int[] pcs;
+        private final int[][] captures;
+        /**
+         * The instructions already visited while filling this list.
+         */
+        private final boolean[] visited;
+        private int size = 0;
+
+        private ThreadList(int programSize) {
+            this.pcs = new int[programSize];
+            this.captures = new int[programSize][];
+            this.visited = new boolean[programSize];
+        }
+
+        /**
+         * @return False if the instruction was already visited.
+         */
+        private boolean mark(int pc) {
+            if (visited[pc]) return false;
+            visited[pc] = true;
+            return true;
+        }
+
+        private void add(int pc, int[] threadCaptures) {
+            pcs[size] = pc;
+            captures[size++] = threadCaptures;
+        }
+
+        private void clear() {
+            Arrays.fill(visited, false);
+            Arrays.fill(captures, 0, size, null);
+            size = 0;
+        }
+    }
+
+    private static final class Compiler {
+        private final List<Integer> ops = new ArrayList<>();
+        private final List<Integer> args = new ArrayList<>();
+        private final List<Integer> altArgs = new ArrayList<>();
+        private final List<CharSet> sets = new ArrayList<>();
+        private final List<Assertion.Kind> assertions = new ArrayList<>();
+        private int groupCount = 0;
+
+        private int emit(int op, int arg, int altArg, CharSet set, Assertion.Kind assertion)
+                throws RegexParser.UnsupportedRegexException {
+            if (ops.size() >= MAX_INSTRUCTIONS)
+                throw new RegexParser.UnsupportedRegexException("regex is too big");
+            ops.add(op);
+            args.add(arg);
+            altArgs.add(altArg);
+            sets.add(set);
+            assertions.add(assertion);
+            return ops.size() - 1;
+        }
+
+        private void patch(int instruction, int arg, int altArg) {
+            args.set(instruction, arg);
+            altArgs.set(instruction, altArg);
+        }
+
+        private int next() {
+            return ops.size();
+        }
+
+        private void compile(RegexNode node) throws RegexParser.UnsupportedRegexException {
+            if (node instanceof Chars) {
+                emit(CHAR, 0, 0, ((Chars) node).set, null);
+            } else if (node instanceof Assertion) {
+                emit(ASSERT, 0, 0, null, ((Assertion) node).kind);
+            } else if (node instanceof Concat) {
+                for (RegexNode child : ((Concat) node).nodes)
+                    compile(child);
+            } else if (node instanceof Group) {
+                Group group = (Group) node;
+                if (group.index == -1) {
+                    compile(group.node);
+                } else {
+                    groupCount = Math.max(groupCount, group.index);
+                    emit(SAVE, group.index * 2, 0, null, null);
+                    compile(group.node);
+                    emit(SAVE, group.index * 2 + 1, 0, null, null);
+                }
+            } else if (node instanceof Alternation) {
+                List<RegexNode> nodes = ((Alternation) node).nodes;
+                List<Integer> jumps = new ArrayList<>();
+                for (int i = 0; i < nodes.size(); i++) {
+                    if (i == nodes.size() - 1) {
+                        compile(nodes.get(i));
+                        break;
+                    }
+                    int split = emit(SPLIT, 0, 0, null, null);
+                    compile(nodes.get(i));
+                    jumps.add(emit(JUMP, 0, 0, null, null));
+                    patch(split, split + 1, next());
+                }
+                for (int jump : jumps)
+                    patch(jump, next(), 0);
+            } else if (node instanceof Repeat) {
+                compileRepeat((Repeat) node);
+            } else {
+                throw new RegexParser.UnsupportedRegexException("unknown node " + node);
+            }
+        }
+
+        private void compileRepeat(Repeat repeat) throws RegexParser.UnsupportedRegexException {
+            for (int i = 0; i < repeat.min; i++)
+                compile(repeat.node);
+
+            if (repeat.max == Repeat.UNBOUNDED) {
+                int split = emit(SPLIT, 0, 0, null, null);
+                compile(repeat.node);
+                emit(JUMP, split, 0, null, null);
+                patchSplit(split, split + 1, next(), repeat.greedy);
+                return;
+            }
+
+            // Each optional repetition is only tried if the previous one matched
+            List<Integer> splits = new ArrayList<>();
+            for (int i = repeat.min; i < repeat.max; i++) {
+                splits.add(emit(SPLIT, 0, 0, null, null));
+                compile(repeat.node);
+            }
+            for (int split : splits)
+                patchSplit(split, split + 1, next(), repeat.greedy);
+        }
+
+        private void patchSplit(int split, int body, int exit, boolean greedy) {
+            if (greedy) patch(split, body, exit);
+            else patch(split, exit, body);
+        }
+    }
+
+}
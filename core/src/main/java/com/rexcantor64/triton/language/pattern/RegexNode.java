@@ -0,0 +1,106 @@
+package com.rexcantor64.triton.language.pattern;
+
+import java.util.List;
+
+/**
+ * A node of the syntax tree of a regular expression, as parsed by {@link RegexParser}.
+ */
+abstract class RegexNode {
+
+    /**
+     * Matches a single char from a set.
+     */
+    static final class Chars extends RegexNode {
+        final CharSet set;
+
+        Chars(CharSet set) {
+            this.set = set;
+        }
+    }
+
+    /**
+     * Matches each of its nodes, one after the other.
+     */
+    static final class Concat extends RegexNode {
+        final List<RegexNode> nodes;
+
+        Concat(List<RegexNode> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Matches any of its nodes, preferring the first ones.
+     */
+    static final class Alternation extends RegexNode {
+        final List<RegexNode> nodes;
+
+        Alternation(List<RegexNode> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * A group, which might capture what its node matched.
+     */
+    static final class Group extends RegexNode {
+        final RegexNode node;
+        /**
+         * The number of the capturing group, or -1 if it's a non-capturing group.
+         */
+        final int index;
+
+        Group(RegexNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Matches its node between min and max times.
+     */
+    static final class Repeat extends RegexNode {
+        static final int UNBOUNDED = -1;
+
+        final RegexNode node;
+        final int min;
+        final int max;
+        final boolean greedy;
+
+        Repeat(RegexNode node, int min, int max, boolean greedy) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+    }
+
+    /**
+     * A zero-width assertion, such as <code>^</code> or <code>\b</code>.
+     */
+    static final class Assertion extends RegexNode {
+        final Kind kind;
+
+        Assertion(Kind kind) {
+            this.kind = kind;
+        }
+
+        enum Kind {
+            /**
+             * <code>^</code> or <code>\A</code>
+             */
+            BEGIN,
+            /**
+             * <code>$</code> or <code>\Z</code>, which also match before a final line terminator
+             */
+            END_OR_FINAL_TERMINATOR,
+            /**
+             * <code>\z</code>
+             */
+            END,
+            WORD_BOUNDARY,
+            NOT_WORD_BOUNDARY
+        }
+    }
+
+}
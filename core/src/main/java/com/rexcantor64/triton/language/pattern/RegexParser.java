@@ -0,0 +1,364 @@
+package com.rexcantor64.triton.language.pattern;
+
+import com.rexcantor64.triton.language.pattern.RegexNode.Alternation;
+import com.rexcantor64.triton.language.pattern.RegexNode.Assertion;
+import com.rexcantor64.triton.language.pattern.RegexNode.Chars;
+import com.rexcantor64.triton.language.pattern.RegexNode.Concat;
+import com.rexcantor64.triton.language.pattern.RegexNode.Group;
+import com.rexcantor64.triton.language.pattern.RegexNode.Repeat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the subset of {@link java.util.regex.Pattern}'s syntax that doesn't need backtracking
+ * into a {@link RegexNode} tree.
+ * <p>
+ * Supported: literals and escapes, character classes (without nesting or intersections), predefined classes,
+ * capturing, named and non-capturing groups, alternations, greedy and lazy quantifiers
+ * and the <code>^</code>, <code>$</code>, <code>\A</code>, <code>\z</code>, <code>\Z</code>,
+ * <code>\b</code> and <code>\B</code> assertions.
+ * Everything else (back references, lookarounds, possessive quantifiers, flags, Unicode properties, etc.)
+ * throws an {@link UnsupportedRegexException}.
+ * <p>
+ * The input is expected to already be a valid Java regex.
+ */
+final class RegexParser {
+
+    private final String regex;
+    private int position = 0;
+    private int groupCount = 0;
+
+    private RegexParser(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * @param regex The regex to parse.
+     * @return The root of the syntax tree.
+     * @throws UnsupportedRegexException If the regex uses a construct that is not supported.
+     */
+    static RegexNode parse(String regex) throws UnsupportedRegexException {
+        RegexParser parser = new RegexParser(regex);
+        RegexNode node = parser.parseAlternation();
+        if (parser.position != regex.length())
+            throw parser.unsupported("unexpected ')'");
+        return node;
+    }
+
+    private RegexNode parseAlternation() throws UnsupportedRegexException {
+        List<RegexNode> alternatives = new ArrayList<>();
+        alternatives.add(parseConcat());
+        while (position < regex.length() && regex.charAt(position) == '|') {
+            position++;
+            alternatives.add(parseConcat());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+    }
+
+    private RegexNode parseConcat() throws UnsupportedRegexException {
+        List<RegexNode> nodes = new ArrayList<>();
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == '|' || c == ')') break;
+            if (regex.startsWith("\\Q", position)) {
+                parseQuote(nodes);
+                continue;
+            }
+            nodes.add(parseQuantifier(parseAtom()));
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new Concat(nodes);
+    }
+
+    /**
+     * Parses a quoted sequence (<code>\Q...\E</code>), where a quantifier after the quote only applies
+     * to its last char.
+     */
+    private void parseQuote(List<RegexNode> nodes) throws UnsupportedRegexException {
+        int start = position + 2;
+        int end = regex.indexOf("\\E", start);
+        if (end == -1) end = regex.length();
+        position = Math.min(end + 2, regex.length());
+        if (start == end) return;
+
+        for (int i = start; i < end - 1; i++)
+            nodes.add(new Chars(CharSet.of(regex.charAt(i))));
+        nodes.add(parseQuantifier(new Chars(CharSet.of(regex.charAt(end - 1)))));
+    }
+
+    private RegexNode parseQuantifier(RegexNode atom) throws UnsupportedRegexException {
+        if (position >= regex.length()) return atom;
+
+        int min;
+        int max;
+        switch (regex.charAt(position)) {
+            case '?':
+                min = 0;
+                max = 1;
+                position++;
+                break;
+            case '*':
+                min = 0;
+                max = Repeat.UNBOUNDED;
+                position++;
+                break;
+            case '+':
+                min = 1;
+                max = Repeat.UNBOUNDED;
+                position++;
+                break;
+            case '{':
+                position++;
+                min = parseNumber();
+                max = min;
+                if (peek(',')) {
+                    position++;
+                    max = peek('}') ? Repeat.UNBOUNDED : parseNumber();
+                }
+                expect('}');
+                break;
+            default:
+                return atom;
+        }
+
+        boolean greedy = true;
+        if (peek('?')) {
+            greedy = false;
+            position++;
+        } else if (peek('+')) {
+            throw unsupported("possessive quantifiers");
+        }
+        return new Repeat(atom, min, max, greedy);
+    }
+
+    private RegexNode parseAtom() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+        switch (c) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new Chars(parseCharacterClass());
+            case '.':
+                return new Chars(CharSet.DOT);
+            case '^':
+                return new Assertion(Assertion.Kind.BEGIN);
+            case '$':
+                return new Assertion(Assertion.Kind.END_OR_FINAL_TERMINATOR);
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw unsupported("dangling quantifier");
+            default:
+                if (Character.isHighSurrogate(c) && position < regex.length() &&
+                        Character.isLowSurrogate(regex.charAt(position))) {
+                    // Quantifiers apply to the whole code point
+                    List<RegexNode> pair = new ArrayList<>();
+                    pair.add(new Chars(CharSet.of(c)));
+                    pair.add(new Chars(CharSet.of(regex.charAt(position++))));
+                    return new Concat(pair);
+                }
+                return new Chars(CharSet.of(c));
+        }
+    }
+
+    private RegexNode parseGroup() throws UnsupportedRegexException {
+        int index = -1;
+        if (peek('?')) {
+            position++;
+            if (peek(':')) {
+                position++;
+            } else if (peek('<') && position + 1 < regex.length() &&
+                    Character.isLetter(regex.charAt(position + 1))) {
+                int end = regex.indexOf('>', position);
+                if (end == -1) throw unsupported("unclosed group name");
+                position = end + 1;
+                index = ++groupCount;
+            } else {
+                throw unsupported("special groups");
+            }
+        } else {
+            index = ++groupCount;
+        }
+
+        RegexNode node = parseAlternation();
+        expect(')');
+        return new Group(node, index);
+    }
+
+    private RegexNode parseEscape() throws UnsupportedRegexException {
+        if (position >= regex.length()) throw unsupported("trailing backslash");
+        char c = regex.charAt(position++);
+        switch (c) {
+            case 'b':
+                return new Assertion(Assertion.Kind.WORD_BOUNDARY);
+            case 'B':
+                return new Assertion(Assertion.Kind.NOT_WORD_BOUNDARY);
+            case 'A':
+                return new Assertion(Assertion.Kind.BEGIN);
+            case 'Z':
+                return new Assertion(Assertion.Kind.END_OR_FINAL_TERMINATOR);
+            case 'z':
+                return new Assertion(Assertion.Kind.END);
+            default:
+                position--;
+                return new Chars(parseEscapedChars());
+        }
+    }
+
+    /**
+     * Parses an escape sequence that represents a char or a predefined class (after the backslash).
+     */
+    private CharSet parseEscapedChars() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+        switch (c) {
+            case 'd':
+                return CharSet.DIGIT;
+            case 'D':
+                return CharSet.DIGIT.complement();
+            case 'w':
+                return CharSet.WORD;
+            case 'W':
+                return CharSet.WORD.complement();
+            case 's':
+                return CharSet.SPACE;
+            case 'S':
+                return CharSet.SPACE.complement();
+            case 't':
+                return CharSet.of('\t');
+            case 'n':
+                return CharSet.of('\n');
+            case 'r':
+                return CharSet.of('\r');
+            case 'f':
+                return CharSet.of('\f');
+            case 'a':
+                return CharSet.of('\u0007');
+            case 'e':
+                return CharSet.of('\u001B');
+            case '0': {
+                int value = 0;
+                int digits = 0;
+                while (digits < 3 && position < regex.length() && regex.charAt(position) >= '0' &&
+                        regex.charAt(position) <= '7' && value * 8 + (regex.charAt(position) - '0') <= 0377) {
+                    value = value * 8 + (regex.charAt(position++) - '0');
+                    digits++;
+                }
+                if (digits == 0) throw unsupported("invalid octal escape");
+                return CharSet.of((char) value);
+            }
+            case 'x':
+                if (peek('{')) {
+                    int end = regex.indexOf('}', position);
+                    if (end == -1) throw unsupported("invalid hex escape");
+                    int value = parseHex(position + 1, end);
+                    position = end + 1;
+                    if (value > Character.MAX_VALUE) throw unsupported("supplementary code points");
+                    return CharSet.of((char) value);
+                }
+                position += 2;
+                return CharSet.of((char) parseHex(position - 2, position));
+            case 'u':
+                position += 4;
+                return CharSet.of((char) parseHex(position - 4, position));
+            case 'c':
+                if (position >= regex.length()) throw unsupported("invalid control escape");
+                return CharSet.of((char) (regex.charAt(position++) ^ 64));
+            default:
+                if (Character.isLetterOrDigit(c))
+                    throw unsupported("escape sequence \\" + c);
+                return CharSet.of(c);
+        }
+    }
+
+    private CharSet parseCharacterClass() throws UnsupportedRegexException {
+        boolean negated = false;
+        if (peek('^')) {
+            negated = true;
+            position++;
+        }
+        if (peek(']')) throw unsupported("empty character class");
+
+        CharSet set = CharSet.EMPTY;
+        while (true) {
+            if (position >= regex.length()) throw unsupported("unclosed character class");
+            char c = regex.charAt(position);
+            if (c == ']') {
+                position++;
+                break;
+            }
+            if (c == '[') throw unsupported("nested character classes");
+            if (c == '&' && position + 1 < regex.length() && regex.charAt(position + 1) == '&')
+                throw unsupported("character class intersections");
+
+            CharSet item = parseClassChar();
+            int low = item.singleChar();
+            // Ranges, unless the dash is the last char of the class
+            if (low != -1 && peek('-') && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                position++;
+                int high = parseClassChar().singleChar();
+                if (high == -1 || high < low) throw unsupported("invalid range");
+                item = CharSet.range((char) low, (char) high);
+            }
+            set = set.union(item);
+        }
+        return negated ? set.complement() : set;
+    }
+
+    private CharSet parseClassChar() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+        if (c == '\\') {
+            if (position >= regex.length()) throw unsupported("trailing backslash");
+            if (regex.charAt(position) == 'Q') throw unsupported("quotes inside character classes");
+            return parseEscapedChars();
+        }
+        if (Character.isSurrogate(c)) throw unsupported("supplementary code points");
+        return CharSet.of(c);
+    }
+
+    private int parseNumber() throws UnsupportedRegexException {
+        int start = position;
+        while (position < regex.length() && Character.isDigit(regex.charAt(position)))
+            position++;
+        if (start == position) throw unsupported("expected a number");
+        try {
+            return Integer.parseInt(regex.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw unsupported("number too large");
+        }
+    }
+
+    private int parseHex(int start, int end) throws UnsupportedRegexException {
+        if (end > regex.length() || start >= end) throw unsupported("invalid hex escape");
+        try {
+            return Integer.parseInt(regex.substring(start, end), 16);
+        } catch (NumberFormatException e) {
+            throw unsupported("invalid hex escape");
+        }
+    }
+
+    private boolean peek(char c) {
+        return position < regex.length() && regex.charAt(position) == c;
+    }
+
+    private void expect(char c) throws UnsupportedRegexException {
+        if (!peek(c)) throw unsupported("expected '" + c + "'");
+        position++;
+    }
+
+    private UnsupportedRegexException unsupported(String reason) {
+        return new UnsupportedRegexException(reason + " (at index " + position + " of " + regex + ")");
+    }
+
+    /**
+     * Thrown when a regex uses a construct that is not supported by the parser.
+     */
+    static class UnsupportedRegexException extends Exception {
+        UnsupportedRegexException(String message) {
+            super(message);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.rexcantor64.triton.language.pattern;
+
+import com.rexcantor64.triton.language.pattern.RegexNode.Alternation;
+import com.rexcantor64.triton.language.pattern.RegexNode.Assertion;
+import com.rexcantor64.triton.language.pattern.RegexNode.Chars;
+import com.rexcantor64.triton.language.pattern.RegexNode.Concat;
+import com.rexcantor64.triton.language.pattern.RegexNode.Group;
+import com.rexcantor64.triton.language.pattern.RegexNode.Repeat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds sets of literals such that every match of a regex contains at least one of them.
+ */
+final class RequiredLiterals {
+
+    /**
+     * Alternations with more literals than this aren't worth prefiltering.
+     */
+    private static final int MAX_LITERALS = 16;
+
+    private RequiredLiterals() {
+    }
+
+    /**
+     * @param regex The regex to analyse.
+     * @return The literals, one of which is present in every match of the regex,
+     * or null if the regex can match without any of them.
+     */
+    static List<String> of(String regex) {
+        try {
+            Set<String> literals = required(RegexParser.parse(regex));
+            return literals == null ? null : new ArrayList<>(literals);
+        } catch (RegexParser.UnsupportedRegexException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The only string the node can match, or null if it can match multiple strings.
+     */
+    private static String exact(RegexNode node) {
+        if (node instanceof Chars) {
+            int c = ((Chars) node).set.singleChar();
+            return c == -1 ? null : String.valueOf((char) c);
+        }
+        if (node instanceof Assertion) return "";
+        if (node instanceof Group) return exact(((Group) node).node);
+        if (node instanceof Concat) {
+            StringBuilder builder = new StringBuilder();
+            for (RegexNode child : ((Concat) node).nodes) {
+                String exact = exact(child);
+                if (exact == null) return null;
+                builder.append(exact);
+            }
+            return builder.toString();
+        }
+        if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            if (repeat.min != repeat.max) return null;
+            String exact = exact(repeat.node);
+            if (exact == null) return null;
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < repeat.min; i++) builder.append(exact);
+            return builder.toString();
+        }
+        return null;
+    }
+
+    private static Set<String> required(RegexNode node) {
+        String exact = exact(node);
+        if (exact != null) return exact.isEmpty() ? null : Collections.singleton(exact);
+
+        if (node instanceof Group) return required(((Group) node).node);
+        if (node instanceof Repeat) {
+            Repeat repeat = (Repeat) node;
+            return repeat.min == 0 ? null : required(repeat.node);
+        }
+        if (node instanceof Alternation) {
+            Set<String> result = new LinkedHashSet<>();
+            for (RegexNode child : ((Alternation) node).nodes) {
+                Set<String> literals = required(child);
+                if (literals == null) return null;
+                result.addAll(literals);
+                if (result.size() > MAX_LITERALS) return null;
+            }
+            return result;
+        }
+        if (node instanceof Concat) {
+            Set<String> best = null;
+            StringBuilder run = new StringBuilder();
+            for (RegexNode child : ((Concat) node).nodes) {
+                String childExact = exact(child);
+                if (childExact != null) {
+                    run.append(childExact);
+                    continue;
+                }
+
+                String repeated = repeatedExact(child);
+                if (repeated != null) {
+                    // The match has at least one repetition, so the run continues into the first one
+                    // and the next run starts with the last one
+                    run.append(repeated);
+                    best = better(best, run.length() == 0 ? null : Collections.singleton(run.toString()));
+                    run.setLength(0);
+                    run.append(repeated);
+                    continue;
+                }
+
+                best = better(best, run.length() == 0 ? null : Collections.singleton(run.toString()));
+                run.setLength(0);
+                best = better(best, required(child));
+            }
+            return better(best, run.length() == 0 ? null : Collections.singleton(run.toString()));
+        }
+        return null;
+    }
+
+    /**
+     * @return The string repeated by the node, if it's a repetition of an exact string at least once.
+     */
+    private static String repeatedExact(RegexNode node) {
+        if (node instanceof Group) return repeatedExact(((Group) node).node);
+        if (!(node instanceof Repeat)) return null;
+        Repeat repeat = (Repeat) node;
+        if (repeat.min == 0) return null;
+        return exact(repeat.node);
+    }
+
+    /**
+     * Pick the set that filters the most, which is the one whose shortest literal is the longest.
+     */
+    private static Set<String> better(Set<String> a, Set<String> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        int scoreA = shortest(a);
+        int scoreB = shortest(b);
+        if (scoreA != scoreB) return scoreA > scoreB ? a : b;
+        return a.size() <= b.size() ? a : b;
+    }
+
+    private static int shortest(Set<String> literals) {
+        int result = Integer.MAX_VALUE;
+        for (String literal : literals)
+            result = Math.min(result, literal.length());
+        return result;
+    }
+
+}
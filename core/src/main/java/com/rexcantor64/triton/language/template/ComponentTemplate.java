@@ -0,0 +1,215 @@
+package com.rexcantor64.triton.language.template;
+
+import com.google.gson.JsonParseException;
+import com.rexcantor64.triton.Triton;
+import com.rexcantor64.triton.wrappers.AdventureComponentWrapper;
+import lombok.val;
+import lombok.var;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.TranslatableComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+
+/**
+ * An immutable, pre-parsed <code>[triton_json]</code> or <code>[minimsg]</code> translation.
+ * The translation is parsed into components once, with its argument slots kept as markers in the text
+ * and click events of the components. Rendering it copies the components and fills in the slots.
+ */
+public final class ComponentTemplate {
+
+    private static final String JSON_PREFIX = "[triton_json]";
+    private static final String MINI_MESSAGE_PREFIX = "[minimsg]";
+    private static final char SLOT_START = '\uE700';
+    private static final char SLOT_END = '\uE701';
+
+    private final TextTemplate template;
+    /**
+     * The parsed components, or null if the translation is invalid and should be shown as legacy text.
+     */
+    private final BaseComponent[] components;
+
+    private ComponentTemplate(TextTemplate template, BaseComponent[] components) {
+        this.template = template;
+        this.components = components;
+    }
+
+    /**
+     * @param source The raw translation.
+     * @return Whether the translation is a <code>[triton_json]</code> or <code>[minimsg]</code> translation.
+     */
+    public static boolean isComponentTranslation(String source) {
+        return source.startsWith(JSON_PREFIX) || source.startsWith(MINI_MESSAGE_PREFIX);
+    }
+
+    /**
+     * Parse a <code>[triton_json]</code> or <code>[minimsg]</code> translation into a template.
+     * Errors are logged here, so they're only reported once.
+     *
+     * @param key      The key of the translation, used in error messages.
+     * @param template The compiled translation.
+     * @return The parsed template, or null if the translation has to be parsed every time it's rendered,
+     * because its arguments are used in places other than text and click events.
+     */
+    public static ComponentTemplate compile(String key, TextTemplate template) {
+        val source = template.renderSlots(digits -> SLOT_START + digits + SLOT_END);
+        final BaseComponent[] components;
+        if (source.startsWith(JSON_PREFIX)) {
+            try {
+                components = ComponentSerializer.parse(source.substring(JSON_PREFIX.length()));
+            } catch (RuntimeException e) {
+                // Not only JsonParseException: invalid values (e.g. colors) throw other exceptions.
+                // The arguments might be part of the JSON structure, so it might be valid once they're replaced.
+                if (template.hasArguments()) return null;
+                Triton.get().getLogger()
+                        .logError("Failed to parse JSON translation %1: %2", key, e.getMessage());
+                return new ComponentTemplate(template, null);
+            }
+        } else {
+            try {
+                components = AdventureComponentWrapper
+                        .toMd5Component(MiniMessage.get().parse(source.substring(MINI_MESSAGE_PREFIX.length())));
+            } catch (RuntimeException e) {
+                if (template.hasArguments()) return null;
+                Triton.get().getLogger()
+                        .logError("Failed to parse Mini Message translation %1: %2", key, e.getMessage());
+                return new ComponentTemplate(template, null);
+            } catch (NoClassDefFoundError e) {
+                Triton.get().getLogger().logError("Failed to parse Mini Message translation %1 because Mini " +
+                        "Message is only available on PaperMC (or forks).", key);
+                return new ComponentTemplate(template, null);
+            }
+        }
+
+        var slots = 0;
+        for (val component : components)
+            slots += countSlots(component);
+        if (slots != template.getSlotCount()) return null;
+
+        return new ComponentTemplate(template, components);
+    }
+
+    private static int countSlots(BaseComponent component) {
+        var count = 0;
+        if (component instanceof TextComponent)
+            count += countSlots(((TextComponent) component).getText());
+        if (component instanceof TranslatableComponent && ((TranslatableComponent) component).getWith() != null)
+            for (val arg : ((TranslatableComponent) component).getWith())
+                count += countSlots(arg);
+        if (component.getClickEvent() != null)
+            count += countSlots(component.getClickEvent().getValue());
+        if (component.getExtra() != null)
+            for (val extra : component.getExtra())
+                count += countSlots(extra);
+        return count;
+    }
+
+    private static int countSlots(String text) {
+        if (text == null) return 0;
+        var count = 0;
+        for (int i = text.indexOf(SLOT_START); i != -1; i = text.indexOf(SLOT_START, i + 1))
+            count++;
+        return count;
+    }
+
+    /**
+     * Render this template, replacing <code>%1</code>, <code>%2</code>, etc. with the given arguments.
+     *
+     * @param args The arguments to replace in the template.
+     * @return New components, which can be freely modified.
+     */
+    public BaseComponent[] render(Object... args) {
+        if (components == null)
+            return TextComponent.fromLegacyText(removePrefix(template.render(args)));
+
+        val result = new BaseComponent[components.length];
+        for (int i = 0; i < components.length; i++) {
+            result[i] = components[i].duplicate();
+            if (template.hasArguments())
+                fillSlots(result[i], args);
+        }
+        return result;
+    }
+
+    private static void fillSlots(BaseComponent component, Object[] args) {
+        if (component instanceof TextComponent) {
+            val textComponent = (TextComponent) component;
+            textComponent.setText(fillSlots(textComponent.getText(), args));
+        }
+        if (component instanceof TranslatableComponent && ((TranslatableComponent) component).getWith() != null)
+            for (val arg : ((TranslatableComponent) component).getWith())
+                fillSlots(arg, args);
+        val clickEvent = component.getClickEvent();
+        if (clickEvent != null)
+            component.setClickEvent(new ClickEvent(clickEvent.getAction(), fillSlots(clickEvent.getValue(), args)));
+        if (component.getExtra() != null)
+            for (val extra : component.getExtra())
+                fillSlots(extra, args);
+    }
+
+    private static String fillSlots(String text, Object[] args) {
+        var start = text.indexOf(SLOT_START);
+        if (start == -1) return text;
+
+        val builder = new StringBuilder(text.length() + 16 * args.length);
+        var position = 0;
+        while (start != -1) {
+            val end = text.indexOf(SLOT_END, start);
+            if (end == -1) break;
+            builder.append(text, position, start);
+            TextTemplate.appendSlot(builder, text.substring(start + 1, end), args);
+            position = end + 1;
+            start = text.indexOf(SLOT_START, position);
+        }
+        builder.append(text, position, text.length());
+        return builder.toString();
+    }
+
+    /**
+     * Parse a translation that has already been rendered into components.
+     * Used for translations that couldn't be parsed beforehand.
+     *
+     * @param translation The rendered translation.
+     * @return The parsed components.
+     */
+    public static BaseComponent[] parse(String translation) {
+        if (translation.startsWith(JSON_PREFIX)) {
+            val jsonInput = translation.substring(JSON_PREFIX.length());
+            try {
+                return ComponentSerializer.parse(jsonInput);
+            } catch (JsonParseException e) {
+                Triton.get().getLogger()
+                        .logError("Failed to parse JSON translation: %1", jsonInput);
+                e.printStackTrace();
+                return TextComponent.fromLegacyText(jsonInput);
+            }
+        } else if (translation.startsWith(MINI_MESSAGE_PREFIX)) {
+            val mmInput = translation.substring(MINI_MESSAGE_PREFIX.length());
+            try {
+                return AdventureComponentWrapper.toMd5Component(MiniMessage.get().parse(mmInput));
+            } catch (JsonParseException | NullPointerException e) {
+                Triton.get().getLogger()
+                        .logError("Failed to parse Mini Message translation: %1", mmInput);
+                e.printStackTrace();
+                return TextComponent.fromLegacyText(mmInput);
+            } catch (NoClassDefFoundError e) {
+                Triton.get().getLogger().logError("Failed to parse Mini Message translation because Mini Message is only available on PaperMC (or forks).");
+                return TextComponent.fromLegacyText(mmInput);
+            }
+        }
+        return TextComponent.fromLegacyText(translation);
+    }
+
+    private static String removePrefix(String translation) {
+        if (translation.startsWith(JSON_PREFIX)) return translation.substring(JSON_PREFIX.length());
+        if (translation.startsWith(MINI_MESSAGE_PREFIX)) return translation.substring(MINI_MESSAGE_PREFIX.length());
+        return translation;
+    }
+
+    @Override
+    public String toString() {
+        return template.toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.rexcantor64.triton.language.template;
+
+import net.md_5.bungee.api.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable, pre-compiled translation.
+ * The translation is split into literal segments (with color codes already translated)
+ * and argument slots (<code>%1</code>, <code>%2</code>, ...), so rendering it is a single append pass.
+ */
+public final class TextTemplate {
+
+    private final String rendered;
+    private final String[] literals;
+    private final String[] slots;
+
+    private TextTemplate(String rendered, String[] literals, String[] slots) {
+        this.rendered = rendered;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compile a raw translation (i.e. as it is in the translation files) into a template.
+     *
+     * @param source The raw translation.
+     * @return The compiled template.
+     */
+    public static TextTemplate compile(String source) {
+        List<String> literals = null;
+        List<String> slots = null;
+        int literalStart = 0;
+        for (int i = source.indexOf('%'); i != -1 && i < source.length() - 1; i = source.indexOf('%', i + 1)) {
+            char next = source.charAt(i + 1);
+            // Placeholders start at %1, so %0 is never replaced
+            if (next < '1' || next > '9') continue;
+
+            int end = i + 2;
+            while (end < source.length() && Character.isDigit(source.charAt(end)))
+                end++;
+
+            if (literals == null) {
+                literals = new ArrayList<>();
+                slots = new ArrayList<>();
+            }
+            literals.add(translateColors(source.substring(literalStart, i)));
+            slots.add(source.substring(i + 1, end));
+            literalStart = end;
+            i = end - 1;
+        }
+
+        String rendered = translateColors(source);
+        if (literals == null) return new TextTemplate(rendered, null, null);
+
+        literals.add(translateColors(source.substring(literalStart)));
+        return new TextTemplate(rendered, literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    private static String translateColors(String text) {
+        if (text.indexOf('&') == -1) return text;
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+
+    /**
+     * Render this template, replacing <code>%1</code>, <code>%2</code>, etc. with the given arguments.
+     * If there are no arguments, a shared instance is returned.
+     *
+     * @param args The arguments to replace in the template.
+     * @return The rendered translation.
+     */
+    public String render(Object... args) {
+        if (slots == null || args.length == 0) return rendered;
+
+        StringBuilder builder = new StringBuilder(rendered.length() + 16 * args.length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            appendSlot(builder, slots[i], args);
+        }
+        builder.append(literals[slots.length]);
+        return builder.toString();
+    }
+
+    /**
+     * Render this template, writing each argument slot with the given function instead of replacing it.
+     *
+     * @param slotRenderer Given the digits of a slot (e.g. <code>1</code> for <code>%1</code>), returns what
+     *                     to write in its place.
+     * @return The rendered translation.
+     */
+    String renderSlots(Function<String, String> slotRenderer) {
+        if (slots == null) return rendered;
+
+        StringBuilder builder = new StringBuilder(rendered.length());
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            builder.append(slotRenderer.apply(slots[i]));
+        }
+        builder.append(literals[slots.length]);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the value of the argument referenced by the given digits.
+     * For compatibility with the old replacement method, if the whole number does not refer to an argument,
+     * the longest prefix that does is used instead (e.g. <code>%12</code> with a single argument is the first
+     * argument followed by a literal <code>2</code>).
+     */
+    static void appendSlot(StringBuilder builder, String digits, Object[] args) {
+        int index = 0;
+        int length = 0;
+        int value = 0;
+        for (int i = 0; i < digits.length() && value <= args.length; i++) {
+            value = value * 10 + (digits.charAt(i) - '0');
+            if (value <= args.length) {
+                index = value;
+                length = i + 1;
+            }
+        }
+
+        if (index == 0) {
+            builder.append('%').append(digits);
+            return;
+        }
+
+        String arg = String.valueOf(args[index - 1]);
+        builder.append(translateColors(arg));
+        builder.append(digits, length, digits.length());
+    }
+
+    /**
+     * @return Whether this template has argument slots.
+     */
+    public boolean hasArguments() {
+        return slots != null;
+    }
+
+    /**
+     * @return How many argument slots this template has.
+     */
+    int getSlotCount() {
+        return slots == null ? 0 : slots.length;
+    }
+
+    @Override
+    public String toString() {
+        return rendered;
+    }
+
+}
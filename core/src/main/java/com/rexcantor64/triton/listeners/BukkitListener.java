@@ -5,6 +5,7 @@ import com.rexcantor64.triton.language.LanguageParser;
 import com.rexcantor64.triton.player.SpigotLanguagePlayer;
 import lombok.val;
 import lombok.var;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -16,27 +17,55 @@ import org.bukkit.event.player.PlayerQuitEvent;
 
 public class BukkitListener implements Listener {
 
+    /**
+     * How long to hold a login while the language of the player is loaded, in milliseconds.
+     */
+    private static final long LANGUAGE_LOAD_TIMEOUT = 3000;
+    /**
+     * How long a player can be logging in before it's unregistered, in ticks, in case it never joins.
+     */
+    private static final long PRE_LOGIN_TIMEOUT = 100;
+
     @EventHandler
     public void onLeave(PlayerQuitEvent e) {
-        Triton.get().getPlayerManager().unregisterPlayer(e.getPlayer().getUniqueId());
+        val uuid = e.getPlayer().getUniqueId();
+        Triton.get().getPlayerManager().markQuitting(uuid);
+        // Packets are still sent to the player until the end of the tick
+        Bukkit.getScheduler().runTask(Triton.asSpigot().getLoader(),
+                () -> Triton.get().getPlayerManager().unregisterIfQuitting(uuid));
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onLogin(AsyncPlayerPreLoginEvent e) {
-        val lp = new SpigotLanguagePlayer(e.getUniqueId());
-        Triton.get().getPlayerManager().registerPlayer(lp);
-        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED)
+        // Loading the language here means the storage never has to be queried on the main thread
+        val lp = SpigotLanguagePlayer.loadAsync(e.getUniqueId(), LANGUAGE_LOAD_TIMEOUT);
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
             e.setKickMessage(Triton.get().getLanguageParser()
                     .replaceLanguages(e.getKickMessage(), lp, Triton.get().getConf().getKickSyntax()));
+            return;
+        }
+        Triton.get().getPlayerManager().registerPreLogin(lp);
+        // If the login is denied by a plugin that runs after this one, or the player disconnects before joining.
+        // Only half of the time is required to have passed, which still excludes a newer login of the same player.
+        Bukkit.getScheduler().runTaskLater(Triton.asSpigot().getLoader(), () -> Triton.get().getPlayerManager()
+                .unregisterExpiredPreLogin(lp.getUUID(), PRE_LOGIN_TIMEOUT * 50 / 2), PRE_LOGIN_TIMEOUT);
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onLoginSync(PlayerLoginEvent e) {
-        val lp = new SpigotLanguagePlayer(e.getPlayer().getUniqueId());
-        Triton.get().getPlayerManager().registerPlayer(lp);
-        if (e.getResult() != PlayerLoginEvent.Result.ALLOWED)
+        val uuid = e.getPlayer().getUniqueId();
+        val playerManager = Triton.get().getPlayerManager();
+        // The player was loaded by the pre-login event, unless another plugin allowed the login without it
+        var lp = (SpigotLanguagePlayer) playerManager.getIfPresent(uuid);
+        if (lp == null) lp = SpigotLanguagePlayer.loadAsync(uuid, 0);
+        if (e.getResult() != PlayerLoginEvent.Result.ALLOWED) {
             e.setKickMessage(Triton.get().getLanguageParser()
                     .replaceLanguages(e.getKickMessage(), lp, Triton.get().getConf().getKickSyntax()));
+            // The player won't join, so it won't quit either
+            playerManager.unregisterPlayer(uuid);
+            return;
+        }
+        playerManager.registerPlayer(lp);
     }
 
     @EventHandler
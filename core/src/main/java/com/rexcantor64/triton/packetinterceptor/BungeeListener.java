@@ -6,7 +6,6 @@ import com.rexcantor64.triton.player.BungeeLanguagePlayer;
 import com.rexcantor64.triton.utils.NMSUtils;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
-import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.chat.TranslatableComponent;
 import net.md_5.bungee.chat.ComponentSerializer;
@@ -63,34 +62,33 @@ public class BungeeListener extends MessageToMessageEncoder<DefinedPacket> {
         int type = p.getPosition();
         if ((type == 2 && !Triton.get().getConf().isActionbars()) || (type != 2 && !Triton.get().getConf().isChat()))
             return true;
-        BaseComponent[] text = ComponentSerializer.parse(p.getMessage());
-        text = Triton.get().getLanguageParser().parseComponent(owner, type != 2 ?
-                Triton.get().getConf().getChatSyntax() : Triton.get().getConf().getActionbarSyntax(), text);
-        if (text == null)
+        String result = Triton.get().getLanguageParser().parseComponentJson(owner, type != 2 ?
+                Triton.get().getConf().getChatSyntax() : Triton.get().getConf().getActionbarSyntax(), p.getMessage());
+        if (result == null)
             return false;
-        p.setMessage(ComponentSerializer.toString(text));
+        p.setMessage(result);
         return true;
     }
 
     private boolean handleTitle(DefinedPacket packet) {
         Title p = (Title) packet;
         if (p.getText() == null) return true;
-        BaseComponent[] result = Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getTitleSyntax(), ComponentSerializer.parse(p.getText()));
+        String result = Triton.get().getLanguageParser().parseComponentJson(owner,
+                Triton.get().getConf().getTitleSyntax(), p.getText());
         if (result == null)
             return false;
-        p.setText(ComponentSerializer.toString(result));
+        p.setText(result);
         return true;
     }
 
     private boolean handleSubtitle(DefinedPacket packet) {
         Subtitle p = (Subtitle) packet;
         if (p.getText() == null) return true;
-        BaseComponent[] result = Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getTitleSyntax(), ComponentSerializer.parse(p.getText()));
+        String result = Triton.get().getLanguageParser().parseComponentJson(owner,
+                Triton.get().getConf().getTitleSyntax(), p.getText());
         if (result == null)
             return false;
-        p.setText(ComponentSerializer.toString(result));
+        p.setText(result);
         return true;
     }
 
@@ -103,24 +101,20 @@ public class BungeeListener extends MessageToMessageEncoder<DefinedPacket> {
         }
         if (p.getAction() != 0 && p.getAction() != 3) return;
         owner.setBossbar(uuid, p.getTitle());
-        p.setTitle(serializeComponent(Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getBossbarSyntax(), ComponentSerializer.parse(p.getTitle()))));
+        p.setTitle(translateComponent(p.getTitle(), Triton.get().getConf().getBossbarSyntax()));
     }
 
     private void handlePlayerListHeaderFooter(DefinedPacket packet) {
         PlayerListHeaderFooter p = (PlayerListHeaderFooter) packet;
         owner.setLastTabHeader(p.getHeader());
         owner.setLastTabFooter(p.getFooter());
-        p.setHeader(serializeComponent(Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getTabSyntax(), ComponentSerializer.parse(p.getHeader()))));
-        p.setFooter(serializeComponent(Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getTabSyntax(), ComponentSerializer.parse(p.getFooter()))));
+        p.setHeader(translateComponent(p.getHeader(), Triton.get().getConf().getTabSyntax()));
+        p.setFooter(translateComponent(p.getFooter(), Triton.get().getConf().getTabSyntax()));
     }
 
     private void handleKick(DefinedPacket packet) {
         Kick p = (Kick) packet;
-        p.setMessage(serializeComponent(Triton.get().getLanguageParser().parseComponent(owner,
-                Triton.get().getConf().getKickSyntax(), ComponentSerializer.parse(p.getMessage()))));
+        p.setMessage(translateComponent(p.getMessage(), Triton.get().getConf().getKickSyntax()));
     }
 
     @Override
@@ -203,9 +197,10 @@ public class BungeeListener extends MessageToMessageEncoder<DefinedPacket> {
         return result;
     }
 
-    private String serializeComponent(BaseComponent... bc) {
-        if (bc == null) return ComponentSerializer.toString(new TranslatableComponent(""));
-        return ComponentSerializer.toString(bc);
+    private String translateComponent(String json, MainConfig.FeatureSyntax syntax) {
+        String result = Triton.get().getLanguageParser().parseComponentJson(owner, syntax, json);
+        if (result == null) return ComponentSerializer.toString(new TranslatableComponent(""));
+        return result;
     }
 
 }
@@ -27,7 +27,9 @@ import com.rexcantor64.triton.SpigotMLP;
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.api.wrappers.EntityType;
 import com.rexcantor64.triton.config.MainConfig;
+import com.rexcantor64.triton.language.LanguageSnapshot;
 import com.rexcantor64.triton.language.item.SignLocation;
+import com.rexcantor64.triton.language.parser.AdventureComponentConverter;
 import com.rexcantor64.triton.packetinterceptor.protocollib.SignPacketHandler;
 import com.rexcantor64.triton.player.LanguagePlayer;
 import com.rexcantor64.triton.player.SpigotLanguagePlayer;
@@ -165,8 +167,11 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
         // Don't bother parsing anything else if it's disabled on config
         if ((ab && !main.getConfig().isActionbars()) || (!ab && !main.getConfig().isChat())) return;
 
+        val syntax = ab ? main.getConf().getActionbarSyntax() : main.getConf().getChatSyntax();
         val baseComponentModifier = packet.getPacket().getSpecificModifier(BASE_COMPONENT_ARRAY_CLASS);
         BaseComponent[] result = null;
+        // The translations used to check an Adventure component must also be used to translate it
+        LanguageSnapshot snapshot = null;
 
         // Hot fix for 1.16 Paper builds 472+ (and 1.17+)
         StructureModifier<?> adventureModifier =
@@ -174,12 +179,23 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
 
         if (adventureModifier != null && adventureModifier.readSafely(0) != null) {
             Object adventureComponent = adventureModifier.readSafely(0);
+            snapshot = main.getLanguageManager().getSnapshot();
+            // Leave the Adventure component as is, unless there is something to translate
+            if (!main.getLanguageParser().mightNeedTranslation(syntax, snapshot, adventureComponent)) return;
+            if (translateAdventureComponent(packet, adventureModifier, languagePlayer, syntax, snapshot)) return;
             result = AdventureComponentWrapper.toMd5Component(adventureComponent);
             adventureModifier.writeSafely(0, null);
         } else if (baseComponentModifier.readSafely(0) != null) {
             result = baseComponentModifier.readSafely(0);
         } else {
             val msg = packet.getPacket().getChatComponents().readSafely(0);
+            if (msg != null && !(ab && getMCVersion() < 16)) {
+                // Broadcasts are intercepted once per player, so recent translations of the same JSON are reused
+                val resultJson = main.getLanguageParser().parseComponentJson(languagePlayer, syntax, msg.getJson());
+                if (resultJson == null) packet.setCancelled(true);
+                else packet.getPacket().getChatComponents().writeSafely(0, WrappedChatComponent.fromJson(resultJson));
+                return;
+            }
             if (msg != null) result = ComponentSerializer.parse(msg.getJson());
         }
 
@@ -187,10 +203,8 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
         if (result == null) return;
 
         // Translate the message
-        result = main.getLanguageParser().parseComponent(
-                languagePlayer,
-                ab ? main.getConf().getActionbarSyntax() : main.getConf().getChatSyntax(),
-                result);
+        result = snapshot == null ? main.getLanguageParser().parseComponent(languagePlayer, syntax, result) :
+                main.getLanguageParser().parseComponent(languagePlayer, syntax, snapshot, result);
 
         // Handle disabled line
         if (result == null) {
@@ -202,11 +216,36 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
         baseComponentModifier.writeSafely(0, ab && getMCVersion() < 16 ? ComponentUtils.mergeComponents(result) : result);
     }
 
+    /**
+     * Translates the Adventure component of a packet and writes it back as an Adventure component,
+     * without converting it to BungeeCord components.
+     *
+     * @return False if the component can only be translated as BungeeCord components, in which case
+     * the packet is left untouched.
+     */
+    @SuppressWarnings({"unchecked"})
+    private boolean translateAdventureComponent(PacketEvent packet, StructureModifier<?> adventureModifier,
+                                                SpigotLanguagePlayer languagePlayer, MainConfig.FeatureSyntax syntax,
+                                                LanguageSnapshot snapshot) {
+        val advancedComponent = AdventureComponentConverter.toAdvancedComponent(adventureModifier.readSafely(0));
+        if (advancedComponent == null) return false;
+
+        val result = main.getLanguageParser()
+                .parseAdvancedComponent(languagePlayer, syntax, snapshot, advancedComponent);
+        if (result == null)
+            packet.setCancelled(true);
+        else
+            ((StructureModifier<Object>) adventureModifier)
+                    .writeSafely(0, AdventureComponentConverter.fromAdvancedComponent(result));
+        return true;
+    }
+
     private void handleActionbar(PacketEvent packet, SpigotLanguagePlayer languagePlayer) {
         if (!main.getConf().isActionbars()) return;
 
         val baseComponentModifier = packet.getPacket().getSpecificModifier(BASE_COMPONENT_ARRAY_CLASS);
         BaseComponent[] result = null;
+        LanguageSnapshot snapshot = null;
 
         // Hot fix for Paper builds 472+
         StructureModifier<?> adventureModifier =
@@ -214,6 +253,14 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
 
         if (adventureModifier != null && adventureModifier.readSafely(0) != null) {
             Object adventureComponent = adventureModifier.readSafely(0);
+            snapshot = main.getLanguageManager().getSnapshot();
+            // Leave the Adventure component as is, unless there is something to translate
+            if (!main.getLanguageParser()
+                    .mightNeedTranslation(main.getConf().getActionbarSyntax(), snapshot, adventureComponent))
+                return;
+            if (translateAdventureComponent(packet, adventureModifier, languagePlayer,
+                    main.getConf().getActionbarSyntax(), snapshot))
+                return;
             result = AdventureComponentWrapper.toMd5Component(adventureComponent);
             adventureModifier.writeSafely(0, null);
         } else if (baseComponentModifier.readSafely(0) != null) {
@@ -221,17 +268,23 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
             baseComponentModifier.writeSafely(0, null);
         } else {
             val msg = packet.getPacket().getChatComponents().readSafely(0);
-            if (msg != null) result = ComponentSerializer.parse(msg.getJson());
+            if (msg != null) {
+                val resultJson = main.getLanguageParser()
+                        .parseComponentJson(languagePlayer, main.getConf().getActionbarSyntax(), msg.getJson());
+                if (resultJson == null) packet.setCancelled(true);
+                else packet.getPacket().getChatComponents().writeSafely(0, WrappedChatComponent.fromJson(resultJson));
+                return;
+            }
         }
 
         // Something went wrong while getting data from the packet, or the packet is empty...?
         if (result == null) return;
 
         // Translate the message
-        result = main.getLanguageParser().parseComponent(
-                languagePlayer,
-                main.getConf().getActionbarSyntax(),
-                result);
+        result = snapshot == null ?
+                main.getLanguageParser().parseComponent(languagePlayer, main.getConf().getActionbarSyntax(), result) :
+                main.getLanguageParser()
+                        .parseComponent(languagePlayer, main.getConf().getActionbarSyntax(), snapshot, result);
 
         // Handle disabled line
         if (result == null) {
@@ -740,8 +793,8 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
         if (!packet.isServerPacket()) return;
         SpigotLanguagePlayer languagePlayer;
         try {
-            languagePlayer =
-                    (SpigotLanguagePlayer) Triton.get().getPlayerManager().get(packet.getPlayer().getUniqueId());
+            languagePlayer = (SpigotLanguagePlayer) Triton.get().getPlayerManager()
+                    .getIfPresent(packet.getPlayer().getUniqueId());
         } catch (Exception e) {
             Triton.get().getLogger()
                     .logWarning(1, "Failed to translate packet because UUID of the player is unknown (because " +
@@ -766,8 +819,8 @@ public class ProtocolLibListener implements PacketListener, PacketInterceptor {
         if (packet.isServerPacket()) return;
         SpigotLanguagePlayer languagePlayer;
         try {
-            languagePlayer =
-                    (SpigotLanguagePlayer) Triton.get().getPlayerManager().get(packet.getPlayer().getUniqueId());
+            languagePlayer = (SpigotLanguagePlayer) Triton.get().getPlayerManager()
+                    .getIfPresent(packet.getPlayer().getUniqueId());
         } catch (Exception ignore) {
             Triton.get().getLogger()
                     .logWarning(1, "Failed to get SpigotLanguagePlayer because UUID of the player is unknown " +
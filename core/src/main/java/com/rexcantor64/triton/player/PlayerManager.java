@@ -1,46 +1,224 @@
 package com.rexcantor64.triton.player;
 
-import com.google.common.collect.Maps;
 import com.rexcantor64.triton.BungeeMLP;
 import com.rexcantor64.triton.SpigotMLP;
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.VelocityMLP;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.var;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
+/**
+ * The registry of the players that are online or logging in.
+ * <p>
+ * Players are looked up from packet threads, the main thread and the proxy's threads at the same time,
+ * so every method can be called from any thread. Only {@link #get(UUID)} creates players, and it creates
+ * at most one for each UUID. Registering a player that is already registered updates the existing registration,
+ * so a player registered while {@link #get(UUID)} is creating one is kept instead of the created one.
+ */
 public class PlayerManager implements com.rexcantor64.triton.api.players.PlayerManager {
 
-    private Map<UUID, LanguagePlayer> players = Maps.newHashMap();
+    public enum State {
+        /**
+         * The player is logging in, but the login might still be denied.
+         */
+        PRE_LOGIN,
+        JOINED,
+        /**
+         * The player quit, but packets can still be sent to it until it's unregistered.
+         */
+        QUITTING
+    }
+
+    private final ConcurrentHashMap<UUID, Registration> players = new ConcurrentHashMap<>();
+    /**
+     * Incremented every time a player is registered, created, unregistered or changes state, so {@link #getAll()}
+     * knows when to rebuild its list.
+     */
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
 
+    /**
+     * Gets the player with the given UUID, creating it (and loading its language) if it isn't registered yet.
+     * Since loading the language might query the storage, use {@link #getIfPresent(UUID)} in threads that
+     * must not block.
+     *
+     * @param p The UUID of the player.
+     * @return The player, or null if it can't be created because it isn't online.
+     */
     public LanguagePlayer get(UUID p) {
-        LanguagePlayer lp = players.get(p);
-        if (lp != null) return lp;
-        if (Triton.get() instanceof BungeeMLP)
-            players.put(p, lp = new BungeeLanguagePlayer(p));
-        else if (Triton.get() instanceof SpigotMLP)
-            players.put(p, lp = new SpigotLanguagePlayer(p));
-        else if (Triton.get() instanceof VelocityMLP)
-            players.put(p, lp = VelocityLanguagePlayer.fromUUID(p));
+        val registration = players.computeIfAbsent(p, k -> new Registration(State.JOINED));
+        val lp = registration.getOrCreate(p);
+        if (lp == null) unregisterIf(p, r -> r == registration && r.player.get() == null);
         return lp;
     }
 
+    /**
+     * @param p The UUID of the player.
+     * @return The registered player with the given UUID, or null if there's none.
+     */
+    public LanguagePlayer getIfPresent(UUID p) {
+        val registration = players.get(p);
+        return registration == null ? null : registration.player.get();
+    }
+
     public boolean hasPlayer(UUID p) {
         return players.containsKey(p);
     }
 
-    public void unregisterPlayer(UUID p) {
-        players.remove(p);
+    /**
+     * Registers a player that is logging in, but might still be denied.
+     * It must be {@link #registerPlayer(LanguagePlayer) registered again} when it joins, or unregistered if
+     * the login is denied. If neither happens, it's unregistered by {@link #unregisterExpiredPreLogin(UUID, long)}.
+     */
+    public void registerPreLogin(LanguagePlayer lp) {
+        register(lp, State.PRE_LOGIN);
     }
 
     public void registerPlayer(LanguagePlayer lp) {
-        players.put(lp.getUUID(), lp);
+        register(lp, State.JOINED);
+    }
+
+    private void register(LanguagePlayer lp, State state) {
+        players.compute(lp.getUUID(), (k, registration) -> {
+            if (registration == null) return new Registration(lp, state);
+            registration.player.set(lp);
+            registration.setState(state);
+            return registration;
+        });
+        version.incrementAndGet();
     }
 
+    /**
+     * Marks a player as quitting. It can still be found until {@link #unregisterIfQuitting(UUID)} is called,
+     * so packets sent to it while it disconnects are still translated.
+     */
+    public void markQuitting(UUID p) {
+        val registration = players.get(p);
+        if (registration == null) return;
+        registration.setState(State.QUITTING);
+        version.incrementAndGet();
+    }
+
+    public void unregisterPlayer(UUID p) {
+        if (players.remove(p) != null)
+            version.incrementAndGet();
+    }
+
+    /**
+     * Unregisters a player marked as quitting, unless it logged in again since.
+     */
+    public void unregisterIfQuitting(UUID p) {
+        unregisterIf(p, registration -> registration.state == State.QUITTING);
+    }
+
+    /**
+     * Unregisters a player that is still {@link #registerPreLogin(LanguagePlayer) logging in} after the given
+     * time, because it never joined and its denied login wasn't unregistered (e.g. it disconnected first).
+     *
+     * @param p       The UUID of the player.
+     * @param timeout How long the player can be logging in, in milliseconds.
+     */
+    public void unregisterExpiredPreLogin(UUID p, long timeout) {
+        val now = System.currentTimeMillis();
+        unregisterIf(p, registration -> registration.state == State.PRE_LOGIN &&
+                now - registration.stateChangedAt >= timeout);
+    }
+
+    private void unregisterIf(UUID p, Predicate<Registration> condition) {
+        // Checked while holding the map's lock, so a player registered again in the meantime isn't removed
+        val removed = new AtomicBoolean();
+        players.computeIfPresent(p, (k, registration) -> {
+            if (!condition.test(registration)) return registration;
+            removed.set(true);
+            return null;
+        });
+        if (removed.get()) version.incrementAndGet();
+    }
+
+    /**
+     * @return An unmodifiable list of the players that joined, excluding the ones logging in or quitting.
+     * The same list is returned until a player is registered, unregistered or changes state, so this is cheap
+     * to call often.
+     */
     public List<LanguagePlayer> getAll() {
-        return new ArrayList<>(players.values());
+        // Read before the players, so if they change while the list is built, it's built again next time
+        val currentVersion = version.get();
+        val current = snapshot;
+        if (current != null && current.version == currentVersion) return current.players;
+
+        val list = new ArrayList<LanguagePlayer>(players.size());
+        for (val registration : players.values()) {
+            val lp = registration.player.get();
+            if (lp != null && registration.state == State.JOINED)
+                list.add(lp);
+        }
+        val all = Collections.unmodifiableList(list);
+        snapshot = new Snapshot(currentVersion, all);
+        return all;
+    }
+
+    private static LanguagePlayer create(UUID p) {
+        if (Triton.get() instanceof BungeeMLP)
+            return new BungeeLanguagePlayer(p);
+        if (Triton.get() instanceof SpigotMLP)
+            return new SpigotLanguagePlayer(p);
+        if (Triton.get() instanceof VelocityMLP)
+            return VelocityLanguagePlayer.fromUUID(p);
+        return null;
+    }
+
+    private class Registration {
+        private final AtomicReference<LanguagePlayer> player = new AtomicReference<>();
+        private volatile State state;
+        private volatile long stateChangedAt;
+
+        private Registration(State state) {
+            setState(state);
+        }
+
+        private Registration(LanguagePlayer player, State state) {
+            this.player.set(player);
+            setState(state);
+        }
+
+        private void setState(State state) {
+            this.stateChangedAt = System.currentTimeMillis();
+            this.state = state;
+        }
+
+        private LanguagePlayer getOrCreate(UUID p) {
+            var lp = player.get();
+            if (lp != null) return lp;
+            // Creating a player can take a while, so it's not done while holding the map's lock.
+            // It's still done while holding this registration's lock, because creating a player has side effects
+            // (e.g. running language commands), so it must not be done twice.
+            synchronized (this) {
+                lp = player.get();
+                if (lp != null) return lp;
+                val created = create(p);
+                // Unless a player was registered while this one was being created
+                if (created != null && player.compareAndSet(null, created))
+                    version.incrementAndGet();
+                return player.get();
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Snapshot {
+        private final long version;
+        private final List<LanguagePlayer> players;
     }
 
 }
@@ -23,18 +23,25 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SpigotLanguagePlayer implements LanguagePlayer {
 
     private final UUID uuid;
     private Player bukkit;
 
-    private Language lang;
+    /**
+     * The language of the player, or null while it's loading. Only {@link #load()} sets it if it's null, so
+     * a language set while loading isn't overwritten.
+     */
+    private final AtomicReference<Language> lang = new AtomicReference<>();
 
     private String lastTabHeader;
     private String lastTabFooter;
     private Map<UUID, String> bossBars = new ConcurrentHashMap<>();
-    private boolean waitingForClientLocale = false;
+    private volatile boolean waitingForClientLocale = false;
 
     @Getter
     private Map<World, Map<Integer, Optional<String>>> entitiesMap = new ConcurrentHashMap<>();
@@ -48,8 +55,42 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
     private Map<String, ScoreboardTeam> teamsMap = new ConcurrentHashMap<>();
 
     public SpigotLanguagePlayer(UUID p) {
+        this(p, true);
+    }
+
+    private SpigotLanguagePlayer(UUID p, boolean load) {
         uuid = p;
-        load();
+        if (load) load();
+    }
+
+    /**
+     * Creates a player and loads its language from the storage in another thread, waiting for it at most
+     * the given time. If it takes longer, the player gets the main language until its language is loaded.
+     *
+     * @param p       The UUID of the player.
+     * @param timeout How long to wait for the language to load, in milliseconds, or 0 to not wait at all.
+     * @return The player, whose language might still be loading.
+     */
+    public static SpigotLanguagePlayer loadAsync(UUID p, long timeout) {
+        val lp = new SpigotLanguagePlayer(p, false);
+        val loaded = new CountDownLatch(1);
+        Triton.get().runAsync(() -> {
+            try {
+                lp.load();
+            } finally {
+                loaded.countDown();
+            }
+        });
+        if (timeout <= 0) return lp;
+
+        try {
+            if (!loaded.await(timeout, TimeUnit.MILLISECONDS))
+                Triton.get().getLogger().logWarning(1, "Loading the language of %1 took longer than %2ms. Using " +
+                        "the main language until it's loaded.", p, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return lp;
     }
 
     public void setScoreboardObjective(String name, String chatJson, Object type) {
@@ -76,9 +117,8 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
     }
 
     public Language getLang() {
-        if (lang == null)
-            lang = Triton.get().getLanguageManager().getMainLanguage();
-        return lang;
+        val lang = this.lang.get();
+        return lang == null ? Triton.get().getLanguageManager().getMainLanguage() : lang;
     }
 
     public void setLang(Language lang) {
@@ -86,7 +126,7 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
     }
 
     public void setLang(Language lang, boolean sendToBungee) {
-        PlayerChangeLanguageSpigotEvent event = new PlayerChangeLanguageSpigotEvent(this, this.lang, lang);
+        PlayerChangeLanguageSpigotEvent event = new PlayerChangeLanguageSpigotEvent(this, this.lang.get(), lang);
         Bukkit.getPluginManager().callEvent(event);
         if (event.isCancelled()) return;
         if (this.waitingForClientLocale) {
@@ -103,7 +143,7 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
                 e.printStackTrace();
             }
         }
-        this.lang = event.getNewLanguage();
+        this.lang.set(event.getNewLanguage());
         this.waitingForClientLocale = false;
         refreshAll();
         if (Triton.asSpigot().getBridgeManager() == null || Triton.get().getStorage() instanceof LocalStorage)
@@ -176,17 +216,25 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
     }
 
     private void load() {
-        lang = Triton.get().getStorage().getLanguage(this);
+        val loaded = Triton.get().getStorage().getLanguage(this);
+        if (!lang.compareAndSet(null, loaded)) {
+            // The language was set (e.g. from the client's locale or with /lang) while it was loading
+            waitingForClientLocale = false;
+            return;
+        }
         toBukkit().ifPresent(player -> {
             if (player.getAddress() != null) {
                 Triton.get().getStorage()
-                        .setLanguage(null, player.getAddress().getAddress().getHostAddress(), lang);
+                        .setLanguage(null, player.getAddress().getAddress().getHostAddress(), loaded);
             }
         });
-        if (lang != null)
-            this.refreshAll();
-        if (Triton.get().getConf().isRunLanguageCommandsOnLogin())
-            executeCommands();
+        // The language might have been loaded in another thread, but commands must be dispatched in the main one
+        Bukkit.getScheduler().runTask(Triton.asSpigot().getLoader(), () -> {
+            if (loaded != null)
+                this.refreshAll();
+            if (Triton.get().getConf().isRunLanguageCommandsOnLogin())
+                executeCommands();
+        });
     }
 
     private void save() {
@@ -198,7 +246,7 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
                     ip = player.getAddress().getAddress().getHostAddress();
                 }
             }
-            Triton.get().getStorage().setLanguage(uuid, ip, lang);
+            Triton.get().getStorage().setLanguage(uuid, ip, getLang());
         });
     }
 
@@ -226,7 +274,7 @@ public class SpigotLanguagePlayer implements LanguagePlayer {
 
     private void executeCommands() {
         toBukkit().ifPresent(bukkit -> {
-            for (ExecutableCommand cmd : ((com.rexcantor64.triton.language.Language) lang).getCmds()) {
+            for (ExecutableCommand cmd : ((com.rexcantor64.triton.language.Language) getLang()).getCmds()) {
                 String cmdText = cmd.getCmd().replace("%player%", bukkit.getName()).replace("%uuid%",
                         bukkit.getUniqueId().toString());
                 if (cmd.getType() == ExecutableCommand.Type.SERVER)
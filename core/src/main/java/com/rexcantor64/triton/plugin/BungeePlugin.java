@@ -21,6 +21,8 @@ public class BungeePlugin extends Plugin implements PluginLoader {
 
     @Override
     public void onDisable() {
+        Triton.get().onDisable();
+
         // Set the formatter back to default
         try {
             if (Triton.get().getConf().isTerminal())
@@ -20,6 +20,7 @@ public class SpigotPlugin extends JavaPlugin implements PluginLoader {
 
     @Override
     public void onDisable() {
+        Triton.get().onDisable();
         if (Triton.get().getConf().isTerminal())
             Log4jInjector.uninjectAppender();
     }
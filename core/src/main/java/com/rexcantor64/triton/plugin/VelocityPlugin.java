@@ -1,11 +1,13 @@
 package com.rexcantor64.triton.plugin;
 
 import com.google.inject.Inject;
+import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.VelocityMLP;
 import com.rexcantor64.triton.logger.SLF4JLogger;
 import com.rexcantor64.triton.logger.TritonLogger;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
@@ -38,6 +40,11 @@ public class VelocityPlugin implements PluginLoader {
         new VelocityMLP(this).onEnable();
     }
 
+    @Subscribe
+    public void onDisable(ProxyShutdownEvent event) {
+        Triton.get().onDisable();
+    }
+
     @Override
     public PluginType getType() {
         return PluginType.VELOCITY;
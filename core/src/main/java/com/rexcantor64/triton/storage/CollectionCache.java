@@ -0,0 +1,389 @@
+package com.rexcantor64.triton.storage;
+
+import com.rexcantor64.triton.Triton;
+import com.rexcantor64.triton.language.item.Collection;
+import com.rexcantor64.triton.language.item.LanguageItem;
+import com.rexcantor64.triton.language.item.LanguageSign;
+import com.rexcantor64.triton.language.item.LanguageText;
+import com.rexcantor64.triton.language.item.SignLocation;
+import com.rexcantor64.triton.language.item.TWINData;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.var;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * A binary copy of the collections, used to load the translations right away on startup
+ * instead of waiting for BungeeCord or the database.
+ * <p>
+ * The file starts with a magic number, the format version and a CRC32 checksum of the rest of the file.
+ * Then comes a table with every distinct string, followed by the collections, which refer to strings by
+ * their index in the table (or -1 for null). Each string is only decoded the first time it's used,
+ * so strings that repeat (e.g. language names) are shared.
+ * <p>
+ * The file is read into memory instead of being memory-mapped: a mapped file can't be replaced on Windows
+ * until the mapping is garbage collected, which would make the next {@link #write(File, Map, long)} fail.
+ */
+public final class CollectionCache {
+
+    private static final int MAGIC = 0x54524e43;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 12;
+
+    private static final byte TYPE_TEXT = 0;
+    private static final byte TYPE_SIGN = 1;
+
+    private CollectionCache() {
+    }
+
+    public static File getFile() {
+        return new File(Triton.get().getDataFolder(), "translations.cache.bin");
+    }
+
+    /**
+     * Writes the collections to a file, replacing it atomically.
+     *
+     * @param file        The file to write to.
+     * @param collections The collections, by name.
+     * @param revision    The revision of the storage the collections were loaded from, or -1 if unknown.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(File file, Map<String, Collection> collections, long revision) throws IOException {
+        val strings = new StringTable();
+        val collectionBytes = new ByteArrayOutputStream();
+        val out = new DataOutputStream(collectionBytes);
+
+        out.writeLong(revision);
+        out.writeInt(collections.size());
+        for (val entry : collections.entrySet()) {
+            val collection = entry.getValue();
+            out.writeInt(strings.indexOf(entry.getKey()));
+            out.writeInt(strings.indexOf(collection.getRevision()));
+            out.writeBoolean(collection.getMetadata().isBlacklist());
+            writeStrings(out, strings, collection.getMetadata().getServers());
+
+            out.writeInt(collection.getItems().size());
+            for (val item : collection.getItems())
+                writeItem(out, strings, item);
+        }
+        out.flush();
+
+        val body = new ByteArrayOutputStream(collectionBytes.size() + strings.data.size());
+        strings.writeTo(new DataOutputStream(body));
+        collectionBytes.writeTo(body);
+        val bodyBytes = body.toByteArray();
+
+        val checksum = new CRC32();
+        checksum.update(bodyBytes);
+
+        val tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream fileOut = new DataOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+            fileOut.writeInt(MAGIC);
+            fileOut.writeInt(VERSION);
+            fileOut.writeInt((int) checksum.getValue());
+            fileOut.write(bodyBytes);
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the collections from a file written by {@link #write(File, Map, long)}.
+     * Collections that didn't have a {@link Collection#getRevision() revision} when they were written
+     * get the checksum of the file instead.
+     *
+     * @param file The file to read from.
+     * @return The contents of the file, or null if the file doesn't exist.
+     * @throws IOException If the file can't be read, or if it's corrupted or from another version of the plugin.
+     */
+    public static Contents read(File file) throws IOException {
+        if (!file.isFile()) return null;
+
+        val buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException("Not a translations cache file");
+        if (buffer.getInt() != VERSION)
+            throw new IOException("The translations cache file is from another version of the plugin");
+        val expectedChecksum = buffer.getInt();
+
+        val checksum = new CRC32();
+        checksum.update(buffer.duplicate());
+        if ((int) checksum.getValue() != expectedChecksum)
+            throw new IOException("The translations cache file is corrupted");
+
+        try {
+            val reader = new Reader(buffer);
+            val checksumRevision = Integer.toHexString(expectedChecksum);
+            val storageRevision = buffer.getLong();
+            val collectionCount = buffer.getInt();
+            val collections = new ConcurrentHashMap<String, Collection>(collectionCount * 2);
+            for (var i = 0; i < collectionCount; i++) {
+                val name = reader.string(buffer.getInt());
+                val revision = reader.string(buffer.getInt());
+                val collection = new Collection();
+                collection.getMetadata().setBlacklist(buffer.get() != 0);
+                collection.getMetadata().setServers(reader.strings());
+
+                val itemCount = buffer.getInt();
+                val items = new ArrayList<LanguageItem>(itemCount);
+                for (var j = 0; j < itemCount; j++)
+                    items.add(reader.item());
+                collection.setItems(items);
+                collection.setRevision(revision == null ? checksumRevision : revision);
+                collections.put(name, collection);
+            }
+            return new Contents(collections, storageRevision);
+        } catch (RuntimeException e) {
+            // Can only happen if the file was written incorrectly, since the checksum matched
+            throw new IOException("The translations cache file is invalid: " + e, e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Contents {
+        private final ConcurrentHashMap<String, Collection> collections;
+        /**
+         * The revision given to {@link #write(File, Map, long)}.
+         */
+        private final long revision;
+    }
+
+    private static void writeItem(DataOutputStream out, StringTable strings, LanguageItem item) throws IOException {
+        out.writeByte(item instanceof LanguageSign ? TYPE_SIGN : TYPE_TEXT);
+        out.writeInt(strings.indexOf(item.getKey()));
+        writeTwinData(out, strings, item.getTwinData());
+
+        if (item instanceof LanguageSign) {
+            val sign = (LanguageSign) item;
+            if (sign.getLines() == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(sign.getLines().size());
+                for (val entry : sign.getLines().entrySet()) {
+                    out.writeInt(strings.indexOf(entry.getKey()));
+                    writeStrings(out, strings, entry.getValue() == null ? null : Arrays.asList(entry.getValue()));
+                }
+            }
+
+            if (sign.getLocations() == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(sign.getLocations().size());
+                for (val location : sign.getLocations()) {
+                    out.writeInt(strings.indexOf(location.getServer()));
+                    out.writeInt(strings.indexOf(location.getWorld()));
+                    out.writeInt(location.getX());
+                    out.writeInt(location.getY());
+                    out.writeInt(location.getZ());
+                }
+            }
+            return;
+        }
+
+        val text = (LanguageText) item;
+        if (text.getLanguages() == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(text.getLanguages().size());
+            for (val entry : text.getLanguages().entrySet()) {
+                out.writeInt(strings.indexOf(entry.getKey()));
+                out.writeInt(strings.indexOf(entry.getValue()));
+            }
+        }
+        out.writeByte(text.getBlacklist() == null ? -1 : text.getBlacklist() ? 1 : 0);
+        writeStrings(out, strings, text.getServers());
+        writeStrings(out, strings, text.getPatterns());
+    }
+
+    private static void writeTwinData(DataOutputStream out, StringTable strings, TWINData twinData)
+            throws IOException {
+        out.writeBoolean(twinData != null);
+        if (twinData == null) return;
+
+        out.writeBoolean(twinData.getId() != null);
+        if (twinData.getId() != null) {
+            out.writeLong(twinData.getId().getMostSignificantBits());
+            out.writeLong(twinData.getId().getLeastSignificantBits());
+        }
+        out.writeLong(twinData.getDateCreated());
+        out.writeLong(twinData.getDateUpdated());
+        out.writeBoolean(twinData.isArchived());
+        writeStrings(out, strings, twinData.getTags() == null ? null : Arrays.asList(twinData.getTags()));
+        out.writeInt(strings.indexOf(twinData.getDescription()));
+    }
+
+    private static void writeStrings(DataOutputStream out, StringTable strings, List<String> list)
+            throws IOException {
+        if (list == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(list.size());
+        for (val string : list)
+            out.writeInt(strings.indexOf(string));
+    }
+
+    private static class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private final List<Integer> offsets = new ArrayList<>();
+
+        private int indexOf(String string) {
+            if (string == null) return -1;
+            val index = indexes.get(string);
+            if (index != null) return index;
+
+            val bytes = string.getBytes(StandardCharsets.UTF_8);
+            offsets.add(data.size());
+            data.write(bytes, 0, bytes.length);
+            indexes.put(string, offsets.size() - 1);
+            return offsets.size() - 1;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(offsets.size());
+            for (val offset : offsets)
+                out.writeInt(offset);
+            out.writeInt(data.size());
+            data.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+        private final int offsetsStart;
+        private final int dataStart;
+        private final String[] strings;
+
+        /**
+         * Reads the string table, leaving the buffer positioned right after it.
+         */
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.strings = new String[buffer.getInt()];
+            this.offsetsStart = buffer.position();
+            // The offsets are followed by the length of the data, which is the end of the last string
+            buffer.position(offsetsStart + strings.length * 4);
+            val dataLength = buffer.getInt();
+            this.dataStart = buffer.position();
+            buffer.position(dataStart + dataLength);
+        }
+
+        private String string(int index) {
+            if (index == -1) return null;
+            var string = strings[index];
+            if (string == null) {
+                val start = buffer.getInt(offsetsStart + index * 4);
+                val end = buffer.getInt(offsetsStart + index * 4 + 4);
+                val bytes = new byte[end - start];
+                val slice = buffer.duplicate();
+                slice.position(dataStart + start);
+                slice.get(bytes);
+                string = new String(bytes, StandardCharsets.UTF_8);
+                strings[index] = string;
+            }
+            return string;
+        }
+
+        private List<String> strings() {
+            val size = buffer.getInt();
+            if (size == -1) return null;
+            val list = new ArrayList<String>(size);
+            for (var i = 0; i < size; i++)
+                list.add(string(buffer.getInt()));
+            return list;
+        }
+
+        private LanguageItem item() {
+            val type = buffer.get();
+            val key = string(buffer.getInt());
+            val twinData = twinData();
+
+            if (type == TYPE_SIGN) {
+                val sign = new LanguageSign();
+                sign.setKey(key);
+                sign.setTwinData(twinData);
+
+                val lineCount = buffer.getInt();
+                if (lineCount != -1) {
+                    val lines = new HashMap<String, String[]>();
+                    for (var i = 0; i < lineCount; i++) {
+                        val language = string(buffer.getInt());
+                        val languageLines = strings();
+                        lines.put(language, languageLines == null ? null : languageLines.toArray(new String[0]));
+                    }
+                    sign.setLines(lines);
+                }
+
+                val locationCount = buffer.getInt();
+                if (locationCount != -1) {
+                    val locations = new ArrayList<SignLocation>(locationCount);
+                    for (var i = 0; i < locationCount; i++)
+                        locations.add(new SignLocation(string(buffer.getInt()), string(buffer.getInt()),
+                                buffer.getInt(), buffer.getInt(), buffer.getInt()));
+                    sign.setLocations(locations);
+                }
+                return sign;
+            }
+
+            val text = new LanguageText();
+            text.setKey(key);
+            text.setTwinData(twinData);
+
+            val languageCount = buffer.getInt();
+            if (languageCount != -1) {
+                val languages = new HashMap<String, String>();
+                for (var i = 0; i < languageCount; i++)
+                    languages.put(string(buffer.getInt()), string(buffer.getInt()));
+                text.setLanguages(languages);
+            }
+            val blacklist = buffer.get();
+            text.setBlacklist(blacklist == -1 ? null : blacklist == 1);
+            text.setServers(strings());
+            text.setPatterns(strings());
+            text.generateRegexStrings();
+            return text;
+        }
+
+        private TWINData twinData() {
+            if (buffer.get() == 0) return null;
+
+            val twinData = new TWINData();
+            if (buffer.get() != 0)
+                twinData.setId(new UUID(buffer.getLong(), buffer.getLong()));
+            twinData.setDateCreated(buffer.getLong());
+            twinData.setDateUpdated(buffer.getLong());
+            twinData.setArchived(buffer.get() != 0);
+            val tags = strings();
+            twinData.setTags(tags == null ? null : tags.toArray(new String[0]));
+            twinData.setDescription(string(buffer.getInt()));
+            return twinData;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.rexcantor64.triton.storage;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.val;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the languages of IPs loaded from a remote storage, so that pinging the server repeatedly doesn't need
+ * a query every time.
+ * <p>
+ * The cache belongs to a single server, so it doesn't see languages saved by other servers sharing the storage
+ * until its entries expire. That's why the languages of players aren't cached: a player that changed language
+ * on another server must get it when joining this one.
+ * <p>
+ * The cache holds at most {@link #MAXIMUM_SIZE} entries, so a ping flood from many IPs can't make it grow
+ * without limit, and entries expire {@link #EXPIRE_MINUTES} minutes after being added. Expired entries are
+ * removed a few at a time while the cache is used, instead of scanning the whole cache.
+ * IPs without a language are cached too, since most IPs that ping the server don't have one.
+ */
+public class LanguageCache {
+
+    private static final int MAXIMUM_SIZE = 10000;
+    private static final long EXPIRE_MINUTES = 5;
+    /**
+     * Cached for players and IPs without a language, since the cache can't hold null.
+     */
+    private static final String NO_LANGUAGE = "";
+
+    private final Cache<String, String> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+
+    /**
+     * @param key    The IP.
+     * @param loader Loads the language of the IP if it isn't cached, returning null if it doesn't have one.
+     *               If several threads need the same key at once, only one of them loads it.
+     * @return The language of the IP, or null if it doesn't have one.
+     * @throws ExecutionException If the loader threw an exception, in which case nothing is cached.
+     */
+    public String get(String key, Callable<String> loader) throws ExecutionException {
+        val language = cache.get(key, () -> {
+            val loaded = loader.call();
+            return loaded == null ? NO_LANGUAGE : loaded;
+        });
+        return language.equals(NO_LANGUAGE) ? null : language;
+    }
+
+    /**
+     * Updates the language of an IP, if it's cached.
+     *
+     * @param key      The IP, or the UUID of a player, which is ignored since they're never cached.
+     * @param language The language of the IP, or null if it doesn't have one.
+     */
+    public void update(String key, String language) {
+        cache.asMap().replace(key, language == null ? NO_LANGUAGE : language);
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+}
@@ -1,9 +1,6 @@
 package com.rexcantor64.triton.storage;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
 import com.rexcantor64.triton.SpigotMLP;
 import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.api.language.Language;
@@ -13,23 +10,33 @@ import com.rexcantor64.triton.language.item.serializers.CollectionSerializer;
 import com.rexcantor64.triton.player.LanguagePlayer;
 import com.rexcantor64.triton.utils.FileUtils;
 import lombok.Cleanup;
+import lombok.SneakyThrows;
 import lombok.val;
 import lombok.var;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.lang.reflect.Type;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class LocalStorage extends Storage {
 
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    private static final Type HASH_MAP_TYPE = new TypeToken<ConcurrentHashMap<String, String>>() {
-    }.getType();
     private ConcurrentHashMap<String, String> languageMap = new ConcurrentHashMap<>();
+    private PlayerDataJournal playerDataJournal;
 
     @Override
     public void load() {
@@ -38,25 +45,24 @@ public class LocalStorage extends Storage {
     }
 
     public void loadPlayerData() {
-        val playersFile = new File(Triton.get().getDataFolder(), "players.json");
-        if (playersFile.isFile()) {
-            try {
-                this.languageMap = gson.fromJson(FileUtils.getReaderFromFile(playersFile), HASH_MAP_TYPE);
-            } catch (JsonParseException e) {
-                Triton.get().getLogger().logError("Failed load players.json. JSON is not valid: %1", e.getMessage());
-            }
-        }
+        this.playerDataJournal = new PlayerDataJournal(Triton.get().getDataFolder(),
+                Triton.get().getConfig().isPlayerDataFsync(), Triton.get().getLogger());
+        this.languageMap = playerDataJournal.load();
+        Triton.get().getLogger().logInfo(2, "Replayed %1 changes from players.journal (ignored %2 invalid lines)",
+                playerDataJournal.getJournalEntries(), playerDataJournal.getSkippedLines());
     }
 
     @Override
     public Language getLanguageFromIp(String ip) {
-        String lang = languageMap.get(ip.replace(".", "-"));
+        String lang = getPendingLanguage(ip);
+        if (lang == null) lang = languageMap.get(ip.replace(".", "-"));
         return Triton.get().getLanguageManager().getLanguageByName(lang, true);
     }
 
     @Override
     public Language getLanguage(LanguagePlayer lp) {
-        String lang = languageMap.get(lp.getUUID().toString());
+        String lang = getPendingLanguage(lp.getUUID().toString());
+        if (lang == null) lang = languageMap.get(lp.getUUID().toString());
         if (!Triton.get().getConf().isBungeecord() &&
                 (lang == null
                         || (Triton.get().getConf().isAlwaysCheckClientLocale())))
@@ -65,73 +71,52 @@ public class LocalStorage extends Storage {
     }
 
     @Override
-    public void setLanguage(UUID uuid, String ip, Language newLanguage) {
-        String entity = uuid != null ? uuid.toString() : ip;
-        try {
-            if (uuid == null && ip == null) return;
-            Triton.get().getLogger().logInfo(2, "Saving language for %1...", entity);
-
-            boolean changed = false;
-            if (uuid != null) {
-                String formattedUuid = uuid.toString();
-                if (!newLanguage.getName().equals(languageMap.get(formattedUuid))) {
-                    languageMap.put(uuid.toString(), newLanguage.getName());
-                    changed = true;
-                }
-            }
-            if (ip != null && Triton.get().getConf().isMotd()) {
-                String formattedIp = ip.replace(".", "-");
-                if (!newLanguage.getName().equals(languageMap.get(formattedIp))) {
-                    languageMap.put(formattedIp, newLanguage.getName());
-                    changed = true;
-                }
-            }
+    protected void saveLanguages(Map<String, String> languages) throws IOException {
+        val changes = new HashMap<String, String>();
+        for (val entry : languages.entrySet()) {
+            // IPs are stored with dashes instead of dots
+            val key = entry.getKey().replace(".", "-");
+            if (!entry.getValue().equals(languageMap.get(key)))
+                changes.put(key, entry.getValue());
+        }
 
-            if (changed) {
-                Triton.get().runAsync(() -> {
-                    try {
-                        // TODO use RandomAccessFile with FileLock if this does not work correctly
-                        val playersFile = new File(Triton.get().getDataFolder(), "players.json");
-                        @Cleanup val fileWriter = FileUtils.getWriterFromFile(playersFile);
-                        gson.toJson(languageMap, fileWriter);
-                    } catch (Exception e) {
-                        Triton.get().getLogger()
-                                .logError("Failed to save language for %1! Could not create players.yml: %2", entity, e
-                                        .getMessage());
-                        e.printStackTrace();
-                    }
-                });
-                Triton.get().getLogger().logInfo(2, "Saved!");
-            } else {
-                Triton.get().getLogger().logInfo(2, "Skipped saving because there were no changes.");
-            }
-        } catch (Exception e) {
-            Triton.get().getLogger()
-                    .logError("Failed to save language for %1! Could not create players.yml: %2", entity, e
-                            .getMessage());
-            e.printStackTrace();
+        if (changes.isEmpty()) {
+            Triton.get().getLogger().logInfo(2, "Skipped saving player data because there were no changes.");
+            return;
+        }
+
+        playerDataJournal.append(changes);
+        languageMap.putAll(changes);
+
+        if (playerDataJournal.shouldCompact(languageMap.size())) {
+            val start = System.currentTimeMillis();
+            playerDataJournal.compact(languageMap);
+            Triton.get().getLogger().logInfo(2, "Compacted players.journal into players.json in %1ms",
+                    System.currentTimeMillis() - start);
         }
     }
 
     @Override
     public boolean uploadToStorage(ConcurrentHashMap<String, Collection> collections) {
 
-        // Use translations.cache.json
+        // Use translations.cache.bin
         if (Triton.get().getConf().isBungeecord() && Triton.get() instanceof SpigotMLP) {
             Triton.get().getLogger().logInfo(2, "Saving translations to cache since bungeecord mode is enabled.");
 
-            val cacheFile = new File(Triton.get().getDataFolder(), "translations.cache.json");
-
             val collection = new Collection();
             collections.values().forEach((col) -> collection.getItems().addAll(col.getItems()));
 
             try {
-                Triton.get().getLogger().logInfo(2, "Saving translations.cache.json");
+                Triton.get().getLogger().logInfo(2, "Saving translations.cache.bin");
+                CollectionCache
+                        .write(CollectionCache.getFile(), Collections.singletonMap("cache", collection), -1);
 
-                @Cleanup val fileWriter = FileUtils.getWriterFromFile(cacheFile);
-                CollectionSerializer.toJson(collection, fileWriter);
+                // Replaced by translations.cache.bin
+                val legacyCacheFile = new File(Triton.get().getDataFolder(), "translations.cache.json");
+                if (legacyCacheFile.isFile() && !legacyCacheFile.delete())
+                    Triton.get().getLogger().logWarning(2, "Failed to delete the old translations.cache.json");
             } catch (Exception e) {
-                Triton.get().getLogger().logError("Failed to save translations.cache.json: %1", e.getMessage());
+                Triton.get().getLogger().logError("Failed to save translations.cache.bin: %1", e.getMessage());
                 e.printStackTrace();
             }
             return true;
@@ -191,10 +176,18 @@ public class LocalStorage extends Storage {
     public ConcurrentHashMap<String, Collection> downloadFromStorage() {
         val collections = new ConcurrentHashMap<String, Collection>();
 
-        // Use translations.cache.json
+        // Use translations.cache.bin
         if (Triton.get().getConf().isBungeecord() && Triton.get() instanceof SpigotMLP) {
             Triton.get().getLogger().logInfo(2, "Loading translations from cache since bungeecord mode is enabled.");
 
+            try {
+                val cached = CollectionCache.read(CollectionCache.getFile());
+                if (cached != null) return cached.getCollections();
+            } catch (IOException e) {
+                Triton.get().getLogger().logWarning(0, "Failed to load translations from cache: %1", e.getMessage());
+            }
+
+            // Written by older versions of the plugin
             val cacheFile = new File(Triton.get().getDataFolder(), "translations.cache.json");
 
             if (!cacheFile.isFile()) {
@@ -203,7 +196,7 @@ public class LocalStorage extends Storage {
                 return collections;
             }
 
-            collections.put("cache", CollectionSerializer.parse(FileUtils.getReaderFromFile(cacheFile)));
+            collections.put("cache", parseCollection(cacheFile));
 
             return collections;
         }
@@ -212,28 +205,119 @@ public class LocalStorage extends Storage {
         if (translationsFolder.isDirectory()) {
             val colFiles = translationsFolder.listFiles();
             if (colFiles != null)
-                for (val colFile : colFiles) {
-                    try {
-                        if (colFile.getName().endsWith(".json"))
-                            collections.put(colFile.getName().substring(0, colFile.getName().length() - 5),
-                                    CollectionSerializer.parse(FileUtils.getReaderFromFile(colFile)));
-                        else
-                            Triton.get().getLogger()
-                                    .logWarning(2, "Did not load file %1 because it is not a JSON file.", colFile
-                                            .getName());
-                    } catch (JsonParseException e) {
-                        Triton.get().getLogger()
-                                .logError("Failed to load collection %1 because it has invalid syntax: %2", colFile
-                                        .getName(), e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
+                loadCollections(colFiles, collections);
             else
                 Triton.get().getLogger().logWarning(2, "An I/O error occurred while loading the translations folder.");
         }
         return collections;
     }
 
+    /**
+     * Parses the collection files in parallel, since big collections take a while to parse.
+     * A file that fails to load is skipped without affecting the others.
+     */
+    private void loadCollections(File[] colFiles, ConcurrentHashMap<String, Collection> collections) {
+        val start = System.currentTimeMillis();
+        val pool = new ForkJoinPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                colFiles.length)));
+        try {
+            val tasks = new ArrayList<ForkJoinTask<?>>(colFiles.length);
+            for (val colFile : colFiles)
+                tasks.add(pool.submit(() -> loadCollection(colFile, collections)));
+            for (val task : tasks)
+                task.join();
+        } finally {
+            pool.shutdown();
+        }
+        Triton.get().getLogger().logInfo(2, "Loaded %1 collections in %2ms", collections.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void loadCollection(File colFile, ConcurrentHashMap<String, Collection> collections) {
+        if (!colFile.getName().endsWith(".json")) {
+            Triton.get().getLogger()
+                    .logWarning(2, "Did not load file %1 because it is not a JSON file.", colFile.getName());
+            return;
+        }
+
+        try {
+            val start = System.currentTimeMillis();
+            val collection = parseCollection(colFile);
+            collections.put(colFile.getName().substring(0, colFile.getName().length() - 5), collection);
+            Triton.get().getLogger().logInfo(2, "Loaded collection %1 (%2 items) in %3ms", colFile.getName(),
+                    collection.getItems().size(), System.currentTimeMillis() - start);
+        } catch (JsonParseException e) {
+            Triton.get().getLogger()
+                    .logError("Failed to load collection %1 because it has invalid syntax: %2", colFile
+                            .getName(), e.getMessage());
+            e.printStackTrace();
+        } catch (Exception e) {
+            Triton.get().getLogger()
+                    .logError("Failed to load collection %1: %2", colFile.getName(), e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads the given collections from the translations folder again, removing the ones whose file was deleted.
+     * Files that haven't changed since they were last loaded are skipped.
+     *
+     * @param names The names of the collections, which are their file names without the extension.
+     * @return The number of collections that were changed or removed.
+     */
+    public int reloadCollections(Set<String> names) {
+        val translationsFolder = new File(Triton.get().getDataFolder(), "translations");
+        var changed = 0;
+        for (val name : names) {
+            val colFile = new File(translationsFolder, name + ".json");
+            if (!colFile.isFile()) {
+                if (collections.remove(name) != null) {
+                    Triton.get().getLogger().logInfo(2, "Unloaded collection %1 because its file was deleted.", name);
+                    changed++;
+                }
+                continue;
+            }
+
+            try {
+                // The file was truncated, but its new content wasn't written yet
+                if (colFile.length() == 0) continue;
+                val current = collections.get(name);
+                // Hashed while reading, so unchanged files are never held in memory, at the cost of reading
+                // changed files twice
+                if (current != null && FileUtils.hash(colFile).equals(current.getRevision())) continue;
+
+                collections.put(name, parseCollection(colFile));
+                Triton.get().getLogger().logInfo(2, "Loaded changes to collection %1", name);
+                changed++;
+            } catch (JsonParseException e) {
+                // The previous version of the collection is kept, since the file might still be being edited
+                Triton.get().getLogger()
+                        .logError("Failed to load collection %1 because it has invalid syntax: %2", colFile
+                                .getName(), e.getMessage());
+            } catch (IOException e) {
+                Triton.get().getLogger()
+                        .logError("Failed to load collection %1: %2", colFile.getName(), e.getMessage());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Parses a collection file, setting its {@link Collection#getRevision() revision} to the hash of the file.
+     * The file is streamed into the parser and hashed on the way, so it's never held in memory as a whole.
+     */
+    @SneakyThrows
+    private Collection parseCollection(File file) {
+        val digest = FileUtils.createDigest();
+        @Cleanup val in = new DigestInputStream(new FileInputStream(file), digest);
+        val collection = CollectionSerializer
+                .parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        // The parser already read up to the end of the file, but whatever it didn't read must be hashed too
+        FileUtils.skipToEnd(in);
+        collection.setRevision(FileUtils.hash(digest));
+        return collection;
+    }
+
     public String toString() {
         return "Local";
     }
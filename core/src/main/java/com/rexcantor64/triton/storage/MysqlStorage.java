@@ -1,5 +1,6 @@
 package com.rexcantor64.triton.storage;
 
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
@@ -15,12 +16,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.val;
 import lombok.var;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 @RequiredArgsConstructor
 public class MysqlStorage extends Storage {
@@ -34,6 +42,16 @@ public class MysqlStorage extends Storage {
     private static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {
     }.getType();
     private static final Gson gson = new Gson();
+    /**
+     * Servers that are more changes behind than this download everything instead of only the changes.
+     */
+    private static final int MAX_DELTA_CHANGES = 5000;
+    /**
+     * How many entries are kept in the changes table.
+     */
+    private static final int MAX_KEPT_CHANGES = 50000;
+    private static final String TRANSLATION_COLUMNS = "collection, type, field_key, content, blacklist, servers, " +
+            "locations, patterns, twin_id, twin_data";
 
     private final HikariConfig config = new HikariConfig();
     private final String host;
@@ -43,7 +61,11 @@ public class MysqlStorage extends Storage {
     private final String password;
     private final String tablePrefix;
     private HikariDataSource dataSource;
-    private IpCache ipCache;
+    private final LanguageCache languageCache = new LanguageCache();
+    /**
+     * The last entry of the changes table that is included in the loaded collections, or -1 if unknown.
+     */
+    private volatile long revision = -1;
 
     @Override
     public void load() {
@@ -64,16 +86,55 @@ public class MysqlStorage extends Storage {
 
         this.dataSource = new HikariDataSource(config);
 
-        this.ipCache = new IpCache();
-
         if (!setup()) throw new RuntimeException("Failed to setup database connection");
 
+        // Serve the translations from the last download while the new ones are downloaded
+        val cached = readCache();
+        if (cached != null) {
+            this.collections = cached.getCollections();
+            this.revision = cached.getRevision();
+            Triton.get().runAsync(() -> {
+                val data = downloadFromStorage();
+                if (data == null) {
+                    Triton.get().getLogger().logError("Failed to get translations from database. Using the " +
+                            "translations from the last time they were downloaded.");
+                    return;
+                }
+                this.collections = data;
+                if (Triton.get().getStorage() == this)
+                    Triton.get().refreshTranslations();
+            });
+            return;
+        }
+
         val data = downloadFromStorage();
         if (data == null) throw new RuntimeException("Failed to get translations from database");
 
         this.collections = data;
     }
 
+    private CollectionCache.Contents readCache() {
+        try {
+            val start = System.currentTimeMillis();
+            val cached = CollectionCache.read(CollectionCache.getFile());
+            if (cached != null)
+                Triton.get().getLogger().logInfo(2, "Loaded translations from cache in %1ms",
+                        System.currentTimeMillis() - start);
+            return cached;
+        } catch (IOException e) {
+            Triton.get().getLogger().logWarning(0, "Failed to load translations from cache: %1", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(ConcurrentHashMap<String, Collection> collections) {
+        try {
+            CollectionCache.write(CollectionCache.getFile(), collections, revision);
+        } catch (IOException e) {
+            Triton.get().getLogger().logWarning(0, "Failed to save translations to cache: %1", e.getMessage());
+        }
+    }
+
     private Connection openConnection() throws SQLException {
         return this.dataSource.getConnection();
     }
@@ -94,6 +155,9 @@ public class MysqlStorage extends Storage {
                     "NULL DEFAULT NULL , `twin_id` VARCHAR(36) NOT NULL , `twin_data` TEXT NOT NULL , UNIQUE " +
                     "(`twin_id`) , CONSTRAINT `collections_translations` FOREIGN KEY (`collection`) REFERENCES `" + tablePrefix +
                     "collections`(`name`) ON DELETE RESTRICT ON UPDATE CASCADE);");
+            // The twin_id of each translation that was changed or deleted, or null if everything might have changed
+            stmt.execute("CREATE TABLE IF NOT EXISTS `" + tablePrefix + "changes` ( `revision` BIGINT NOT NULL " +
+                    "AUTO_INCREMENT , `twin_id` VARCHAR(36) NULL DEFAULT NULL , PRIMARY KEY (`revision`));");
             stmt.close();
             return true;
         } catch (SQLException e) {
@@ -105,18 +169,15 @@ public class MysqlStorage extends Storage {
 
     @Override
     public Language getLanguageFromIp(String ip) {
-        String lang = ipCache.getFromCache(ip);
-        if (lang == null) {
-            lang = getValueFromStorage(ip);
-            ipCache.addToCache(ip, lang == null ? "" : lang);
-        }
-
+        String lang = getPendingLanguage(ip);
+        if (lang == null) lang = getCachedValueFromStorage(ip);
         return Triton.get().getLanguageManager().getLanguageByName(lang, true);
     }
 
     @Override
     public Language getLanguage(LanguagePlayer lp) {
-        String lang = getValueFromStorage(lp.getUUID().toString());
+        String lang = getPendingLanguage(lp.getUUID().toString());
+        if (lang == null) lang = getValueFromStorage(lp.getUUID().toString());
         if (!Triton.get().getConf().isBungeecord() &&
                 (lang == null
                         || (Triton.get().getConf().isAlwaysCheckClientLocale())))
@@ -125,49 +186,64 @@ public class MysqlStorage extends Storage {
     }
 
     @Override
-    public void setLanguage(UUID uuid, String ip, Language newLanguage) {
-        String entity = uuid != null ? uuid.toString() : ip;
-        if (uuid == null && ip == null) return;
-        Triton.get().getLogger().logInfo(2, "Saving language for %1...", entity);
-        try (Connection connection = openConnection()) {
-            PreparedStatement stmt = connection
-                    .prepareStatement("INSERT INTO `" + tablePrefix + "player_data` (`key`, `value`) VALUES (?, ?) ON" +
-                            " DUPLICATE KEY UPDATE value=VALUES(value)");
-            stmt.setString(2, newLanguage.getName());
-            if (uuid != null) {
-                stmt.setString(1, uuid.toString());
-                stmt.executeUpdate();
-            }
-            if (ip != null && Triton.get().getConf().isMotd()) {
-                stmt.setString(1, ip);
-                stmt.executeUpdate();
-            }
-            stmt.close();
-            Triton.get().getLogger().logInfo(2, "Saved!");
-        } catch (Exception e) {
-            e.printStackTrace();
-            Triton.get().getLogger()
-                    .logError("Failed to save language for %1! Could not insert into database: %2", entity, e
-                            .getMessage());
+    protected void saveLanguages(Map<String, String> languages) throws SQLException {
+        val batchSize = Triton.get().getConfig().getDatabaseBatchSize();
+        @Cleanup val connection = openConnection();
+        @Cleanup val stmt = connection
+                .prepareStatement("INSERT INTO `" + tablePrefix + "player_data` (`key`, `value`) VALUES (?, ?) ON" +
+                        " DUPLICATE KEY UPDATE value=VALUES(value)");
+        var count = 0;
+        for (val entry : languages.entrySet()) {
+            stmt.setString(1, entry.getKey());
+            stmt.setString(2, entry.getValue());
+            stmt.addBatch();
+            if (++count % batchSize == 0)
+                stmt.executeBatch();
+        }
+        stmt.executeBatch();
+
+        for (val entry : languages.entrySet())
+            languageCache.update(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Same as {@link #getValueFromStorage(String)}, but using the {@link LanguageCache}, which only IPs can use.
+     */
+    private String getCachedValueFromStorage(String key) {
+        try {
+            return languageCache.get(key, () -> queryValue(key));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Triton.get().getLogger().logError("Failed to get value from the database: %1", e.getCause().getMessage());
+            e.getCause().printStackTrace();
+            return null;
         }
     }
 
     private String getValueFromStorage(String key) {
-        String result = null;
-        try (Connection connection = openConnection()) {
-            PreparedStatement stmt = connection
-                    .prepareStatement("SELECT `value` FROM `" + tablePrefix + "player_data` WHERE `key`=?");
-            stmt.setString(1, key);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next())
-                result = rs.getString(1);
-            rs.close();
-            stmt.close();
+        try {
+            return queryValue(key);
         } catch (SQLException e) {
             Triton.get().getLogger().logError("Failed to get value from the database: %1", e.getMessage());
             e.printStackTrace();
+            return null;
         }
-        return result;
+    }
+
+    private String queryValue(String key) throws SQLException {
+        @Cleanup val connection = openConnection();
+        @Cleanup val stmt = connection
+                .prepareStatement("SELECT `value` FROM `" + tablePrefix + "player_data` WHERE `key`=?");
+        stmt.setString(1, key);
+        @Cleanup val rs = stmt.executeQuery();
+        return rs.next() ? rs.getString(1) : null;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        val stats = languageCache.getStats();
+        Triton.get().getLogger().logInfo(2, "Language cache stats: %1 hits, %2 misses, %3 evictions",
+                stats.hitCount(), stats.missCount(), stats.evictionCount());
     }
 
     @Override
@@ -180,203 +256,421 @@ public class MysqlStorage extends Storage {
                                             List<LanguageItem> changed, List<LanguageItem> deleted) {
         if (Triton.get().getConf().isBungeecord() && Triton.get() instanceof SpigotMLP) return true;
 
+        val start = System.currentTimeMillis();
+        val batchSize = Triton.get().getConfig().getDatabaseBatchSize();
+        // List#contains would make this quadratic, since it's called for every item
+        val changedItems = changed == null ? null : new HashSet<LanguageItem>(changed);
+
         try {
             @Cleanup val connection = openConnection();
+            var savedCount = 0;
+            var deletedCount = 0;
+
+            // Servers saving at the same time would otherwise commit their changes in a different order than
+            // they're numbered in the changes table, and other servers could miss some of them
+            lockChanges(connection, true);
+            // Everything is saved in a single transaction, so the database never ends up with only part of the changes
+            connection.setAutoCommit(false);
+            try {
+                @Cleanup val changesStatement = connection
+                        .prepareStatement("INSERT INTO `" + tablePrefix + "changes` (`twin_id`) VALUES (?)");
+
+                if (changed == null && deleted == null) {
+                    @Cleanup val emptyTablesStatement = connection.createStatement();
+                    // Not using TRUNCATE because it can't be rolled back
+                    emptyTablesStatement.execute("DELETE FROM `" + tablePrefix + "translations`");
+                    emptyTablesStatement.execute("DELETE FROM `" + tablePrefix + "collections`");
+
+                    changesStatement.setNull(1, Types.VARCHAR);
+                    changesStatement.addBatch();
+                }
 
-            if (changed == null && deleted == null) {
-                @Cleanup val emptyTablesStatement = connection.createStatement();
-                emptyTablesStatement.execute("TRUNCATE `" + tablePrefix + "translations`");
-                emptyTablesStatement.execute("DELETE FROM `" + tablePrefix + "collections`");
-            }
-
-            @Cleanup val collectionsStatement = connection
-                    .prepareStatement("INSERT INTO `" + tablePrefix + "collections` (`name`, `servers`, `blacklist`) " +
-                            "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `servers` = VALUES (`servers`), `blacklist` = " +
-                            "VALUES(`blacklist`);");
-
-            @Cleanup val translationsStatement = connection
-                    .prepareStatement("INSERT INTO `" + tablePrefix + "translations` (`collection`, `type`, " +
-                            "`field_key`, `content`, `blacklist`, `servers`, `locations`, `patterns`, `twin_id`, " +
-                            "`twin_data`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE `collection` " +
-                            "= VALUES (`collection`), `type` = VALUES (`type`), `field_key` = VALUES (`field_key`), " +
-                            "`content` = VALUES (`content`), `blacklist` = VALUES (`blacklist`), `servers` = VALUES " +
-                            "(`servers`), `locations` = VALUES (`locations`), `patterns` = VALUES (`patterns`), " +
-                            "`twin_data` = VALUES (`twin_data`);");
-
-            @Cleanup val translationsDeleteStatement = connection
-                    .prepareStatement("DELETE FROM `" + tablePrefix + "translations` WHERE `twin_id` = ?");
-
-            if (deleted != null) {
-                for (val item : deleted) {
-                    if (item.getTwinData() == null || item.getTwinData().getId() == null) {
-                        Triton.get().getLogger()
-                                .logWarning("Failed to delete item %1 from database because it doesn't have a TWIN " +
-                                        "id", item);
-                        continue;
+                @Cleanup val collectionsStatement = connection
+                        .prepareStatement("INSERT INTO `" + tablePrefix + "collections` (`name`, `servers`, " +
+                                "`blacklist`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `servers` = VALUES " +
+                                "(`servers`), `blacklist` = VALUES(`blacklist`);");
+
+                @Cleanup val translationsStatement = connection
+                        .prepareStatement("INSERT INTO `" + tablePrefix + "translations` (`collection`, `type`, " +
+                                "`field_key`, `content`, `blacklist`, `servers`, `locations`, `patterns`, `twin_id`, " +
+                                "`twin_data`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                                "`collection` = VALUES (`collection`), `type` = VALUES (`type`), `field_key` = VALUES " +
+                                "(`field_key`), `content` = VALUES (`content`), `blacklist` = VALUES (`blacklist`), " +
+                                "`servers` = VALUES (`servers`), `locations` = VALUES (`locations`), `patterns` = " +
+                                "VALUES (`patterns`), `twin_data` = VALUES (`twin_data`);");
+
+                @Cleanup val translationsDeleteStatement = connection
+                        .prepareStatement("DELETE FROM `" + tablePrefix + "translations` WHERE `twin_id` = ?");
+
+                if (deleted != null) {
+                    for (val item : deleted) {
+                        if (item.getTwinData() == null || item.getTwinData().getId() == null) {
+                            Triton.get().getLogger()
+                                    .logWarning("Failed to delete item %1 from database because it doesn't have a " +
+                                            "TWIN id", item);
+                            continue;
+                        }
+
+                        translationsDeleteStatement.setString(1, item.getTwinData().getId().toString());
+                        translationsDeleteStatement.addBatch();
+                        changesStatement.setString(1, item.getTwinData().getId().toString());
+                        changesStatement.addBatch();
+                        if (++deletedCount % batchSize == 0) {
+                            translationsDeleteStatement.executeBatch();
+                            changesStatement.executeBatch();
+                        }
                     }
-
-                    translationsDeleteStatement.setString(1, item.getTwinData().getId().toString());
-                    translationsDeleteStatement.executeUpdate();
+                    translationsDeleteStatement.executeBatch();
                 }
-            }
-
-            for (val entry : collections.entrySet()) {
-                collectionsStatement.setString(1, entry.getKey());
-
-                val metadata = entry.getValue().getMetadata();
 
-                collectionsStatement.setString(2, gson.toJson(metadata.getServers()));
-                collectionsStatement.setBoolean(3, metadata.isBlacklist());
+                // The collections must exist before their translations are inserted
+                for (val entry : collections.entrySet()) {
+                    collectionsStatement.setString(1, entry.getKey());
 
-                collectionsStatement.executeUpdate();
+                    val metadata = entry.getValue().getMetadata();
 
-                for (val item : entry.getValue().getItems()) {
-                    // Ignore item if it hasn't changed
-                    if (changed != null && !changed.contains(item)) continue;
+                    collectionsStatement.setString(2, gson.toJson(metadata.getServers()));
+                    collectionsStatement.setBoolean(3, metadata.isBlacklist());
 
-                    val type = item.getType();
-
-                    translationsStatement.setString(1, entry.getKey());
-                    translationsStatement.setString(2, type.getName());
-                    translationsStatement.setString(3, item.getKey());
-                    if (item instanceof LanguageSign) {
-                        val itemSign = (LanguageSign) item;
-                        translationsStatement.setString(4, toJsonOrDefault(itemSign.getLines(), "{}"));
-                        translationsStatement.setNull(5, Types.BOOLEAN);
-                        translationsStatement.setNull(6, Types.VARCHAR);
-                        translationsStatement.setString(7, toJsonOrDefault(itemSign.getLocations(), "[]"));
-                        translationsStatement.setNull(8, Types.VARCHAR);
-                    } else {
-                        val itemText = (LanguageText) item;
-                        translationsStatement.setString(4, toJsonOrDefault(itemText.getLanguages(), "{}"));
-
-                        val blacklist = itemText.getBlacklist();
-                        val servers = itemText.getServers();
-
-                        if (blacklist == null)
+                    collectionsStatement.addBatch();
+                }
+                collectionsStatement.executeBatch();
+
+                val total = changedItems != null ? changedItems.size() :
+                        collections.values().stream().mapToInt(collection -> collection.getItems().size()).sum();
+                for (val entry : collections.entrySet()) {
+                    for (val item : entry.getValue().getItems()) {
+                        // Ignore item if it hasn't changed
+                        if (changedItems != null && !changedItems.contains(item)) continue;
+
+                        val type = item.getType();
+
+                        translationsStatement.setString(1, entry.getKey());
+                        translationsStatement.setString(2, type.getName());
+                        translationsStatement.setString(3, item.getKey());
+                        if (item instanceof LanguageSign) {
+                            val itemSign = (LanguageSign) item;
+                            translationsStatement.setString(4, toJsonOrDefault(itemSign.getLines(), "{}"));
                             translationsStatement.setNull(5, Types.BOOLEAN);
-                        else
-                            translationsStatement.setBoolean(5, blacklist);
-
-                        if (servers == null)
                             translationsStatement.setNull(6, Types.VARCHAR);
-                        else
-                            translationsStatement.setString(6, gson.toJson(servers));
-
-                        translationsStatement.setNull(7, Types.VARCHAR);
-
-                        val patterns = itemText.getPatterns();
-                        if (patterns != null)
-                            translationsStatement.setString(8, gson.toJson(patterns));
-                        else
+                            translationsStatement.setString(7, toJsonOrDefault(itemSign.getLocations(), "[]"));
                             translationsStatement.setNull(8, Types.VARCHAR);
+                        } else {
+                            val itemText = (LanguageText) item;
+                            translationsStatement.setString(4, toJsonOrDefault(itemText.getLanguages(), "{}"));
+
+                            val blacklist = itemText.getBlacklist();
+                            val servers = itemText.getServers();
+
+                            if (blacklist == null)
+                                translationsStatement.setNull(5, Types.BOOLEAN);
+                            else
+                                translationsStatement.setBoolean(5, blacklist);
+
+                            if (servers == null)
+                                translationsStatement.setNull(6, Types.VARCHAR);
+                            else
+                                translationsStatement.setString(6, gson.toJson(servers));
+
+                            translationsStatement.setNull(7, Types.VARCHAR);
+
+                            val patterns = itemText.getPatterns();
+                            if (patterns != null)
+                                translationsStatement.setString(8, gson.toJson(patterns));
+                            else
+                                translationsStatement.setNull(8, Types.VARCHAR);
+                        }
+
+                        var twin = item.getTwinData();
+                        if (twin == null) twin = new TWINData();
+                        twin.ensureValid();
+
+                        translationsStatement.setString(9, twin.getId().toString());
+                        val twinData = (JsonObject) gson.toJsonTree(twin, TWINData.class);
+                        twinData.remove("id");
+                        translationsStatement.setString(10, gson.toJson(twinData));
+
+                        translationsStatement.addBatch();
+                        // A full upload already marks everything as changed
+                        if (changed != null || deleted != null) {
+                            changesStatement.setString(1, twin.getId().toString());
+                            changesStatement.addBatch();
+                        }
+                        if (++savedCount % batchSize == 0) {
+                            translationsStatement.executeBatch();
+                            changesStatement.executeBatch();
+                            Triton.get().getLogger()
+                                    .logInfo(2, "Saved %1/%2 translations to the database", savedCount, total);
+                        }
                     }
-
-                    var twin = item.getTwinData();
-                    if (twin == null) twin = new TWINData();
-                    twin.ensureValid();
-
-                    translationsStatement.setString(9, twin.getId().toString());
-                    val twinData = (JsonObject) gson.toJsonTree(twin, TWINData.class);
-                    twinData.remove("id");
-                    translationsStatement.setString(10, gson.toJson(twinData));
-
-                    translationsStatement.executeUpdate();
                 }
+                translationsStatement.executeBatch();
+                changesStatement.executeBatch();
+                pruneChanges(connection);
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+                lockChanges(connection, false);
             }
 
+            Triton.get().getLogger().logInfo(1, "Saved %1 translations and deleted %2 from the database in %3ms",
+                    savedCount, deletedCount, System.currentTimeMillis() - start);
             return true;
         } catch (SQLException e) {
+            Triton.get().getLogger().logError("Failed to save translations to the database. No changes were " +
+                    "made. Error: %1", e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
 
+    private void lockChanges(Connection connection, boolean lock) throws SQLException {
+        @Cleanup val statement = connection.prepareStatement(lock ? "SELECT GET_LOCK(?, 60)" : "SELECT RELEASE_LOCK(?)");
+        // Lock names are limited to 64 characters
+        val name = "triton." + database + "." + tablePrefix + "changes";
+        statement.setString(1, name.length() > 64 ? name.substring(0, 64) : name);
+        @Cleanup val result = statement.executeQuery();
+        if (lock && (!result.next() || result.getInt(1) != 1))
+            throw new SQLException("Timed out waiting for another server to finish saving translations");
+    }
+
+    private void pruneChanges(Connection connection) throws SQLException {
+        @Cleanup val latestStatement = connection.createStatement();
+        @Cleanup val latestResult = latestStatement
+                .executeQuery("SELECT MAX(`revision`) FROM `" + tablePrefix + "changes`");
+        if (!latestResult.next()) return;
+
+        // Servers that are further behind than this download everything anyway
+        @Cleanup val pruneStatement = connection
+                .prepareStatement("DELETE FROM `" + tablePrefix + "changes` WHERE `revision` <= ?");
+        pruneStatement.setLong(1, latestResult.getLong(1) - MAX_KEPT_CHANGES);
+        pruneStatement.executeUpdate();
+    }
+
     @Override
     public ConcurrentHashMap<String, Collection> downloadFromStorage() {
         try {
-            val collections = new ConcurrentHashMap<String, Collection>();
+            val start = System.currentTimeMillis();
             @Cleanup Connection connection = openConnection();
 
-            @Cleanup val collectionsStatement = connection
-                    .prepareStatement("SELECT name, servers, blacklist FROM `" + tablePrefix + "collections`;");
+            if (revision != -1) {
+                val collections = downloadChanges(connection);
+                if (collections != null) {
+                    writeCache(collections);
+                    Triton.get().getLogger().logInfo(2, "Downloaded the changes from the database in %1ms",
+                            System.currentTimeMillis() - start);
+                    return collections;
+                }
+                Triton.get().getLogger().logInfo(2, "Too many changes since the last download, so downloading " +
+                        "everything from the database");
+            }
+
+            // Read before the translations, so changes made while they're downloaded are downloaded again next time
+            val latestRevision = getLatestRevision(connection);
+            val collections = downloadCollections(connection);
+
+            @Cleanup val translationsStatement = connection
+                    .prepareStatement("SELECT " + TRANSLATION_COLUMNS + " FROM `" + tablePrefix + "translations`;");
 
-            @Cleanup val collectionsResult = collectionsStatement.executeQuery();
+            @Cleanup val translationsResult = translationsStatement.executeQuery();
 
-            while (collectionsResult.next()) {
-                val col = new Collection();
-                col.getMetadata().setServers(gson.fromJson(collectionsResult.getString("servers"), STRING_LIST_TYPE));
-                col.getMetadata().setBlacklist(collectionsResult.getBoolean("blacklist"));
-                collections.put(collectionsResult.getString("name"), col);
+            while (translationsResult.next()) {
+                val item = readItem(translationsResult);
+                val col = collections.get(translationsResult.getString("collection"));
+                if (item != null && col != null)
+                    col.getItems().add(item);
             }
 
+            val token = UUID.randomUUID().toString();
+            for (val collection : collections.values())
+                collection.setRevision(token);
+
+            this.revision = latestRevision;
+            writeCache(collections);
+            Triton.get().getLogger().logInfo(2, "Downloaded everything from the database in %1ms",
+                    System.currentTimeMillis() - start);
+            return collections;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Downloads only the translations that changed since the last download, and applies them to the loaded
+     * collections. The collections that didn't change are reused as they are.
+     *
+     * @return The updated collections, or null if everything has to be downloaded instead.
+     */
+    private ConcurrentHashMap<String, Collection> downloadChanges(Connection connection) throws SQLException {
+        val since = this.revision;
+
+        @Cleanup val boundsStatement = connection.createStatement();
+        @Cleanup val boundsResult = boundsStatement
+                .executeQuery("SELECT MIN(`revision`), MAX(`revision`) FROM `" + tablePrefix + "changes`");
+        if (!boundsResult.next() || boundsResult.getObject(1) == null) {
+            // The table was emptied, so the revisions start over
+            if (since != 0) return null;
+        } else if (boundsResult.getLong(1) > since + 1 || boundsResult.getLong(2) < since) {
+            // The changes right after the last download were already pruned, or the table was recreated
+            return null;
+        }
+
+        @Cleanup val changesStatement = connection
+                .prepareStatement("SELECT `revision`, `twin_id` FROM `" + tablePrefix + "changes` WHERE " +
+                        "`revision` > ? ORDER BY `revision` LIMIT ?");
+        changesStatement.setLong(1, since);
+        changesStatement.setInt(2, MAX_DELTA_CHANGES + 1);
+        @Cleanup val changesResult = changesStatement.executeQuery();
+
+        val changedIds = new HashSet<String>();
+        var latestRevision = since;
+        while (changesResult.next()) {
+            val twinId = changesResult.getString("twin_id");
+            // Either everything was replaced, or so much changed that it's faster to download everything
+            if (twinId == null || changedIds.size() >= MAX_DELTA_CHANGES) return null;
+            changedIds.add(twinId);
+            latestRevision = changesResult.getLong("revision");
+        }
+
+        // Changed and new translations by collection name. Deleted translations aren't found anymore.
+        val changedItems = new HashMap<String, List<LanguageItem>>();
+        val ids = new ArrayList<String>(changedIds);
+        val batchSize = Triton.get().getConfig().getDatabaseBatchSize();
+        for (var i = 0; i < ids.size(); i += batchSize) {
+            val batch = ids.subList(i, Math.min(ids.size(), i + batchSize));
             @Cleanup val translationsStatement = connection
-                    .prepareStatement("SELECT collection, type, field_key, content, blacklist, servers, locations, " +
-                            "patterns, twin_id, twin_data FROM `" + tablePrefix + "translations`;");
+                    .prepareStatement("SELECT " + TRANSLATION_COLUMNS + " FROM `" + tablePrefix + "translations` " +
+                            "WHERE `twin_id` IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")");
+            for (var j = 0; j < batch.size(); j++)
+                translationsStatement.setString(j + 1, batch.get(j));
 
             @Cleanup val translationsResult = translationsStatement.executeQuery();
-
             while (translationsResult.next()) {
-                val type = translationsResult.getString("type");
-                if (type.equalsIgnoreCase("text")) {
-                    val item = new LanguageText();
+                val item = readItem(translationsResult);
+                if (item != null)
+                    changedItems.computeIfAbsent(translationsResult.getString("collection"), k -> new ArrayList<>())
+                            .add(item);
+            }
+        }
 
-                    item.setKey(translationsResult.getString("field_key"));
+        // The collections table is small, so it's always downloaded to pick up changes to their metadata
+        val collections = downloadCollections(connection);
+        val previousCollections = this.collections;
+        val token = UUID.randomUUID().toString();
+        for (val entry : collections.entrySet()) {
+            val collection = entry.getValue();
+            val previous = previousCollections.get(entry.getKey());
+            val added = changedItems.getOrDefault(entry.getKey(), Collections.emptyList());
+
+            if (previous != null && added.isEmpty() && previous.getMetadata().equals(collection.getMetadata())
+                    && previous.getItems().stream().noneMatch(item -> isChanged(item, changedIds))) {
+                entry.setValue(previous);
+                continue;
+            }
 
-                    item.setLanguages(gson.fromJson(translationsResult.getString("content"), TEXT_TYPE));
-                    val blacklist = translationsResult.getObject("blacklist");
-                    if (blacklist != null)
-                        item.setBlacklist((boolean) blacklist);
+            if (previous != null)
+                for (val item : previous.getItems())
+                    if (!isChanged(item, changedIds))
+                        collection.getItems().add(item);
+            collection.getItems().addAll(added);
+            collection.setRevision(token);
+        }
 
-                    val servers = translationsResult.getString("servers");
-                    if (servers != null)
-                        item.setServers(gson.fromJson(servers, STRING_LIST_TYPE));
+        Triton.get().getLogger().logInfo(2, "Downloaded %1 changed translations from the database",
+                changedIds.size());
+        this.revision = latestRevision;
+        return collections;
+    }
 
-                    val patterns = translationsResult.getString("patterns");
-                    if (patterns != null)
-                        item.setPatterns(gson.fromJson(patterns, STRING_LIST_TYPE));
+    private static boolean isChanged(LanguageItem item, Set<String> changedIds) {
+        return item.getTwinData() != null && item.getTwinData().getId() != null
+                && changedIds.contains(item.getTwinData().getId().toString());
+    }
 
-                    val twinDataString = translationsResult.getString("twin_data");
-                    val twinData = gson.fromJson(twinDataString, TWINData.class);
+    private long getLatestRevision(Connection connection) throws SQLException {
+        @Cleanup val statement = connection.createStatement();
+        @Cleanup val result = statement
+                .executeQuery("SELECT COALESCE(MAX(`revision`), 0) FROM `" + tablePrefix + "changes`");
+        return result.next() ? result.getLong(1) : 0;
+    }
 
-                    val twinId = translationsResult.getString("twin_id");
-                    twinData.setId(UUID.fromString(twinId));
+    /**
+     * @return The collections, without their items.
+     */
+    private ConcurrentHashMap<String, Collection> downloadCollections(Connection connection) throws SQLException {
+        val collections = new ConcurrentHashMap<String, Collection>();
 
-                    item.setTwinData(twinData);
+        @Cleanup val collectionsStatement = connection
+                .prepareStatement("SELECT name, servers, blacklist FROM `" + tablePrefix + "collections`;");
 
-                    val col = collections.get(translationsResult.getString("collection"));
-                    if (col != null)
-                        col.getItems().add(item);
-                } else if (type.equalsIgnoreCase("sign")) {
-                    val item = new LanguageSign();
+        @Cleanup val collectionsResult = collectionsStatement.executeQuery();
 
-                    item.setKey(translationsResult.getString("field_key"));
+        while (collectionsResult.next()) {
+            val col = new Collection();
+            col.getMetadata().setServers(gson.fromJson(collectionsResult.getString("servers"), STRING_LIST_TYPE));
+            col.getMetadata().setBlacklist(collectionsResult.getBoolean("blacklist"));
+            collections.put(collectionsResult.getString("name"), col);
+        }
+        return collections;
+    }
 
-                    item.setLines(gson.fromJson(translationsResult.getString("content"), SIGN_TYPE));
+    /**
+     * @return The translation in the current row of the result, or null if it has an unknown type.
+     */
+    private LanguageItem readItem(ResultSet translationsResult) throws SQLException {
+        val type = translationsResult.getString("type");
+        if (type.equalsIgnoreCase("text")) {
+            val item = new LanguageText();
 
-                    val locations = translationsResult.getString("locations");
-                    if (locations != null)
-                        item.setLocations(gson.fromJson(locations, LOCATIONS_TYPE));
+            item.setKey(translationsResult.getString("field_key"));
 
-                    val twinDataString = translationsResult.getString("twin_data");
-                    val twinData = gson.fromJson(twinDataString, TWINData.class);
+            item.setLanguages(gson.fromJson(translationsResult.getString("content"), TEXT_TYPE));
+            val blacklist = translationsResult.getObject("blacklist");
+            if (blacklist != null)
+                item.setBlacklist((boolean) blacklist);
 
-                    val twinId = translationsResult.getString("twin_id");
-                    twinData.setId(UUID.fromString(twinId));
+            val servers = translationsResult.getString("servers");
+            if (servers != null)
+                item.setServers(gson.fromJson(servers, STRING_LIST_TYPE));
 
-                    item.setTwinData(twinData);
+            val patterns = translationsResult.getString("patterns");
+            if (patterns != null)
+                item.setPatterns(gson.fromJson(patterns, STRING_LIST_TYPE));
 
-                    val col = collections.get(translationsResult.getString("collection"));
-                    if (col != null)
-                        col.getItems().add(item);
-                }
-            }
+            val twinDataString = translationsResult.getString("twin_data");
+            val twinData = gson.fromJson(twinDataString, TWINData.class);
 
-            return collections;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+            val twinId = translationsResult.getString("twin_id");
+            twinData.setId(UUID.fromString(twinId));
+
+            item.setTwinData(twinData);
+            return item;
+        } else if (type.equalsIgnoreCase("sign")) {
+            val item = new LanguageSign();
+
+            item.setKey(translationsResult.getString("field_key"));
+
+            item.setLines(gson.fromJson(translationsResult.getString("content"), SIGN_TYPE));
+
+            val locations = translationsResult.getString("locations");
+            if (locations != null)
+                item.setLocations(gson.fromJson(locations, LOCATIONS_TYPE));
+
+            val twinDataString = translationsResult.getString("twin_data");
+            val twinData = gson.fromJson(twinDataString, TWINData.class);
+
+            val twinId = translationsResult.getString("twin_id");
+            twinData.setId(UUID.fromString(twinId));
+
+            item.setTwinData(twinData);
+            return item;
         }
+        return null;
     }
 
     private String toJsonOrDefault(Object obj, String def) {
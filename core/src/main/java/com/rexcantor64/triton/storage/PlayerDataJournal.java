@@ -0,0 +1,197 @@
+package com.rexcantor64.triton.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.rexcantor64.triton.logger.TritonLogger;
+import com.rexcantor64.triton.utils.FileUtils;
+import lombok.Cleanup;
+import lombok.Getter;
+import lombok.val;
+import lombok.var;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the languages of players in players.json, plus a journal with the changes made since players.json
+ * was last written.
+ * <p>
+ * Each change is appended to the journal as a line with a JSON array of the key and the language, so saving
+ * a language doesn't rewrite the language of every player. When the journal gets too long, it's compacted:
+ * players.json is written to a temporary file that atomically replaces it, and then the journal is emptied.
+ * A crash in between is harmless, because replaying the journal on top of the new players.json gives the
+ * same result. A partially written line at the end of the journal, from a crash while appending, is ignored,
+ * and the next changes are appended after it on a new line.
+ * <p>
+ * Not thread-safe: {@link Storage} only saves languages from one thread at a time.
+ */
+public class PlayerDataJournal {
+
+    private static final Gson gson = new Gson();
+    private static final Type HASH_MAP_TYPE = new TypeToken<ConcurrentHashMap<String, String>>() {
+    }.getType();
+    private static final Type ENTRY_TYPE = new TypeToken<String[]>() {
+    }.getType();
+    /**
+     * The journal is never compacted while it's shorter than this, even if there are only a few players.
+     */
+    private static final int MIN_COMPACT_ENTRIES = 10000;
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private final boolean sync;
+    private final TritonLogger logger;
+    /**
+     * The number of changes in the journal.
+     */
+    @Getter
+    private int journalEntries = 0;
+    /**
+     * The number of invalid lines ignored by the last {@link #load()}.
+     */
+    @Getter
+    private int skippedLines = 0;
+
+    /**
+     * @param folder The folder with players.json.
+     * @param sync   Whether to wait for the journal to be written to disk every time changes are appended.
+     *               If false, the operating system decides when to write them, so a power loss can lose
+     *               the last few seconds of changes.
+     * @param logger The logger to report invalid files and lines to.
+     */
+    public PlayerDataJournal(File folder, boolean sync, TritonLogger logger) {
+        this.snapshotFile = new File(folder, "players.json");
+        this.journalFile = new File(folder, "players.journal");
+        this.sync = sync;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads players.json and replays the journal on top of it.
+     *
+     * @return The languages, by UUID or IP (with dashes instead of dots).
+     */
+    public ConcurrentHashMap<String, String> load() {
+        var languages = new ConcurrentHashMap<String, String>();
+        if (snapshotFile.isFile()) {
+            try {
+                @Cleanup val reader = FileUtils.getReaderFromFile(snapshotFile);
+                ConcurrentHashMap<String, String> snapshot = gson.fromJson(reader, HASH_MAP_TYPE);
+                if (snapshot != null) languages = snapshot;
+            } catch (JsonParseException | IOException e) {
+                logger.logError("Failed load players.json. JSON is not valid: %1", e.getMessage());
+            }
+        }
+
+        journalEntries = 0;
+        skippedLines = 0;
+        if (!journalFile.isFile()) return languages;
+
+        try {
+            @Cleanup val reader = new BufferedReader(FileUtils.getReaderFromFile(journalFile));
+            String line;
+            var lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) continue;
+                try {
+                    String[] entry = gson.fromJson(line, ENTRY_TYPE);
+                    if (entry == null || entry.length != 2 || entry[0] == null || entry[1] == null)
+                        throw new JsonParseException("expected a key and a language");
+                    languages.put(entry[0], entry[1]);
+                    journalEntries++;
+                } catch (JsonParseException e) {
+                    skippedLines++;
+                    logger.logWarning(1, "Ignoring line %1 of players.journal: %2", lineNumber, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.logError("Failed to read players.journal: %1", e.getMessage());
+        }
+        return languages;
+    }
+
+    /**
+     * Appends changes to the journal.
+     *
+     * @param changes The new languages, by UUID or IP (with dashes instead of dots).
+     * @throws IOException If the journal can't be written. Some of the changes might have been written anyway.
+     */
+    public void append(Map<String, String> changes) throws IOException {
+        val lines = new StringBuilder();
+        for (val entry : changes.entrySet())
+            lines.append(gson.toJson(new String[]{entry.getKey(), entry.getValue()})).append('\n');
+
+        @Cleanup val file = new RandomAccessFile(journalFile, "rw");
+        val length = file.length();
+        if (length > 0) {
+            // A crash while appending can leave a partial line at the end, which must not be joined with
+            // the first new line, or both would be ignored when the journal is replayed
+            file.seek(length - 1);
+            if (file.read() != '\n') file.write('\n');
+        }
+        file.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        if (sync) file.getFD().sync();
+        journalEntries += changes.size();
+    }
+
+    /**
+     * @param size The number of languages.
+     * @return Whether the journal is long enough, compared to the number of languages, to be worth compacting.
+     */
+    public boolean shouldCompact(int size) {
+        return journalEntries >= Math.max(MIN_COMPACT_ENTRIES, size);
+    }
+
+    /**
+     * Replaces players.json with the given languages and empties the journal.
+     *
+     * @param languages All the languages, by UUID or IP (with dashes instead of dots), including the ones in
+     *                  the journal.
+     * @throws IOException If players.json can't be written. The journal is kept in that case.
+     */
+    public void compact(Map<String, String> languages) throws IOException {
+        val tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tempFile)) {
+            val writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(languages, writer);
+            writer.flush();
+            // Otherwise, the rename could reach the disk before the content does
+            out.getFD().sync();
+        }
+        try {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Otherwise, the journal could be deleted from the disk before the rename reaches it
+        syncDirectory(snapshotFile.getParentFile());
+
+        Files.deleteIfExists(journalFile.toPath());
+        journalEntries = 0;
+    }
+
+    private static void syncDirectory(File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms (e.g. Windows) can't open directories, but they don't need this either
+        }
+    }
+
+}
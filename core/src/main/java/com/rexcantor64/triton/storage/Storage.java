@@ -1,5 +1,6 @@
 package com.rexcantor64.triton.storage;
 
+import com.rexcantor64.triton.Triton;
 import com.rexcantor64.triton.api.language.Language;
 import com.rexcantor64.triton.language.item.Collection;
 import com.rexcantor64.triton.language.item.LanguageItem;
@@ -11,9 +12,14 @@ import lombok.Setter;
 import lombok.val;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public abstract class Storage {
@@ -22,11 +28,168 @@ public abstract class Storage {
     @Setter
     protected ConcurrentHashMap<String, Collection> collections = new ConcurrentHashMap<>();
 
+    /**
+     * Languages waiting to be saved, by player UUID or IP. Only the latest language of each one is saved,
+     * so players changing their language several times (or many players joining at once) only cause one save.
+     */
+    private final ConcurrentHashMap<String, String> pendingLanguages = new ConcurrentHashMap<>();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final AtomicBoolean immediateSaveScheduled = new AtomicBoolean();
+    private final Object saveLock = new Object();
+    private final ScheduledThreadPoolExecutor languageSaver = new ScheduledThreadPoolExecutor(1, r -> {
+        val thread = new Thread(r, "Triton Player Data Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Guards {@link #closed} and {@link #replacement}, so languages set while the storage is being replaced
+     * are either transferred or forwarded to the new storage, but never both or neither.
+     */
+    private final Object closeLock = new Object();
+    private boolean closed = false;
+    /**
+     * The storage that replaced this one after it was closed, if any.
+     */
+    private Storage replacement;
+    /**
+     * How long the last save of the pending languages took, in milliseconds.
+     */
+    @Getter
+    private volatile long lastLanguageSaveDuration;
+
     public abstract Language getLanguageFromIp(String ip);
 
     public abstract Language getLanguage(LanguagePlayer lp);
 
-    public abstract void setLanguage(UUID uuid, String ip, Language newLanguage);
+    /**
+     * Saves the language of a player and/or of an IP.
+     * The language is saved in the background a while later, together with the other languages that changed
+     * in the meantime, but {@link #getLanguage(LanguagePlayer)} and {@link #getLanguageFromIp(String)} return
+     * it right away.
+     * <p>
+     * If this storage has been closed, the language is saved by the storage that replaced it instead.
+     *
+     * @param uuid        The UUID of the player, or null to only save the language of the IP.
+     * @param ip          The IP of the player, or null to only save the language of the player.
+     * @param newLanguage The new language.
+     */
+    public void setLanguage(UUID uuid, String ip, Language newLanguage) {
+        synchronized (closeLock) {
+            if (replacement != null) {
+                replacement.setLanguage(uuid, ip, newLanguage);
+                return;
+            }
+
+            if (uuid != null)
+                pendingLanguages.put(uuid.toString(), newLanguage.getName());
+            if (ip != null && Triton.get().getConf().isMotd())
+                pendingLanguages.put(ip, newLanguage.getName());
+            // Once closed, they're kept until the new storage is ready, see transferPendingLanguages
+            if (closed) return;
+
+            if (pendingLanguages.size() >= Triton.get().getConfig().getPlayerDataBatchSize()) {
+                if (immediateSaveScheduled.compareAndSet(false, true))
+                    languageSaver.execute(this::saveLanguages);
+            } else {
+                scheduleSave();
+            }
+        }
+    }
+
+    private void scheduleSave() {
+        synchronized (closeLock) {
+            if (closed) return;
+            if (saveScheduled.compareAndSet(false, true))
+                languageSaver.schedule(this::saveLanguages, Triton.get().getConfig().getPlayerDataSaveInterval(),
+                        TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param key The UUID of a player or an IP.
+     * @return The language waiting to be saved for that player or IP, or null if there's none.
+     */
+    protected String getPendingLanguage(String key) {
+        return pendingLanguages.get(key);
+    }
+
+    public int getPendingLanguageCount() {
+        return pendingLanguages.size();
+    }
+
+    /**
+     * Saves the languages that are waiting to be saved right away, in the current thread.
+     * If saving fails, they're kept and saved again later.
+     */
+    public void saveLanguages() {
+        synchronized (saveLock) {
+            saveScheduled.set(false);
+            immediateSaveScheduled.set(false);
+            if (pendingLanguages.isEmpty()) return;
+
+            val start = System.currentTimeMillis();
+            val languages = new HashMap<String, String>(pendingLanguages);
+            try {
+                saveLanguages(languages);
+            } catch (Exception e) {
+                Triton.get().getLogger().logError("Failed to save the language of %1 players! Trying again " +
+                        "later. Error: %2", languages.size(), e.getMessage());
+                e.printStackTrace();
+                // Once closed, they're given to the storage that replaces this one instead
+                scheduleSave();
+                return;
+            }
+
+            // Languages that changed again while saving are saved next time
+            for (val entry : languages.entrySet())
+                pendingLanguages.remove(entry.getKey(), entry.getValue());
+
+            lastLanguageSaveDuration = System.currentTimeMillis() - start;
+            Triton.get().getLogger().logInfo(2, "Saved the language of %1 players in %2ms (%3 waiting)",
+                    languages.size(), lastLanguageSaveDuration, pendingLanguages.size());
+        }
+    }
+
+    /**
+     * Saves the given languages at once.
+     *
+     * @param languages Language names by player UUID or IP.
+     * @throws Exception If the languages couldn't be saved.
+     */
+    protected abstract void saveLanguages(Map<String, String> languages) throws Exception;
+
+    /**
+     * Saves everything that is waiting to be saved and stops the background saves. Must be called before
+     * the storage is replaced or the plugin is disabled.
+     * <p>
+     * Languages set after this are kept until they're {@link #transferPendingLanguages(Storage) transferred}
+     * to the new storage, so this storage never writes after the new one has loaded.
+     */
+    public void close() {
+        synchronized (closeLock) {
+            closed = true;
+        }
+        // A save that is running is allowed to finish, but scheduled ones are dropped, since they're done below
+        languageSaver.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        languageSaver.shutdown();
+        saveLanguages();
+    }
+
+    /**
+     * Gives the languages that are waiting to be saved to the storage that replaced this closed storage,
+     * and forwards the languages set from now on to it.
+     *
+     * @param newStorage The new storage, already loaded.
+     */
+    public void transferPendingLanguages(Storage newStorage) {
+        synchronized (closeLock) {
+            replacement = newStorage;
+            for (val entry : pendingLanguages.entrySet())
+                newStorage.pendingLanguages.putIfAbsent(entry.getKey(), entry.getValue());
+            pendingLanguages.clear();
+        }
+        newStorage.scheduleSave();
+    }
 
     public abstract void load();
 
@@ -0,0 +1,131 @@
+package com.rexcantor64.triton.storage;
+
+import com.rexcantor64.triton.Triton;
+import lombok.val;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the translations folder and reloads the collections whose files are created, changed or deleted.
+ * <p>
+ * Editors and file transfers usually write a file several times in a row, so changes are only applied once
+ * the folder has been quiet for {@link #DEBOUNCE_MILLIS}. Only the affected collections are parsed again,
+ * and the translations of the other ones are reused by {@link com.rexcantor64.triton.language.LanguageManager#setup()}.
+ */
+public class TranslationsWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final LocalStorage storage;
+    private final File folder;
+    private final WatchService watchService;
+
+    private TranslationsWatcher(LocalStorage storage, File folder, WatchService watchService) {
+        this.storage = storage;
+        this.folder = folder;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Starts watching the translations folder in a new thread.
+     *
+     * @param storage The storage the collections are loaded into.
+     * @param folder  The translations folder.
+     * @return The watcher, which must be {@link #stop() stopped} when the storage is replaced.
+     * @throws IOException If the folder can't be watched.
+     */
+    public static TranslationsWatcher start(LocalStorage storage, File folder) throws IOException {
+        val watchService = FileSystems.getDefault().newWatchService();
+        try {
+            folder.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+
+        val watcher = new TranslationsWatcher(storage, folder, watchService);
+        val thread = new Thread(watcher::run, "Triton Translations Watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    public void stop() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            Triton.get().getLogger().logWarning(2, "Failed to stop watching the translations folder: %1",
+                    e.getMessage());
+        }
+    }
+
+    private void run() {
+        val pending = new HashSet<String>();
+        try {
+            while (true) {
+                val key = pending.isEmpty() ? watchService.take() :
+                        watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    // Nothing else changed for a while, so the files should be completely written by now
+                    apply(pending);
+                    pending.clear();
+                    continue;
+                }
+
+                for (val event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Some events were lost, so check every collection
+                        pending.addAll(storage.getCollections().keySet());
+                        val files = folder.listFiles();
+                        if (files != null)
+                            for (val file : files)
+                                addCollection(pending, file.getName());
+                        continue;
+                    }
+                    addCollection(pending, ((Path) event.context()).getFileName().toString());
+                }
+
+                if (!key.reset()) {
+                    Triton.get().getLogger().logWarning(1, "Stopped watching the translations folder because it " +
+                            "is no longer accessible. Reload the plugin after creating it again.");
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignore) {
+            // The watcher was stopped
+        }
+    }
+
+    private static void addCollection(Set<String> collections, String fileName) {
+        if (fileName.endsWith(".json"))
+            collections.add(fileName.substring(0, fileName.length() - 5));
+    }
+
+    private void apply(Set<String> collections) {
+        try {
+            val start = System.currentTimeMillis();
+            val changed = storage.reloadCollections(collections);
+            if (changed == 0) return;
+
+            Triton.get().refreshTranslations();
+
+            Triton.get().getLogger().logInfo(1, "Reloaded %1 changed collections from the translations folder " +
+                    "in %2ms", changed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            Triton.get().getLogger().logError("Failed to reload changed collections from the translations " +
+                    "folder: %1", e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+}
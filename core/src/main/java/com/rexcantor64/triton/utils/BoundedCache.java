@@ -0,0 +1,171 @@
+package com.rexcantor64.triton.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A thread-safe cache bounded by the total weight of its entries.
+ * <p>
+ * Entries are split into independently locked segments, each one evicting its least recently used
+ * entries when it goes over its share of the maximum weight.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] segments;
+    private final ToIntBiFunction<K, V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumWeight The maximum sum of the weights of all entries.
+     * @param weigher       A function that returns the weight of an entry. Must be constant for the same entry.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(long maximumWeight, ToIntBiFunction<K, V> weigher) {
+        this.weigher = weigher;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++)
+            segments[i] = new Segment<>(Math.max(1, maximumWeight / SEGMENT_COUNT));
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Get a value from the cache, updating the hit/miss statistics.
+     *
+     * @param key The key of the entry.
+     * @return The cached value, or null if not present.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.map.get(key);
+        }
+        if (value == null) misses.increment();
+        else hits.increment();
+        return value;
+    }
+
+    /**
+     * Add or replace an entry in the cache, evicting the least recently used entries if needed.
+     *
+     * @param key   The key of the entry.
+     * @param value The value of the entry. Must not be null.
+     */
+    public void put(K key, V value) {
+        int weight = weigher.applyAsInt(key, value);
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            // Entries larger than a segment would evict everything else, so don't even bother
+            if (weight > segment.maximumWeight) return;
+
+            V previous = segment.map.put(key, value);
+            if (previous != null) segment.weight -= weigher.applyAsInt(key, previous);
+            segment.weight += weight;
+
+            Iterator<Map.Entry<K, V>> iterator = segment.map.entrySet().iterator();
+            while (segment.weight > segment.maximumWeight && iterator.hasNext()) {
+                Map.Entry<K, V> eldest = iterator.next();
+                segment.weight -= weigher.applyAsInt(eldest.getKey(), eldest.getValue());
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove an entry from the cache.
+     *
+     * @param key The key of the entry.
+     */
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V previous = segment.map.remove(key);
+            if (previous != null) segment.weight -= weigher.applyAsInt(key, previous);
+        }
+    }
+
+    /**
+     * Remove all entries from the cache. Statistics are kept.
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments)
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        return size;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Segment<K, V> segment : segments)
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        return weight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The ratio of lookups that were hits, between 0 and 1.
+     */
+    public double hitRate() {
+        long hits = hitCount();
+        long total = hits + missCount();
+        return total == 0 ? 1 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d, weight=%d, hits=%d, misses=%d, hitRate=%.2f%%, evictions=%d", size(), weight(),
+                hitCount(), missCount(), hitRate() * 100, evictionCount());
+    }
+
+    private static class Segment<K, V> {
+        private final long maximumWeight;
+        private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight = 0;
+
+        private Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+    }
+
+}
@@ -3,9 +3,12 @@ package com.rexcantor64.triton.utils;
 import com.google.common.io.ByteStreams;
 import com.rexcantor64.triton.Triton;
 import lombok.SneakyThrows;
+import lombok.val;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 
 public class FileUtils {
 
@@ -50,4 +53,48 @@ public class FileUtils {
         return new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
     }
 
+    /**
+     * @return A digest to be given the content of a file, to get its {@link #hash(MessageDigest) hash}.
+     */
+    @SneakyThrows
+    public static MessageDigest createDigest() {
+        return MessageDigest.getInstance("SHA-1");
+    }
+
+    /**
+     * @param digest A digest created by {@link #createDigest()} that was given the content of a file.
+     * @return A hex string that identifies the content, for detecting changes.
+     */
+    public static String hash(MessageDigest digest) {
+        val bytes = digest.digest();
+        val result = new StringBuilder(bytes.length * 2);
+        for (val b : bytes)
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return result.toString();
+    }
+
+    /**
+     * Same as {@link #hash(MessageDigest)}, but reading the file a few bytes at a time.
+     *
+     * @param file The file.
+     * @return A hex string that identifies the content of the file, for detecting changes.
+     * @throws IOException If the file can't be read.
+     */
+    public static String hash(File file) throws IOException {
+        val digest = createDigest();
+        try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+            skipToEnd(in);
+        }
+        return hash(digest);
+    }
+
+    /**
+     * Reads and discards everything left in a stream, e.g. so a {@link DigestInputStream} sees all of it.
+     */
+    public static void skipToEnd(InputStream in) throws IOException {
+        val buffer = new byte[8192];
+        //noinspection StatementWithEmptyBody
+        while (in.read(buffer) != -1) ;
+    }
+
 }
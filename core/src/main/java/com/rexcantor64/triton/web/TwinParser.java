@@ -36,6 +36,9 @@ public class TwinParser {
         val changedList = new ArrayList<LanguageItem>();
         val deletedList = new ArrayList<LanguageItem>();
 
+        // The collections are changed in place, so they no longer match what was loaded from storage
+        collections.values().forEach(collection -> collection.setRevision(null));
+
         // Delete
         collections.values().forEach(collection -> collection.setItems(collection.getItems().stream()
                 .filter(item -> {
@@ -1,16 +1,280 @@
 package com.rexcantor64.triton.wrappers;
 
 import lombok.val;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentBuilder;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
 import net.md_5.bungee.chat.ComponentSerializer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AdventureComponentWrapper {
 
+    /**
+     * Converts an Adventure component to BungeeCord components.
+     * Text, translatable and keybind components are converted directly, while anything else
+     * (e.g. scores or items in hover events) goes through JSON.
+     *
+     * @param comp The Adventure component.
+     * @return The equivalent BungeeCord components.
+     */
     public static BaseComponent[] toMd5Component(Object comp) {
-        val json = GsonComponentSerializer.gson().serialize((Component) comp);
+        val component = (Component) comp;
+        val result = convert(component);
+        if (result != null) return new BaseComponent[]{result};
+
+        val json = GsonComponentSerializer.gson().serialize(component);
         return ComponentSerializer.parse(json);
     }
 
+    /**
+     * @return The converted component, or null if it has something that can't be converted directly.
+     */
+    private static BaseComponent convert(Component component) {
+        final BaseComponent result;
+        if (component instanceof net.kyori.adventure.text.TextComponent) {
+            result = new net.md_5.bungee.api.chat.TextComponent(((net.kyori.adventure.text.TextComponent) component)
+                    .content());
+        } else if (component instanceof TranslatableComponent) {
+            val translatable = (TranslatableComponent) component;
+            val md5Translatable = new net.md_5.bungee.api.chat.TranslatableComponent(translatable.key());
+            if (!translatable.args().isEmpty()) {
+                val with = new ArrayList<BaseComponent>(translatable.args().size());
+                for (val arg : translatable.args()) {
+                    val convertedArg = convert(arg);
+                    if (convertedArg == null) return null;
+                    with.add(convertedArg);
+                }
+                md5Translatable.setWith(with);
+            }
+            result = md5Translatable;
+        } else if (component instanceof KeybindComponent) {
+            result = new net.md_5.bungee.api.chat.KeybindComponent(((KeybindComponent) component).keybind());
+        } else {
+            return null;
+        }
+
+        val color = component.color();
+        if (color != null)
+            result.setColor(ChatColor.of(color instanceof NamedTextColor ?
+                    NamedTextColor.NAMES.key((NamedTextColor) color) : color.asHexString()));
+        result.setBold(toBoolean(component.decoration(TextDecoration.BOLD)));
+        result.setItalic(toBoolean(component.decoration(TextDecoration.ITALIC)));
+        result.setUnderlined(toBoolean(component.decoration(TextDecoration.UNDERLINED)));
+        result.setStrikethrough(toBoolean(component.decoration(TextDecoration.STRIKETHROUGH)));
+        result.setObfuscated(toBoolean(component.decoration(TextDecoration.OBFUSCATED)));
+        result.setInsertion(component.insertion());
+        if (component.style().font() != null)
+            result.setFont(component.style().font().asString());
+
+        val clickEvent = component.clickEvent();
+        if (clickEvent != null)
+            result.setClickEvent(new net.md_5.bungee.api.chat.ClickEvent(net.md_5.bungee.api.chat.ClickEvent.Action
+                    .valueOf(clickEvent.action().name()), clickEvent.value()));
+
+        val hoverEvent = component.hoverEvent();
+        if (hoverEvent != null) {
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) return null;
+            val hoverText = convert((Component) hoverEvent.value());
+            if (hoverText == null) return null;
+            result.setHoverEvent(new net.md_5.bungee.api.chat.HoverEvent(net.md_5.bungee.api.chat.HoverEvent.Action
+                    .SHOW_TEXT, new Text(new BaseComponent[]{hoverText})));
+        }
+
+        if (!component.children().isEmpty()) {
+            val extra = new ArrayList<BaseComponent>(component.children().size());
+            for (val child : component.children()) {
+                val convertedChild = convert(child);
+                if (convertedChild == null) return null;
+                extra.add(convertedChild);
+            }
+            result.setExtra(extra);
+        }
+        return result;
+    }
+
+    private static Boolean toBoolean(TextDecoration.State state) {
+        if (state == TextDecoration.State.NOT_SET) return null;
+        return state == TextDecoration.State.TRUE;
+    }
+
+    /**
+     * Converts a hover event of an Adventure component to a BungeeCord hover event.
+     *
+     * @param hoverEvent The Adventure hover event.
+     * @return The equivalent BungeeCord hover event, or null if it doesn't show text.
+     */
+    public static net.md_5.bungee.api.chat.HoverEvent toMd5HoverEvent(HoverEvent<?> hoverEvent) {
+        if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) return null;
+        return new net.md_5.bungee.api.chat.HoverEvent(net.md_5.bungee.api.chat.HoverEvent.Action.SHOW_TEXT,
+                new Text(toMd5Component(hoverEvent.value())));
+    }
+
+    /**
+     * Converts BungeeCord components to an Adventure component.
+     * Text, translatable and keybind components are converted directly, while anything else
+     * (e.g. scores or items in hover events) goes through JSON.
+     *
+     * @param components The BungeeCord components.
+     * @return The equivalent Adventure component.
+     */
+    public static Component fromMd5Component(BaseComponent... components) {
+        val children = new ArrayList<Component>(components.length);
+        for (val component : components) {
+            val converted = convert(component);
+            if (converted == null)
+                return GsonComponentSerializer.gson().deserialize(ComponentSerializer.toString(components));
+            children.add(converted);
+        }
+        if (children.size() == 1) return children.get(0);
+        return Component.text().append(children).build();
+    }
+
+    /**
+     * @return The converted component, or null if it has something that can't be converted directly.
+     */
+    private static Component convert(BaseComponent component) {
+        final ComponentBuilder<?, ?> builder;
+        if (component instanceof net.md_5.bungee.api.chat.TextComponent) {
+            builder = Component.text().content(((net.md_5.bungee.api.chat.TextComponent) component).getText());
+        } else if (component instanceof net.md_5.bungee.api.chat.TranslatableComponent) {
+            val translatable = (net.md_5.bungee.api.chat.TranslatableComponent) component;
+            val args = new ArrayList<Component>();
+            if (translatable.getWith() != null) {
+                for (val arg : translatable.getWith()) {
+                    val convertedArg = convert(arg);
+                    if (convertedArg == null) return null;
+                    args.add(convertedArg);
+                }
+            }
+            builder = Component.translatable().key(translatable.getTranslate()).args(args);
+        } else if (component instanceof net.md_5.bungee.api.chat.KeybindComponent) {
+            builder = Component.keybind().keybind(((net.md_5.bungee.api.chat.KeybindComponent) component).getKeybind());
+        } else {
+            return null;
+        }
+
+        val style = Style.style();
+        if (component.getColorRaw() != null) style.color(toTextColor(component.getColorRaw()));
+        style.decoration(TextDecoration.BOLD, TextDecoration.State.byBoolean(component.isBoldRaw()));
+        style.decoration(TextDecoration.ITALIC, TextDecoration.State.byBoolean(component.isItalicRaw()));
+        style.decoration(TextDecoration.UNDERLINED, TextDecoration.State.byBoolean(component.isUnderlinedRaw()));
+        style.decoration(TextDecoration.STRIKETHROUGH, TextDecoration.State.byBoolean(component.isStrikethroughRaw()));
+        style.decoration(TextDecoration.OBFUSCATED, TextDecoration.State.byBoolean(component.isObfuscatedRaw()));
+        style.insertion(component.getInsertion());
+        if (component.getFontRaw() != null) style.font(Key.key(component.getFontRaw()));
+
+        val clickEvent = component.getClickEvent();
+        if (clickEvent != null)
+            style.clickEvent(ClickEvent.clickEvent(ClickEvent.Action.valueOf(clickEvent.getAction().name()),
+                    clickEvent.getValue()));
+
+        if (component.getHoverEvent() != null) {
+            val hoverEvent = fromMd5HoverEvent(component.getHoverEvent());
+            if (hoverEvent == null) return null;
+            style.hoverEvent(hoverEvent);
+        }
+        builder.style(style.build());
+
+        if (component.getExtra() != null) {
+            for (val child : component.getExtra()) {
+                val convertedChild = convert(child);
+                if (convertedChild == null) return null;
+                builder.append(convertedChild);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts a BungeeCord hover event to an Adventure hover event.
+     *
+     * @param hoverEvent The BungeeCord hover event.
+     * @return The equivalent Adventure hover event, or null if it doesn't show text.
+     */
+    public static HoverEvent<Component> fromMd5HoverEvent(net.md_5.bungee.api.chat.HoverEvent hoverEvent) {
+        if (hoverEvent.getAction() != net.md_5.bungee.api.chat.HoverEvent.Action.SHOW_TEXT) return null;
+        val texts = new ArrayList<Component>();
+        for (val content : hoverEvent.getContents()) {
+            if (!(content instanceof Text)) return null;
+            val value = ((Text) content).getValue();
+            if (value instanceof BaseComponent[])
+                texts.add(fromMd5Component((BaseComponent[]) value));
+            else
+                texts.add(Component.text(String.valueOf(value)));
+        }
+        return HoverEvent.showText(texts.size() == 1 ? texts.get(0) : Component.text().append(texts).build());
+    }
+
+    /**
+     * @param color A BungeeCord color.
+     * @return The equivalent Adventure color, or null if it's a formatting code instead of a color.
+     */
+    public static TextColor toTextColor(ChatColor color) {
+        val name = color.getName();
+        if (name.startsWith("#")) return TextColor.fromHexString(name);
+        return NamedTextColor.NAMES.value(name);
+    }
+
+    /**
+     * Collects all the text of an Adventure component, so it can be checked for placeholders
+     * without converting the component.
+     *
+     * @param comp      The Adventure component.
+     * @param plainText Where to append the text of the component and its children.
+     * @param strings   Where to add any other text, such as click event values, hover texts and translatable arguments.
+     * @return False if the component can't be checked without converting it, because it has links
+     * (which might have been added by Triton) or content that isn't plain text (e.g. items in hover events).
+     */
+    public static boolean collectText(Object comp, StringBuilder plainText, List<String> strings) {
+        val component = (Component) comp;
+        if (component instanceof net.kyori.adventure.text.TextComponent) {
+            plainText.append(((net.kyori.adventure.text.TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            for (val arg : ((TranslatableComponent) component).args())
+                if (!collectSeparateText(arg, strings)) return false;
+        } else if (!(component instanceof KeybindComponent)) {
+            return false;
+        }
+
+        if (component.insertion() != null)
+            strings.add(component.insertion());
+
+        val clickEvent = component.clickEvent();
+        if (clickEvent != null) {
+            if (clickEvent.action() == ClickEvent.Action.OPEN_URL) return false;
+            strings.add(clickEvent.value());
+        }
+
+        val hoverEvent = component.hoverEvent();
+        if (hoverEvent != null) {
+            if (hoverEvent.action() != HoverEvent.Action.SHOW_TEXT) return false;
+            if (!collectSeparateText(hoverEvent.value(), strings)) return false;
+        }
+
+        for (val child : component.children())
+            if (!collectText(child, plainText, strings)) return false;
+        return true;
+    }
+
+    private static boolean collectSeparateText(Object comp, List<String> strings) {
+        val text = new StringBuilder();
+        if (!collectText(comp, text, strings)) return false;
+        strings.add(text.toString());
+        return true;
+    }
+
 }
@@ -0,0 +1,72 @@
+package com.rexcantor64.triton.language;
+
+import com.rexcantor64.triton.api.config.FeatureSyntax;
+import com.rexcantor64.triton.language.pattern.PatternIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RecentTranslationsTest {
+
+    private static final FeatureSyntax SYNTAX = syntax("lang");
+    private static final LanguageSnapshot SNAPSHOT = LanguageSnapshot.EMPTY;
+
+    private static FeatureSyntax syntax(String lang) {
+        return new FeatureSyntax() {
+            @Override
+            public String getLang() {
+                return lang;
+            }
+
+            @Override
+            public String getArgs() {
+                return "args";
+            }
+
+            @Override
+            public String getArg() {
+                return "arg";
+            }
+        };
+    }
+
+    @Test
+    public void testReuseTranslation() {
+        RecentTranslations recent = new RecentTranslations();
+        recent.put(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]hi[/lang]\"}", "{\"text\":\"Hello\"}");
+
+        assertEquals("{\"text\":\"Hello\"}",
+                recent.get(SNAPSHOT, "en_GB", syntax("lang"), "{\"text\":\"[lang]hi[/lang]\"}"));
+        assertNull(recent.get(SNAPSHOT, "pt_PT", SYNTAX, "{\"text\":\"[lang]hi[/lang]\"}"));
+        assertNull(recent.get(SNAPSHOT, "en_GB", syntax("other"), "{\"text\":\"[lang]hi[/lang]\"}"));
+        assertNull(recent.get(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]bye[/lang]\"}"));
+    }
+
+    @Test
+    public void testDisabledMessage() {
+        RecentTranslations recent = new RecentTranslations();
+        recent.put(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]disabled[/lang]\"}", null);
+
+        assertSame(RecentTranslations.DISABLED,
+                recent.get(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]disabled[/lang]\"}"));
+
+        recent.clear();
+        assertNull(recent.get(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]disabled[/lang]\"}"));
+    }
+
+    @Test
+    public void testOtherSnapshot() {
+        RecentTranslations recent = new RecentTranslations();
+        LanguageSnapshot reloaded = new LanguageSnapshot(Collections.emptyList(), null, TranslationStore.EMPTY,
+                Collections.emptyMap(), Collections.emptyList(), PatternIndex.empty(), 0);
+        // A translation that started before a reload and finished after it
+        recent.put(SNAPSHOT, "en_GB", SYNTAX, "{\"text\":\"[lang]hi[/lang]\"}", "{\"text\":\"Hello\"}");
+
+        assertNull(recent.get(reloaded, "en_GB", SYNTAX, "{\"text\":\"[lang]hi[/lang]\"}"));
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.rexcantor64.triton.language;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TranslationStoreTest {
+
+    private static TranslationStore createStore() {
+        TranslationStore.Builder builder = new TranslationStore.Builder(Arrays.asList("en_GB", "pt_PT"), "en_GB");
+        builder.add("en_GB", "greeting", "Hello %1");
+        builder.add("pt_PT", "greeting", "Olá %1");
+        builder.add("en_GB", "name", "Triton");
+        builder.add("pt_PT", "only.portuguese", "Só em português");
+        return builder.build();
+    }
+
+    @Test
+    public void testGetText() {
+        TranslationStore store = createStore();
+        int portuguese = store.getLanguageIndex("pt_PT");
+
+        assertEquals("Olá Steve", store.getText(portuguese, store.getKeyId("greeting")).render("Steve"));
+        assertEquals("Hello Steve",
+                store.getText(store.getLanguageIndex("en_GB"), store.getKeyId("greeting")).render("Steve"));
+        assertNull(store.getText(portuguese, store.getKeyId("missing")));
+    }
+
+    @Test
+    public void testFallbackToMainLanguage() {
+        TranslationStore store = createStore();
+        int name = store.getKeyId("name");
+
+        assertSame(store.getText(store.getMainLanguageIndex(), name),
+                store.getText(store.getLanguageIndex("pt_PT"), name));
+        assertEquals(store.getMainLanguageIndex(), store.getLanguageIndex("unknown"));
+        assertNull(store.getText(store.getMainLanguageIndex(), store.getKeyId("only.portuguese")));
+    }
+
+    @Test
+    public void testTranslationKeyIsResolvedAgainAfterReload() {
+        TranslationKey key = new TranslationKey("name");
+        TranslationStore store = createStore();
+        assertEquals(store.getKeyId("name"), key.getId(store));
+
+        TranslationStore.Builder builder = new TranslationStore.Builder(Arrays.asList("en_GB", "pt_PT"), "en_GB");
+        builder.add("en_GB", "other", "Other");
+        builder.add("en_GB", "name", "Triton");
+        TranslationStore reloaded = builder.build();
+        assertEquals(1, key.getId(reloaded));
+        assertEquals("Triton", reloaded.getText(reloaded.getMainLanguageIndex(), key.getId(reloaded)).render());
+    }
+
+    @Test
+    public void testReuseCompiledTranslations() {
+        TranslationStore.Builder previous = new TranslationStore.Builder(Arrays.asList("en_GB", "pt_PT"), "en_GB");
+        TranslationStore.Translation compiled = previous.compile("pt_PT", "greeting", "Olá %1");
+
+        TranslationStore.Builder builder = new TranslationStore.Builder(Arrays.asList("en_GB", "pt_PT"), "en_GB");
+        builder.add("en_GB", "greeting", "Hello %1");
+        builder.add(compiled);
+        TranslationStore store = builder.build();
+
+        assertEquals("Olá Steve",
+                store.getText(store.getLanguageIndex("pt_PT"), store.getKeyId("greeting")).render("Steve"));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.rexcantor64.triton.language.item.serializers;
+
+import com.google.gson.JsonParseException;
+import com.rexcantor64.triton.language.item.Collection;
+import com.rexcantor64.triton.language.item.LanguageSign;
+import com.rexcantor64.triton.language.item.LanguageText;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CollectionSerializerTest {
+
+    private static Collection parse(String json) {
+        return CollectionSerializer.parse(new StringReader(json));
+    }
+
+    @Test
+    public void testParseCollection() {
+        Collection collection = parse("{\"metadata\":{\"blacklist\":false,\"servers\":[\"lobby\"]},\"items\":[" +
+                "{\"key\":\"greeting\",\"languages\":{\"en_GB\":\"Hello %1\",\"pt_PT\":\"Olá %1\"}," +
+                "\"patterns\":[\"Hello (.+)\"],\"blacklist\":true,\"servers\":[],\"unknown\":{\"a\":[1]}," +
+                "\"type\":\"text\"}," +
+                "null," +
+                "{\"type\":\"sign\",\"key\":\"welcome\",\"lines\":{\"en_GB\":[\"Welcome\",\"\",\"\",\"\"]}," +
+                "\"locations\":[{\"world\":\"world\",\"x\":1,\"y\":2,\"z\":3}]}]}");
+
+        assertFalse(collection.getMetadata().isBlacklist());
+        assertEquals(Collections.singletonList("lobby"), collection.getMetadata().getServers());
+        assertEquals(2, collection.getItems().size());
+
+        LanguageText text = (LanguageText) collection.getItems().get(0);
+        assertEquals("greeting", text.getKey());
+        assertEquals("Olá %1", text.getMessage("pt_PT"));
+        assertEquals("Olá $1", text.getMessageRegex("pt_PT"));
+        assertEquals(Collections.singletonList("Hello (.+)"), text.getPatterns());
+        assertTrue(text.getBlacklist());
+        assertEquals(Collections.emptyList(), text.getServers());
+
+        LanguageSign sign = (LanguageSign) collection.getItems().get(1);
+        assertEquals("welcome", sign.getKey());
+        assertArrayEquals(new String[]{"Welcome", "", "", ""}, sign.getLines("en_GB"));
+        assertEquals("world", sign.getLocations().get(0).getWorld());
+        assertEquals(3, sign.getLocations().get(0).getZ());
+    }
+
+    @Test
+    public void testParseLegacyCollection() {
+        Collection collection = parse("[{\"type\":\"text\",\"key\":\"a\",\"languages\":{\"en_GB\":\"A\"}}," +
+                "{\"type\":\"TEXT\",\"key\":\"b\"}]");
+
+        assertTrue(collection.getMetadata().isBlacklist());
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(collection.getItems().get(0).getKey(),
+                collection.getItems().get(1).getKey()));
+        assertNull(((LanguageText) collection.getItems().get(1)).getLanguages());
+    }
+
+    @Test
+    public void testInvalidCollection() {
+        assertThrows(JsonParseException.class, () -> parse("[{\"type\":\"unknown\",\"key\":\"a\"}]"));
+        assertThrows(JsonParseException.class, () -> parse("[{\"type\":\"text\"}]"));
+        assertThrows(JsonParseException.class, () -> parse("[{\"type\":\"text\",\"key\":\"a\",\"languages\":[]}]"));
+        assertThrows(JsonParseException.class, () -> parse("[{\"type\":\"text\",\"key\":\"a\""));
+        assertThrows(JsonParseException.class, () -> parse("\"text\""));
+    }
+
+}
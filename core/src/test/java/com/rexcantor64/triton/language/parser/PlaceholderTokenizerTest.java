@@ -0,0 +1,74 @@
+package com.rexcantor64.triton.language.parser;
+
+import com.rexcantor64.triton.api.config.FeatureSyntax;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlaceholderTokenizerTest {
+
+    private static final FeatureSyntax SYNTAX = new FeatureSyntax() {
+        @Override
+        public String getLang() {
+            return "lang";
+        }
+
+        @Override
+        public String getArgs() {
+            return "args";
+        }
+
+        @Override
+        public String getArg() {
+            return "arg";
+        }
+    };
+
+    @Test
+    public void testTokenizeWithoutPlaceholders() {
+        assertTrue(PlaceholderTokenizer.tokenize("Hello [world]!", SYNTAX).isEmpty());
+    }
+
+    @Test
+    public void testTokenizeSimplePlaceholders() {
+        val input = "Hi [lang]first[/lang] and [lang]second[/lang]";
+        val result = PlaceholderTokenizer.tokenize(input, SYNTAX);
+
+        assertEquals(2, result.size());
+        assertEquals("[lang]first[/lang]", input.substring(result.get(0).getStart(), result.get(0).getEnd()));
+        assertEquals("first", input.substring(result.get(0).getKeyStart(), result.get(0).getKeyEnd()));
+        assertEquals("second", input.substring(result.get(1).getKeyStart(), result.get(1).getKeyEnd()));
+        assertTrue(result.get(1).getArguments().isEmpty());
+    }
+
+    @Test
+    public void testTokenizeNestedArguments() {
+        val input = "[lang]key[args][arg]a[/arg][arg][lang]inner[args][arg]b[/arg][/args][/lang][/arg][/args][/lang]!";
+        val result = PlaceholderTokenizer.tokenize(input, SYNTAX);
+
+        assertEquals(1, result.size());
+        val placeholder = result.get(0);
+        assertEquals(input.length() - 1, placeholder.getEnd());
+        assertEquals("key", input.substring(placeholder.getKeyStart(), placeholder.getKeyEnd()));
+        assertEquals(2, placeholder.getArguments().size());
+
+        val first = placeholder.getArguments().get(0);
+        assertEquals("a", input.substring(first.getStart(), first.getEnd()));
+        assertTrue(first.getPlaceholders().isEmpty());
+
+        val second = placeholder.getArguments().get(1);
+        assertEquals(1, second.getPlaceholders().size());
+        val inner = second.getPlaceholders().get(0);
+        assertEquals("inner", input.substring(inner.getKeyStart(), inner.getKeyEnd()));
+        assertEquals("b", input.substring(inner.getArguments().get(0).getStart(), inner.getArguments().get(0).getEnd()));
+    }
+
+    @Test
+    public void testTokenizeIgnoresEmptyAndUnclosedPlaceholders() {
+        assertTrue(PlaceholderTokenizer.tokenize("[lang][/lang] [lang]unclosed", SYNTAX).isEmpty());
+        assertTrue(PlaceholderTokenizer.tokenize("[/lang]", SYNTAX).isEmpty());
+    }
+
+}
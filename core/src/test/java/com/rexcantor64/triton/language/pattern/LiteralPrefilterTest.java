@@ -0,0 +1,41 @@
+package com.rexcantor64.triton.language.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LiteralPrefilterTest {
+
+    @Test
+    public void testMightMatch() {
+        LiteralPrefilter prefilter = LiteralPrefilter.build(Arrays.asList("Welcome (.+)!", "You have (\\d+) coins"));
+
+        assertTrue(prefilter.mightMatch("You have 20 coins"));
+        assertTrue(prefilter.mightMatchJson("{\"text\":\"Welcome Steve!\"}"));
+        assertFalse(prefilter.mightMatch("Hello there"));
+        assertFalse(prefilter.mightMatchJson("{\"text\":\"Hello there\"}"));
+    }
+
+    @Test
+    public void testColorCodedPattern() {
+        // Patterns are matched against text with formatting codes, but the prefilter also sees plain text and JSON
+        LiteralPrefilter prefilter = LiteralPrefilter.build(Collections.singletonList("§eYou have (\\d+) coins"));
+
+        assertTrue(prefilter.candidates("§eYou have 20 coins").get(0));
+        assertTrue(prefilter.mightMatch("You have 20 coins"));
+        assertTrue(prefilter.mightMatchJson("{\"color\":\"yellow\",\"text\":\"You have 20 coins\"}"));
+        assertFalse(prefilter.mightMatch("Hello there"));
+    }
+
+    @Test
+    public void testPatternWithOnlyFormattingCodes() {
+        LiteralPrefilter prefilter = LiteralPrefilter.build(Collections.singletonList("§e§l(.+)"));
+
+        assertTrue(prefilter.mightMatch("Hello there"));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.rexcantor64.triton.language.pattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PikeVmTest {
+
+    private static final String[][] CASES = {
+            {"Welcome (.+)!", "Welcome Steve!", "Bem-vindo $1!"},
+            {"You have (\\d+) coins?", "You have 1 coin, you have 20 coins", "Tens $1 moedas"},
+            {"(cat|category)(s?)", "categories and cats", "<$1|$2>"},
+            {"a+?b*", "aaabb ab b", "<$0>"},
+            {"^\\[(?<tag>\\w+)\\] (.*)$", "[Server] hello there\n", "$2 ($1)"},
+            {"\\bis\\b", "this is it", "IS"},
+            {"x{2,3}", "xxxxxxx", "-"},
+            {"", "abc", "-"},
+            {"[^a-c\\s]+", "abc def\tghi", "<$0>"},
+            {"\\Qa.b\\E+", "a.bbb a.b axb", "<$0>"},
+    };
+
+    @Test
+    public void testReplaceAllMatchesJava() throws Exception {
+        for (String[] testCase : CASES) {
+            String expected = Pattern.compile(testCase[0]).matcher(testCase[1]).replaceAll(testCase[2]);
+            String actual = PikeVm.compile(testCase[0])
+                    .replaceAll(testCase[1], testCase[2], PatternTimeoutException.NO_DEADLINE);
+            assertEquals(expected, actual, testCase[0]);
+        }
+    }
+
+    @Test
+    public void testCatastrophicPatternIsLinear() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10000; i++) input.append('x');
+
+        PikeVm vm = PikeVm.compile("(.*x){20}y");
+        long deadline = PatternTimeoutException.deadline(10_000_000_000L);
+        assertEquals(input.toString(), vm.replaceAll(input.toString(), "z", deadline));
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        PikeVm vm = PikeVm.compile("x");
+        assertThrows(PatternTimeoutException.class, () -> vm.replaceAll("xxx", "y", PatternTimeoutException.now() - 1));
+    }
+
+    @Test
+    public void testUnsupportedConstructs() {
+        for (String regex : new String[]{"(a)\\1", "(?=a)", "(?i)a", "a++", "\\p{L}"})
+            assertThrows(RegexParser.UnsupportedRegexException.class, () -> PikeVm.compile(regex), regex);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.rexcantor64.triton.language.template;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ComponentTemplateTest {
+
+    @Test
+    public void testRenderJsonArguments() {
+        ComponentTemplate template = ComponentTemplate.compile("test", TextTemplate.compile(
+                "[triton_json]{\"text\":\"&aHi %1\",\"clickEvent\":{\"action\":\"run_command\",\"value\":\"/msg %1\"}}"));
+        assertNotNull(template);
+
+        BaseComponent[] result = template.render("Alice \"quoted\"");
+        assertEquals("§aHi Alice \"quoted\"", TextComponent.toPlainText(result));
+        assertEquals("/msg Alice \"quoted\"", result[0].getClickEvent().getValue());
+
+        // Rendering must not change the template
+        assertEquals("§aHi Bob", TextComponent.toPlainText(template.render("Bob")));
+    }
+
+    @Test
+    public void testRenderIsEquivalentToParsing() {
+        String source = "[triton_json][\"\",{\"text\":\"Welcome\",\"bold\":true},{\"text\":\" %1\",\"color\":\"red\"}]";
+        ComponentTemplate template = ComponentTemplate.compile("test", TextTemplate.compile(source));
+        assertNotNull(template);
+
+        assertEquals(ComponentSerializer.toString(ComponentTemplate.parse(TextTemplate.compile(source).render("Steve"))),
+                ComponentSerializer.toString(template.render("Steve")));
+    }
+
+    @Test
+    public void testArgumentsOutsideTextAreParsedOnRender() {
+        ComponentTemplate template = ComponentTemplate.compile("test",
+                TextTemplate.compile("[triton_json]{\"text\":\"Hi\",\"color\":\"%1\"}"));
+
+        assertNull(template);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.rexcantor64.triton.language.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TextTemplateTest {
+
+    @Test
+    public void testRenderWithoutArguments() {
+        TextTemplate template = TextTemplate.compile("&aHello %1!");
+
+        assertEquals("§aHello %1!", template.render());
+        assertSame(template.render(), template.render());
+    }
+
+    @Test
+    public void testRenderArguments() {
+        TextTemplate template = TextTemplate.compile("&a%1 sent %2 to %1");
+
+        assertEquals("§aAlice sent 5 coins to Alice", template.render("Alice", "5 coins"));
+    }
+
+    @Test
+    public void testRenderMultipleDigitArguments() {
+        TextTemplate template = TextTemplate.compile("%10-%1-%12");
+        Object[] args = new Object[]{"a", "b", "c", "d", "e", "f", "g", "h", "i", "j"};
+
+        assertEquals("j-a-a2", template.render(args));
+        assertEquals("a0-a-a2", template.render("a"));
+    }
+
+    @Test
+    public void testRenderMissingArguments() {
+        TextTemplate template = TextTemplate.compile("%1 %2 %0 100%");
+
+        assertEquals("a %2 %0 100%", template.render("a"));
+    }
+
+}
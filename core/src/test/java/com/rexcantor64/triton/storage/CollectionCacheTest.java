@@ -0,0 +1,106 @@
+package com.rexcantor64.triton.storage;
+
+import com.rexcantor64.triton.language.item.Collection;
+import com.rexcantor64.triton.language.item.LanguageSign;
+import com.rexcantor64.triton.language.item.LanguageText;
+import com.rexcantor64.triton.language.item.SignLocation;
+import com.rexcantor64.triton.language.item.TWINData;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CollectionCacheTest {
+
+    private static Map<String, Collection> createCollections() {
+        LanguageText text = new LanguageText();
+        text.setKey("greeting");
+        HashMap<String, String> languages = new HashMap<>();
+        languages.put("en_GB", "Hello %1");
+        languages.put("pt_PT", "Olá %1");
+        text.setLanguages(languages);
+        text.setBlacklist(false);
+        text.setServers(Collections.singletonList("lobby"));
+        text.setPatterns(Collections.singletonList("Hello (.+)"));
+        text.generateRegexStrings();
+        TWINData twinData = new TWINData();
+        twinData.setId(UUID.randomUUID());
+        twinData.setDateCreated(1);
+        twinData.setDateUpdated(2);
+        twinData.setTags(new String[]{"tag"});
+        text.setTwinData(twinData);
+
+        LanguageText empty = new LanguageText();
+        empty.setKey("empty");
+
+        LanguageSign sign = new LanguageSign();
+        sign.setKey("welcome");
+        HashMap<String, String[]> lines = new HashMap<>();
+        lines.put("en_GB", new String[]{"Welcome", "", "", ""});
+        sign.setLines(lines);
+        sign.setLocations(Collections.singletonList(new SignLocation("lobby", "world", 1, 2, 3)));
+
+        Collection collection = new Collection();
+        collection.getMetadata().setBlacklist(false);
+        collection.getMetadata().setServers(Collections.singletonList("lobby"));
+        collection.setItems(Arrays.asList(text, empty, sign));
+        collection.setRevision("revision");
+        return Collections.singletonMap("default", collection);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        File file = Files.createTempFile("triton", ".bin").toFile();
+        try {
+            Map<String, Collection> collections = createCollections();
+            CollectionCache.write(file, collections, 42);
+            CollectionCache.Contents contents = CollectionCache.read(file);
+
+            assertNotNull(contents);
+            assertEquals(42L, contents.getRevision());
+            Collection collection = contents.getCollections().get("default");
+            assertEquals("revision", collection.getRevision());
+            assertEquals(collections.get("default").getMetadata(), collection.getMetadata());
+            assertEquals(collections.get("default").getItems().subList(0, 2), collection.getItems().subList(0, 2));
+            assertEquals("Olá $1", ((LanguageText) collection.getItems().get(0)).getMessageRegex("pt_PT"));
+
+            LanguageSign sign = (LanguageSign) collection.getItems().get(2);
+            assertEquals("Welcome", sign.getLines("en_GB")[0]);
+            assertEquals(new SignLocation("lobby", "world", 1, 2, 3), sign.getLocations().get(0));
+            assertEquals("lobby", sign.getLocations().get(0).getServer());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        File file = Files.createTempFile("triton", ".bin").toFile();
+        try {
+            CollectionCache.write(file, createCollections(), -1);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(raf.length() - 1);
+                int last = raf.read();
+                raf.seek(raf.length() - 1);
+                raf.write(last ^ 1);
+            }
+            assertThrows(IOException.class, () -> CollectionCache.read(file));
+        } finally {
+            file.delete();
+        }
+        assertNull(CollectionCache.read(file));
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.rexcantor64.triton.storage;
+
+import com.rexcantor64.triton.logger.JavaLogger;
+import com.rexcantor64.triton.logger.TritonLogger;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlayerDataJournalTest {
+
+    private final TritonLogger logger = new JavaLogger(Logger.getLogger(PlayerDataJournalTest.class.getName()));
+
+    @Test
+    public void testAppendAndCompact() throws IOException {
+        File folder = Files.createTempDirectory("triton").toFile();
+        PlayerDataJournal journal = new PlayerDataJournal(folder, false, logger);
+        assertTrue(journal.load().isEmpty());
+
+        journal.append(Collections.singletonMap("127-0-0-1", "en_GB"));
+        Map<String, String> changes = new HashMap<>();
+        changes.put("127-0-0-1", "pt_PT");
+        changes.put("4a8bd1d4-7e5c-4e6c-9a1e-0d4c3b2a1f00", "en_GB \"quoted\"\n");
+        journal.append(changes);
+
+        Map<String, String> expected = new HashMap<>(changes);
+        PlayerDataJournal reopened = new PlayerDataJournal(folder, false, logger);
+        assertEquals(expected, reopened.load());
+        assertEquals(3, reopened.getJournalEntries());
+        assertFalse(reopened.shouldCompact(expected.size()));
+
+        reopened.compact(expected);
+        assertFalse(new File(folder, "players.journal").exists());
+        assertEquals(0, reopened.getJournalEntries());
+
+        reopened.append(Collections.singletonMap("127-0-0-1", "es_ES"));
+        expected.put("127-0-0-1", "es_ES");
+        assertEquals(expected, new PlayerDataJournal(folder, true, logger).load());
+    }
+
+    @Test
+    public void testReplayOnTopOfSnapshot() throws IOException {
+        File folder = Files.createTempDirectory("triton").toFile();
+        // A players.json from before the journal existed
+        Files.write(new File(folder, "players.json").toPath(),
+                "{\n  \"a\": \"en_GB\",\n  \"b\": \"pt_PT\"\n}".getBytes(StandardCharsets.UTF_8));
+
+        PlayerDataJournal journal = new PlayerDataJournal(folder, false, logger);
+        journal.load();
+        journal.append(Collections.singletonMap("b", "en_GB"));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("a", "en_GB");
+        expected.put("b", "en_GB");
+        assertEquals(expected, new PlayerDataJournal(folder, false, logger).load());
+    }
+
+    @Test
+    public void testAppendAfterPartialLine() throws IOException {
+        File folder = Files.createTempDirectory("triton").toFile();
+        PlayerDataJournal journal = new PlayerDataJournal(folder, false, logger);
+        journal.append(Collections.singletonMap("a", "en_GB"));
+        // A crash while appending the next line
+        Files.write(new File(folder, "players.journal").toPath(), "[\"b\",\"pt".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        journal = new PlayerDataJournal(folder, false, logger);
+        journal.load();
+        assertEquals(1, journal.getSkippedLines());
+        journal.append(Collections.singletonMap("c", "es_ES"));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("a", "en_GB");
+        expected.put("c", "es_ES");
+        PlayerDataJournal reopened = new PlayerDataJournal(folder, false, logger);
+        assertEquals(expected, reopened.load());
+        assertEquals(1, reopened.getSkippedLines());
+        assertEquals(2, reopened.getJournalEntries());
+    }
+
+}